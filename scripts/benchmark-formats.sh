@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+#
+# Compares the JSON, CBOR and Smile representations of the same endpoint.
+#
+# Against a running application, prints for each format the payload size (raw and gzipped) and the
+# requests/s with p50/p99 latencies under load, which is dominated by serialization for large pages.
+# Client-side parse time is measured by decoding the saved payloads with Jackson through jshell, averaged
+# over a number of runs. Requires curl, gzip, wrk and a JDK on the PATH; the jshell step needs the
+# application's classpath (./mvnw dependency:build-classpath -Dmdep.outputFile=target/classpath.txt).
+#
+# Usage: scripts/benchmark-formats.sh [path] [connections] [duration]
+#   path         endpoint to compare, default /api/orders?page=0&limit=100
+#   connections  concurrent connections, default 50
+#   duration     wrk duration per format, default 30s
+#
+# Authenticated endpoints need credentials: export BENCH_AUTH="Bearer <token>".
+
+set -euo pipefail
+
+PATH_UNDER_TEST="${1:-/api/orders?page=0&limit=100}"
+CONNECTIONS="${2:-50}"
+DURATION="${3:-30s}"
+BASE_URL="${BENCH_URL:-http://localhost:8080}"
+OUT="target/bench-formats"
+FORMATS=("json:application/json" "cbor:application/cbor" "smile:application/x-jackson-smile")
+
+mkdir -p "${OUT}"
+
+auth=()
+if [[ -n "${BENCH_AUTH:-}" ]]; then
+	auth=(-H "Authorization: ${BENCH_AUTH}")
+fi
+
+printf "%-6s %12s %12s\n" "format" "bytes" "gzip bytes"
+for entry in "${FORMATS[@]}"; do
+	name="${entry%%:*}"
+	type="${entry#*:}"
+	curl -sf "${auth[@]}" -H "Accept: ${type}" -o "${OUT}/page.${name}" "${BASE_URL}${PATH_UNDER_TEST}"
+	printf "%-6s %12d %12d\n" "${name}" "$(wc -c <"${OUT}/page.${name}")" "$(gzip -c "${OUT}/page.${name}" | wc -c)"
+done
+
+for entry in "${FORMATS[@]}"; do
+	name="${entry%%:*}"
+	type="${entry#*:}"
+	# warm up (JIT, caches, connection pool), then measure
+	wrk -t4 -c"${CONNECTIONS}" -d10s -H "Accept: ${type}" "${auth[@]}" "${BASE_URL}${PATH_UNDER_TEST}" >/dev/null
+	echo "== ${name}"
+	wrk -t4 -c"${CONNECTIONS}" -d"${DURATION}" --latency -H "Accept: ${type}" "${auth[@]}" "${BASE_URL}${PATH_UNDER_TEST}" \
+		| grep -E "Requests/sec|50%|99%|Non-2xx|Socket errors"
+done
+
+if [[ -f target/classpath.txt ]]; then
+	echo "== parse time (tree model, 2000 runs after 500 warm-up runs)"
+	jshell --class-path "$(cat target/classpath.txt)" -q <<-EOF
+		import com.fasterxml.jackson.databind.ObjectMapper;
+		import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+		import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+		import java.nio.file.*;
+		void time(String name, ObjectMapper mapper) throws Exception {
+			byte[] bytes = Files.readAllBytes(Path.of("${OUT}/page." + name));
+			for (int i = 0; i < 500; i++) mapper.readTree(bytes);
+			long start = System.nanoTime();
+			for (int i = 0; i < 2000; i++) mapper.readTree(bytes);
+			System.out.printf("%-6s %10.1f us/page%n", name, (System.nanoTime() - start) / 2000 / 1000.0);
+		}
+		time("json", new ObjectMapper());
+		time("cbor", new ObjectMapper(new CBORFactory()));
+		time("smile", new ObjectMapper(new SmileFactory()));
+		/exit
+	EOF
+else
+	echo "Skipping parse times: target/classpath.txt not found" >&2
+fi
@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+#
+# Compares throughput and latency of platform threads vs virtual threads.
+#
+# Starts the packaged application once per mode (profiles "bench" and "bench,virtual-threads"), drives it
+# with wrk and prints requests/s with the p50/p99 latencies. Requires a built jar (./mvnw -DskipTests
+# package), a reachable database and wrk on the PATH.
+#
+# Usage: scripts/benchmark-threads.sh [path] [connections] [duration]
+#   path         endpoint to load, default /api/products?page=1
+#   connections  concurrent connections, default 400
+#   duration     wrk duration, default 60s
+#
+# Authenticated endpoints need credentials: export BENCH_AUTH="Bearer <token>".
+
+set -euo pipefail
+
+PATH_UNDER_TEST="${1:-/api/products?page=1}"
+CONNECTIONS="${2:-400}"
+DURATION="${3:-60s}"
+PORT="${BENCH_PORT:-8080}"
+JAR="$(ls target/*.jar 2>/dev/null | grep -v original | head -n 1)"
+
+if [[ -z "${JAR}" ]]; then
+	echo "No jar in target/, run ./mvnw -DskipTests package first" >&2
+	exit 1
+fi
+
+run_mode() {
+	local profiles="$1"
+	java -jar "${JAR}" --spring.profiles.active="${profiles}" --server.port="${PORT}" >"target/bench-${profiles//,/-}.log" 2>&1 &
+	local pid=$!
+	trap 'kill ${pid} 2>/dev/null || true' RETURN
+
+	# any HTTP answer means the server is up (the actuator requires authentication)
+	until curl -s -o /dev/null "http://localhost:${PORT}/"; do
+		sleep 1
+	done
+
+	local auth=()
+	if [[ -n "${BENCH_AUTH:-}" ]]; then
+		auth=(-H "Authorization: ${BENCH_AUTH}")
+	fi
+
+	# warm up (JIT, caches, connection pool), then measure
+	wrk -t4 -c"${CONNECTIONS}" -d15s "${auth[@]}" "http://localhost:${PORT}${PATH_UNDER_TEST}" >/dev/null
+	echo "== ${profiles}"
+	wrk -t8 -c"${CONNECTIONS}" -d"${DURATION}" --latency "${auth[@]}" "http://localhost:${PORT}${PATH_UNDER_TEST}" \
+		| grep -E "Requests/sec|50%|99%|Non-2xx|Socket errors"
+
+	kill "${pid}"
+	wait "${pid}" 2>/dev/null || true
+}
+
+run_mode "bench"
+run_mode "bench,virtual-threads"
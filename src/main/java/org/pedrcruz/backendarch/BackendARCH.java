@@ -12,6 +12,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
  */
 @SpringBootApplication
 @EntityScan(basePackages = {
+    "org.pedrcruz.backendarch.core.catalogmanagement.domain.model",
     "org.pedrcruz.backendarch.core.categorymanagement.domain.model",
     "org.pedrcruz.backendarch.core.productmanagement.domain.model",
     "org.pedrcruz.backendarch.core.inventorymanagement.domain.model",
@@ -19,6 +20,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
     "org.pedrcruz.backendarch.core.usermanagement.domain.model"
 })
 @EnableJpaRepositories(basePackages = {
+    "org.pedrcruz.backendarch.core.catalogmanagement",
     "org.pedrcruz.backendarch.core.categorymanagement",
     "org.pedrcruz.backendarch.core.productmanagement",
     "org.pedrcruz.backendarch.core.inventorymanagement",
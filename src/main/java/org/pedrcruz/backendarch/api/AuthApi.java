@@ -1,13 +1,16 @@
 package org.pedrcruz.backendarch.api;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.pedrcruz.backendarch.core.usermanagement.api.UserView;
 import org.pedrcruz.backendarch.core.usermanagement.api.UserApiViewMapper;
 import org.pedrcruz.backendarch.core.usermanagement.application.CreateUserRequest;
+import org.pedrcruz.backendarch.core.usermanagement.application.TokenRevocationService;
 import org.pedrcruz.backendarch.core.usermanagement.application.UserService;
 import org.pedrcruz.backendarch.core.usermanagement.domain.model.User;
+import org.pedrcruz.backendarch.util.security.LoginThrottle;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,15 +18,19 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.Instant;
+import java.util.UUID;
 
 import static java.lang.String.format;
 import static java.util.stream.Collectors.joining;
@@ -46,6 +53,10 @@ public class AuthApi {
 
 	private final UserService userService;
 
+	private final TokenRevocationService tokenRevocations;
+
+	private final LoginThrottle loginThrottle;
+
 	/**
 	 * Login to obtain a JWT for use with other APIs of eCafeteriaXXI
 	 *
@@ -53,10 +64,14 @@ public class AuthApi {
 	 * @return
 	 */
 	@PostMapping("login")
-	public ResponseEntity<UserView> login(@RequestBody @Valid final AuthRequest request) {
+	public ResponseEntity<UserView> login(@RequestBody @Valid final AuthRequest request,
+			final HttpServletRequest httpRequest) {
 		try {
-			final var authentication = authenticationManager.authenticate(
-					new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
+			final var credentials = new UsernamePasswordAuthenticationToken(request.getUsername(),
+					request.getPassword());
+			// carries the client address for login throttling
+			credentials.setDetails(new WebAuthenticationDetails(httpRequest));
+			final var authentication = authenticationManager.authenticate(credentials);
 
 			// if the authentication is successful, Spring will store the authenticated user
 			// in its "principal"
@@ -68,11 +83,15 @@ public class AuthApi {
 			final var scope = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority)
 					.collect(joining(" "));
 
-			final var claims = JwtClaimsSet.builder().issuer("example.io").issuedAt(now)
-					.expiresAt(now.plusSeconds(expiry)).subject(format("%s,%s", user.getId(), user.getUsername()))
+			// the id lets the token be revoked before it expires (logout, user disabled)
+			final var jti = UUID.randomUUID().toString();
+			final var expiresAt = now.plusSeconds(expiry);
+			final var claims = JwtClaimsSet.builder().id(jti).issuer("example.io").issuedAt(now)
+					.expiresAt(expiresAt).subject(format("%s,%s", user.getId(), user.getUsername()))
 					.claim("roles", scope).build();
 
 			final var token = this.jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+			tokenRevocations.issued(jti, user.getId(), expiresAt);
 
 			return ResponseEntity.ok().header(HttpHeaders.AUTHORIZATION, token).body(userViewMapper.toUserView(user));
 		} catch (final BadCredentialsException ex) {
@@ -80,6 +99,21 @@ public class AuthApi {
 		}
 	}
 
+	/**
+	 * Logout: revokes the bearer token used to call this endpoint
+	 *
+	 * @param jwt
+	 * @return
+	 */
+	@PostMapping("logout")
+	public ResponseEntity<Void> logout(@AuthenticationPrincipal final Jwt jwt) {
+		if (jwt == null || jwt.getId() == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+		tokenRevocations.revoke(jwt.getId(), userIdOf(jwt), jwt.getExpiresAt());
+		return ResponseEntity.noContent().build();
+	}
+
 	/**
 	 * Signup
 	 *
@@ -87,9 +121,21 @@ public class AuthApi {
 	 * @return
 	 */
 	@PostMapping("register")
-	public UserView register(@RequestBody @Valid final CreateUserRequest request) {
+	public UserView register(@RequestBody @Valid final CreateUserRequest request,
+			final HttpServletRequest httpRequest) {
+		// registering hashes a password too
+		loginThrottle.acquire(null, httpRequest.getRemoteAddr());
 		final var user = userService.create(request);
 		return userViewMapper.toUserView(user);
 	}
 
+	private static Long userIdOf(final Jwt jwt) {
+		// subject is "<id>,<username>"
+		final var subject = jwt.getSubject();
+		try {
+			return subject != null ? Long.valueOf(subject.substring(0, subject.indexOf(','))) : null;
+		} catch (final NumberFormatException | IndexOutOfBoundsException e) {
+			return null;
+		}
+	}
 }
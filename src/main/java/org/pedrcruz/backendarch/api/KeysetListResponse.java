@@ -0,0 +1,17 @@
+package org.pedrcruz.backendarch.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Response wrapper for keyset-paginated collections: pass {@code next} back as {@code after} to get
+ * the following page; it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetListResponse<T> {
+	private List<T> items;
+	private String next;
+}
@@ -4,8 +4,8 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.pedrcruz.backendarch.api.dto.ApiResponse;
+import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryProductCounts;
 import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryService;
-import org.pedrcruz.backendarch.core.productmanagement.application.ProductService;
 import org.pedrcruz.backendarch.core.ordermanagement.application.OrderService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,8 +23,8 @@ import java.util.Map;
 public class HealthController {
 
     private final CategoryService categoryService;
-    private final ProductService productService;
     private final OrderService orderService;
+    private final CategoryProductCounts productCounts;
 
     @Operation(summary = "Health check", description = "Check if the system is running properly")
     @GetMapping
@@ -49,9 +49,10 @@ public class HealthController {
             long totalCategories = categoryService.findActiveCategories().size();
             stats.put("totalCategories", totalCategories);
 
-            // Products stats
-            long totalProducts = productService.findActiveProducts().size();
-            stats.put("totalProducts", totalProducts);
+            // Products stats, from the maintained per-category counters
+            final var productTotals = productCounts.totals();
+            stats.put("totalProducts", productTotals.active());
+            stats.put("inactiveProducts", productTotals.total() - productTotals.active());
 
             // Orders stats
             long totalOrders = orderService.getTotalOrderCount();
@@ -7,9 +7,13 @@ import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 /**
  *
@@ -19,16 +23,6 @@ import org.springframework.web.filter.ShallowEtagHeaderFilter;
 @Configuration
 public class ApiConfig {
 
-	/**
-	 * support for etags
-	 *
-	 * @return
-	 */
-	@Bean
-	public ShallowEtagHeaderFilter shallowEtagHeaderFilter() {
-		return new ShallowEtagHeaderFilter();
-	}
-
 	/*
 	 * OpenAPI
 	 */
@@ -42,6 +36,21 @@ public class ApiConfig {
 						.termsOfService("TOC").license(new License().name("MIT").url("#")));
 	}
 
+	/*
+	 * CBOR and Smile, negotiated with the Accept header next to JSON. Built from Boot's builder so they
+	 * share the spring.jackson.* settings; as replacements of Spring MVC's default converters they keep
+	 * their place after JSON, which remains the default representation.
+	 */
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(final Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(final Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+
 	private SecurityScheme createAPIKeyScheme() {
 		return new SecurityScheme().type(SecurityScheme.Type.HTTP).bearerFormat("JWT").scheme("bearer");
 	}
@@ -1,23 +1,62 @@
 package org.pedrcruz.backendarch.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pedrcruz.backendarch.util.cache.CoalescingCache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager(
+    public CacheManager cacheManager(@Qualifier("cacheRefreshExecutor") final ThreadPoolTaskExecutor cacheRefreshExecutor,
+                                     @Value("${cache.ttl:PT10M}") final Duration ttl,
+                                     @Value("${cache.stale-while-refresh:PT30S}") final Duration staleWhileRefresh,
+                                     @Value("${cache.max-entries:1000}") final int maxEntries,
+                                     final MeterRegistry meterRegistry) {
+        // single-flight loads, expiry and stale-while-refresh, see CoalescingCache
+        final var cacheManager = new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(final String name) {
+                return new CoalescingCache(name, cacheRefreshExecutor, ttl, staleWhileRefresh, maxEntries, meterRegistry);
+            }
+        };
+        cacheManager.setCacheNames(List.of(
                 "categories",
                 "products",
                 "inventory",
                 "orders",
                 "users"
-        );
+        ));
+        return cacheManager;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(@Value("${cache.refresh.threads:4}") final int threads,
+                                                       final Environment environment) {
+        final var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // small queue: when refreshes pile up, stale values keep being served instead
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("cache-refresh-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // refreshes block on JDBC; the pool still caps how many run at once
+            executor.setThreadFactory(Thread.ofVirtual().name("cache-refresh-", 1).factory());
+        }
+        return executor;
     }
 }
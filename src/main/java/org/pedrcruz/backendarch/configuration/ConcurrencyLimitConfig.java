@@ -0,0 +1,89 @@
+package org.pedrcruz.backendarch.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.pedrcruz.backendarch.util.web.ConcurrencyLimitFilter;
+import org.pedrcruz.backendarch.util.web.GradientConcurrencyLimit;
+import org.pedrcruz.backendarch.util.web.RequestPriority;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.pedrcruz.backendarch.util.web.RequestPriority.CRITICAL;
+import static org.pedrcruz.backendarch.util.web.RequestPriority.HIGH;
+import static org.pedrcruz.backendarch.util.web.RequestPriority.LOW;
+
+/**
+ * Sheds load in front of the API: concurrent requests are capped by a limit that follows latency (see
+ * {@link GradientConcurrencyLimit}), so under a spike the excess gets a fast 503 instead of every request
+ * waiting for a database connection. Order writes and kitchen transitions keep the whole limit, while
+ * analytics, exports and admin searches are refused first.
+ * <p>
+ * Registered ahead of Spring Security, so a refused request costs no token verification. Disabled with
+ * {@code http.concurrency-limit.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "http.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+	private record Rule(Set<String> methods, String pattern, RequestPriority priority) {
+
+		// no methods: any method
+		boolean matches(final String method, final String path) {
+			return (methods.isEmpty() || methods.contains(method)) && PATH_MATCHER.match(pattern, path);
+		}
+	}
+
+	private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+	private static final Set<String> ANY = Set.of();
+	private static final Set<String> GET = Set.of("GET");
+	private static final Set<String> WRITES = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+	// first match wins; anything else is NORMAL
+	private static final List<Rule> RULES = List.of(
+			new Rule(ANY, "/api/health/stats/**", LOW),
+			new Rule(ANY, "/api/health/**", CRITICAL),
+			new Rule(ANY, "/actuator/**", CRITICAL),
+			new Rule(GET, "/api/orders/export", LOW),
+			new Rule(GET, "/api/orders/count/**", LOW),
+			new Rule(GET, "/api/orders/revenue/**", LOW),
+			new Rule(WRITES, "/api/orders/**", HIGH),
+			new Rule(Set.of("POST"), "/api/public/login", HIGH),
+			new Rule(Set.of("POST"), "/api/admin/user/search", LOW));
+
+	@Bean
+	public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+			@Value("${http.concurrency-limit.initial:20}") final int initialLimit,
+			@Value("${http.concurrency-limit.min:4}") final int minLimit,
+			@Value("${http.concurrency-limit.max:200}") final int maxLimit,
+			@Value("${http.concurrency-limit.window:PT1S}") final Duration window,
+			@Value("${http.concurrency-limit.window-samples:10}") final int windowSamples,
+			@Value("${http.concurrency-limit.retry-after:PT1S}") final Duration retryAfter,
+			final MeterRegistry meterRegistry) {
+		final var limit = new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit, window, windowSamples);
+		final var registration = new FilterRegistrationBean<>(
+				new ConcurrencyLimitFilter(limit, ConcurrencyLimitConfig::priorityOf, retryAfter, meterRegistry));
+		registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+		return registration;
+	}
+
+	static RequestPriority priorityOf(final HttpServletRequest request) {
+		final var path = request.getRequestURI().substring(request.getContextPath().length());
+		final var method = request.getMethod();
+		for (final Rule rule : RULES) {
+			if (rule.matches(method, path)) {
+				return rule.priority();
+			}
+		}
+		return RequestPriority.NORMAL;
+	}
+}
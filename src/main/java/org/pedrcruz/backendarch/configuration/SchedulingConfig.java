@@ -0,0 +1,30 @@
+package org.pedrcruz.backendarch.configuration;
+
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Enables {@code @Scheduled} background jobs (e.g. applying scheduled product prices), and provides the
+ * executor for maintenance triggered by writes (full recomputes, index rebuilds).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor maintenanceExecutor(final Environment environment) {
+        final var executor = new ThreadPoolTaskExecutor();
+        // one at a time: each task rebuilds a whole in-memory structure from the database
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("maintenance-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(Thread.ofVirtual().name("maintenance-", 1).factory());
+        }
+        return executor;
+    }
+}
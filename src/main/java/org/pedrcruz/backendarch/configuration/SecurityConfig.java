@@ -6,15 +6,27 @@ import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.pedrcruz.backendarch.core.usermanagement.application.PrincipalCache;
+import org.pedrcruz.backendarch.core.usermanagement.application.TokenRevocationService;
 import org.pedrcruz.backendarch.core.usermanagement.domain.model.Role;
-import org.pedrcruz.backendarch.core.usermanagement.domain.repositories.UserRepository;
+import org.pedrcruz.backendarch.exceptions.TooManyAttemptsException;
+import org.pedrcruz.backendarch.util.security.BoundedPasswordEncoder;
+import org.pedrcruz.backendarch.util.security.CachingAuthenticationProvider;
+import org.pedrcruz.backendarch.util.security.CachingGrantedAuthoritiesConverter;
+import org.pedrcruz.backendarch.util.security.CachingJwtDecoder;
+import org.pedrcruz.backendarch.util.security.LoginThrottle;
+import org.pedrcruz.backendarch.util.security.ThrottlingAuthenticationProvider;
+import org.pedrcruz.backendarch.util.security.TokenBuckets;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -24,9 +36,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
@@ -35,13 +47,16 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
 
 import static java.lang.String.format;
 
@@ -61,8 +76,6 @@ import static java.lang.String.format;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
-	private final UserRepository userRepo;
-
 	@Value("${jwt.public.key}")
 	private RSAPublicKey rsaPublicKey;
 
@@ -76,26 +89,51 @@ public class SecurityConfig {
 	private String swaggerPath;
 
 	@Bean
-	public AuthenticationManager authenticationManager(final UserDetailsService userDetailsService,
-			final PasswordEncoder passwordEncoder) {
+	public AuthenticationManager authenticationManager(final CachingAuthenticationProvider credentialCache) {
+		return new ProviderManager(credentialCache);
+	}
+
+	// Remembers verified credentials briefly so repeated HTTP Basic requests skip the password hash;
+	// checks that do reach the password hash are throttled per username and client
+	@Bean
+	public CachingAuthenticationProvider credentialCache(final UserDetailsService userDetailsService,
+			final PasswordEncoder passwordEncoder, final LoginThrottle loginThrottle,
+			@Value("${security.credential-cache.ttl:PT1M}") final Duration ttl,
+			@Value("${security.credential-cache.max-entries:10000}") final int maxEntries) {
 		final var authenticationProvider = new DaoAuthenticationProvider();
 		authenticationProvider.setUserDetailsService(userDetailsService);
 		authenticationProvider.setPasswordEncoder(passwordEncoder);
 
-		return new ProviderManager(authenticationProvider);
+		return new CachingAuthenticationProvider(
+				new ThrottlingAuthenticationProvider(authenticationProvider, loginThrottle), ttl, maxEntries);
+	}
+
+	// Token buckets limiting password checks per username and per client IP
+	@Bean
+	public LoginThrottle loginThrottle(final MeterRegistry meterRegistry,
+			@Value("${security.login-throttle.per-user.attempts:10}") final int perUser,
+			@Value("${security.login-throttle.per-client.attempts:30}") final int perClient,
+			@Value("${security.login-throttle.period:PT1M}") final Duration period,
+			@Value("${security.login-throttle.max-keys:100000}") final int maxKeys) {
+		return new LoginThrottle(new TokenBuckets(perUser, period, maxKeys),
+				new TokenBuckets(perClient, period, maxKeys), meterRegistry);
 	}
 
+	// Principals (user + authorities, one query) are cached per instance, see PrincipalCache
 	@Bean
-	public UserDetailsService userDetailsService() {
-		return username -> userRepo.findByUsername(username)
-				.orElseThrow(() -> new UsernameNotFoundException(format("User: %s, not found", username)));
+	public UserDetailsService userDetailsService(final PrincipalCache principalCache) {
+		return principalCache::load;
 	}
 
 	@Bean
-	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+	public SecurityFilterChain securityFilterChain(HttpSecurity http, final AuthenticationManager authenticationManager)
+			throws Exception {
 		// Enable CORS and disable CSRF
 		http = http.cors(Customizer.withDefaults()).csrf(csrf -> csrf.disable());
 
+		// HTTP Basic goes through the caching authentication manager
+		http = http.authenticationManager(authenticationManager);
+
 		// Set session management to stateless
 		http = http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
@@ -120,7 +158,8 @@ public class SecurityConfig {
 						.requestMatchers("/api/health/stats/**").permitAll()
 						.anyRequest().authenticated()
 				)
-				.httpBasic(Customizer.withDefaults())
+				.httpBasic(basic -> basic
+						.authenticationEntryPoint(tooManyAttemptsAware(new BasicAuthenticationEntryPoint())))
 				.oauth2ResourceServer(oauth2 -> oauth2
 						.jwt(Customizer.withDefaults())
 				);
@@ -135,28 +174,56 @@ public class SecurityConfig {
 		return new NimbusJwtEncoder(jwks);
 	}
 
-	// Used by JwtAuthenticationProvider to decode and validate JWT tokens
+	// Used by JwtAuthenticationProvider to decode and validate JWT tokens; verified tokens are remembered
+	// until they expire so a repeated bearer token skips the RSA signature check, while revocation is
+	// checked on every request
 	@Bean
-	public JwtDecoder jwtDecoder() {
-		return NimbusJwtDecoder.withPublicKey(this.rsaPublicKey).build();
+	public JwtDecoder jwtDecoder(final MeterRegistry meterRegistry, final TokenRevocationService tokenRevocations,
+			@Value("${security.jwt-cache.max-entries:10000}") final int maxEntries) {
+		final var decoder = new CachingJwtDecoder(NimbusJwtDecoder.withPublicKey(this.rsaPublicKey).build(),
+				maxEntries, meterRegistry);
+		return token -> {
+			final var jwt = decoder.decode(token);
+			if (tokenRevocations.isRevoked(jwt.getId())) {
+				throw new BadJwtException("Token has been revoked");
+			}
+			return jwt;
+		};
 	}
 
-	// Extract authorities from the roles claim
+	// Extract authorities from the roles claim, once per token
 	@Bean
-	public JwtAuthenticationConverter jwtAuthenticationConverter() {
+	public JwtAuthenticationConverter jwtAuthenticationConverter(
+			@Value("${security.jwt-cache.max-entries:10000}") final int maxEntries) {
 		final var jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
 		jwtGrantedAuthoritiesConverter.setAuthoritiesClaimName("roles");
 		jwtGrantedAuthoritiesConverter.setAuthorityPrefix("ROLE_");
 
 		final var jwtAuthenticationConverter = new JwtAuthenticationConverter();
-		jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwtGrantedAuthoritiesConverter);
+		jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(
+				new CachingGrantedAuthoritiesConverter(jwtGrantedAuthoritiesConverter, maxEntries));
 		return jwtAuthenticationConverter;
 	}
 
-	// Set password encoding schema
+	// Set password encoding schema; hashing runs on its own bounded pool, off the request threads
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder passwordEncoder(final MeterRegistry meterRegistry,
+			@Value("${security.password-hashing.threads:2}") final int threads,
+			@Value("${security.password-hashing.queue-capacity:32}") final int queueCapacity) {
+		return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, meterRegistry);
+	}
+
+	// Throttled or saturated credential checks answer 429, any other failure the usual Basic challenge
+	private static AuthenticationEntryPoint tooManyAttemptsAware(final BasicAuthenticationEntryPoint basic) {
+		basic.setRealmName("Realm");
+		return (request, response, ex) -> {
+			if (ex instanceof TooManyAttemptsException tooMany) {
+				response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(tooMany.getRetryAfterSeconds()));
+				response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), tooMany.getMessage());
+			} else {
+				basic.commence(request, response, ex);
+			}
+		};
 	}
 
 	// Used by spring security if CORS is enabled.
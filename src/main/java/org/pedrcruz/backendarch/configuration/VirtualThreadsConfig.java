@@ -0,0 +1,45 @@
+package org.pedrcruz.backendarch.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pedrcruz.backendarch.util.jdbc.BoundedDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Opt-in virtual-thread mode, active with {@code spring.threads.virtual.enabled=true} (profile
+ * {@code virtual-threads}). Spring Boot then runs Tomcat requests, {@code @Async} and {@code @Scheduled}
+ * work on virtual threads; our own executors follow {@link Threading#VIRTUAL} (see {@link CacheConfig}).
+ * <p>
+ * Since request threads are no longer scarce, the database pool becomes the limit: connection borrowing
+ * is bounded by a semaphore sized like the pool, so excess requests park cheaply in arrival order.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+	@Bean
+	public static BeanPostProcessor boundedDataSourcePostProcessor(final Environment environment,
+			final ObjectProvider<MeterRegistry> meterRegistry) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+					final int permits = environment.getProperty("spring.datasource.hikari.maximum-pool-size",
+							Integer.class, 10);
+					final var timeout = environment.getProperty("datasource.acquire-timeout", Duration.class,
+							Duration.ofSeconds(60));
+					return new BoundedDataSource(dataSource, permits, timeout, meterRegistry.getObject());
+				}
+				return bean;
+			}
+		};
+	}
+}
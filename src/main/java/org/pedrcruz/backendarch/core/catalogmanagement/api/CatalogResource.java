@@ -0,0 +1,76 @@
+package org.pedrcruz.backendarch.core.catalogmanagement.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.core.catalogmanagement.api.dto.CatalogChangesResponse;
+import org.pedrcruz.backendarch.core.catalogmanagement.application.CatalogSnapshotService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@Tag(name = "Catalog", description = "Full catalog download and delta synchronization for kiosks and mobile clients")
+@RestController
+@RequestMapping("/api/catalog")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class CatalogResource {
+
+    private final CatalogSnapshotService catalogService;
+
+    @Operation(summary = "Get catalog snapshot",
+            description = "Returns every active category and product in one versioned document. Send the ETag back in If-None-Match to get 304 when nothing changed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Catalog snapshot retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Catalog not modified")
+    })
+    @GetMapping("/snapshot")
+    public ResponseEntity<byte[]> getSnapshot(final WebRequest request) {
+
+        // answer conditional requests from the version alone, without touching the snapshot
+        final var etag = CatalogSnapshotService.etagOf(catalogService.currentVersion());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        final var snapshot = catalogService.snapshot();
+        log.debug("Serving catalog snapshot version {}", snapshot.version());
+
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
+    }
+
+    @Operation(summary = "Get catalog changes",
+            description = "Returns the categories and products changed after the given catalog version")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Catalog changes retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid version")
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<CatalogChangesResponse>> getChanges(
+            @Parameter(description = "Catalog version the client already has") @RequestParam final long since) {
+
+        log.debug("Retrieving catalog changes since version {}", since);
+
+        final var changes = catalogService.changesSince(since);
+
+        return ResponseEntity.ok(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(changes, "Catalog changes retrieved successfully")
+        );
+    }
+}
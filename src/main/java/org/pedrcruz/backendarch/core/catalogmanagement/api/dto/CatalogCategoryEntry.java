@@ -0,0 +1,15 @@
+package org.pedrcruz.backendarch.core.catalogmanagement.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CatalogCategoryEntry {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Long parentId;
+    private boolean active;
+}
@@ -0,0 +1,21 @@
+package org.pedrcruz.backendarch.core.catalogmanagement.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CatalogChangesResponse {
+
+    private long since;
+    private long version;
+
+    // true when the change log no longer reaches back to 'since'; the client must download the snapshot again
+    private boolean resyncRequired;
+
+    // changed entries, including deactivated or deleted ones (flagged inactive) so clients can drop them
+    private List<CatalogCategoryEntry> categories;
+    private List<CatalogProductEntry> products;
+}
@@ -0,0 +1,15 @@
+package org.pedrcruz.backendarch.core.catalogmanagement.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CatalogDocument {
+
+    private long version;
+    private List<CatalogCategoryEntry> categories;
+    private List<CatalogProductEntry> products;
+}
@@ -0,0 +1,20 @@
+package org.pedrcruz.backendarch.core.catalogmanagement.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class CatalogProductEntry {
+
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private String imageUrl;
+    private Long categoryId;
+    private boolean active;
+    private boolean available;
+}
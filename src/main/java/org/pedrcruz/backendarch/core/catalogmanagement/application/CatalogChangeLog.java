@@ -0,0 +1,141 @@
+package org.pedrcruz.backendarch.core.catalogmanagement.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.core.catalogmanagement.domain.model.CatalogChange;
+import org.pedrcruz.backendarch.core.catalogmanagement.domain.model.CatalogChange.Kind;
+import org.pedrcruz.backendarch.core.catalogmanagement.domain.repositories.CatalogChangeRepository;
+import org.pedrcruz.backendarch.util.transaction.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log of catalog writes, kept in {@code catalog_changes}. Every committed product or category change is
+ * appended as a row whose id is the new catalog version, so versions survive restarts and are the same
+ * on every instance; rows beyond the capacity are pruned periodically. Appends take a database lock
+ * for their transaction, so a row with a higher id is never committed before one with a lower id: a
+ * client reading past version N cannot miss a change that commits later with an id below N.
+ * <p>
+ * The latest version is also held in memory for the ETags of list endpoints: it moves at once on this
+ * instance's writes and picks up the other instances' writes by polling.
+ */
+@Component
+@Slf4j
+public class CatalogChangeLog {
+
+    public record Change(long version, Kind kind, Long id) {
+    }
+
+    private final CatalogChangeRepository repository;
+    private final TransactionTemplate newTx;
+    private final TransactionTemplate readOnlyTx;
+    private final int capacity;
+
+    // -1 until read from the database
+    private final AtomicLong version = new AtomicLong(-1);
+
+    public CatalogChangeLog(final CatalogChangeRepository repository,
+                            final PlatformTransactionManager transactionManager,
+                            @Value("${catalog.change-log.capacity:1000}") final int capacity) {
+        this.repository = repository;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.capacity = capacity;
+    }
+
+    public void productChanged(final Long productId) {
+        append(Kind.PRODUCT, List.of(productId));
+    }
+
+    public void categoryChanged(final Long categoryId) {
+        append(Kind.CATEGORY, List.of(categoryId));
+    }
+
+    /**
+     * Records many products at once (bulk updates), in a single insert batch.
+     */
+    public void productsChanged(final Collection<Long> productIds) {
+        append(Kind.PRODUCT, productIds);
+    }
+
+    public void categoriesChanged(final Collection<Long> categoryIds) {
+        append(Kind.CATEGORY, categoryIds);
+    }
+
+    public long currentVersion() {
+        final long known = version.get();
+        return known >= 0 ? known : poll();
+    }
+
+    /**
+     * Returns the changes recorded after {@code since}, or empty if the log no longer goes back that far.
+     */
+    public Optional<List<Change>> changesSince(final long since) {
+        return readOnlyTx.execute(status -> {
+            final long latest = advance(repository.findLatestVersion().orElse(0L));
+            final long oldest = repository.findOldestVersion().map(v -> v - 1).orElse(latest);
+            if (since < oldest || since > latest) {
+                return Optional.empty();
+            }
+            return Optional.of(repository.findByIdGreaterThanOrderByIdAsc(since).stream()
+                    .map(c -> new Change(c.getId(), c.getKind(), c.getEntityId()))
+                    .toList());
+        });
+    }
+
+    /**
+     * Picks up the versions committed by other instances.
+     */
+    @Scheduled(fixedDelayString = "${catalog.change-log.poll-interval:PT5S}",
+            initialDelayString = "${catalog.change-log.poll-interval:PT5S}")
+    public long poll() {
+        return advance(repository.findLatestVersion().orElse(0L));
+    }
+
+    /**
+     * Keeps the last {@code capacity} changes; clients holding an older version resynchronize.
+     */
+    @Scheduled(fixedDelayString = "${catalog.change-log.prune-interval:PT10M}",
+            initialDelayString = "${catalog.change-log.prune-interval:PT10M}")
+    @Transactional
+    public void prune() {
+        repository.findLatestVersion().ifPresent(latest -> {
+            final int deleted = repository.deleteUpTo(latest - capacity);
+            log.debug("Pruned {} catalog changes up to version {}", deleted, latest - capacity);
+        });
+    }
+
+    private void append(final Kind kind, final Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        // inserted after the write commits, so no instance sees a version before the change it stands for
+        TransactionHooks.afterCommit(() -> {
+            try {
+                final List<CatalogChange> saved = newTx.execute(status -> {
+                    repository.lockForAppend();
+                    return repository.saveAll(ids.stream().map(id -> new CatalogChange(kind, id)).toList());
+                });
+                saved.forEach(change -> advance(change.getId()));
+            } catch (final RuntimeException e) {
+                // the write itself is committed: the next version's snapshot has it, only delta clients miss it
+                log.warn("Unable to record {} changes {} in the catalog log", kind, ids, e);
+            }
+        });
+    }
+
+    private long advance(final long latest) {
+        return version.accumulateAndGet(latest, Math::max);
+    }
+}
@@ -0,0 +1,199 @@
+package org.pedrcruz.backendarch.core.catalogmanagement.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.api.dto.ApiResponse;
+import org.pedrcruz.backendarch.core.catalogmanagement.api.dto.CatalogCategoryEntry;
+import org.pedrcruz.backendarch.core.catalogmanagement.api.dto.CatalogChangesResponse;
+import org.pedrcruz.backendarch.core.catalogmanagement.api.dto.CatalogDocument;
+import org.pedrcruz.backendarch.core.catalogmanagement.api.dto.CatalogProductEntry;
+import org.pedrcruz.backendarch.core.catalogmanagement.domain.model.CatalogChange;
+import org.pedrcruz.backendarch.core.categorymanagement.domain.model.Category;
+import org.pedrcruz.backendarch.core.categorymanagement.domain.repositories.CategoryRepository;
+import org.pedrcruz.backendarch.core.domain.ActivityStatus;
+import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
+import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves the whole catalog (categories, products, prices and availability) as a single pre-serialized
+ * document, rebuilt only when the {@link CatalogChangeLog} version moves, plus deltas since a version.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService {
+
+    /**
+     * An immutable, serialized catalog at a given version.
+     */
+    public record Snapshot(long version, String etag, byte[] body) {
+    }
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final CatalogChangeLog changeLog;
+    private final ObjectWriter writer;
+    private final TransactionTemplate readOnlyTx;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    public CatalogSnapshotService(final ProductRepository productRepository,
+                                  final CategoryRepository categoryRepository,
+                                  final CatalogChangeLog changeLog,
+                                  final ObjectMapper objectMapper,
+                                  final PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.changeLog = changeLog;
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    // weak, like the other catalog tags, so that the document can be gzip-compressed
+    public static String etagOf(final long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    public long currentVersion() {
+        return changeLog.currentVersion();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        final var snapshot = snapshot();
+        log.info("Catalog snapshot built at version {} ({} bytes)", snapshot.version(), snapshot.body().length);
+    }
+
+    /**
+     * Returns the snapshot for the current version, building it at most once per version.
+     */
+    public Snapshot snapshot() {
+        final var cached = current.get();
+        if (cached != null && cached.version() == changeLog.currentVersion()) {
+            return cached;
+        }
+        // ReentrantLock: virtual threads waiting here while the build queries the database stay unpinned
+        buildLock.lock();
+        try {
+            final var latest = current.get();
+            if (latest != null && latest.version() == changeLog.currentVersion()) {
+                return latest;
+            }
+            final var built = build();
+            current.set(built);
+            return built;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Products and categories changed after {@code since}, or a resync marker if the log is too short.
+     */
+    public CatalogChangesResponse changesSince(final long since) {
+        final var version = changeLog.currentVersion();
+        final var maybeChanges = changeLog.changesSince(since);
+        if (maybeChanges.isEmpty()) {
+            return CatalogChangesResponse.builder()
+                    .since(since)
+                    .version(version)
+                    .resyncRequired(true)
+                    .categories(List.of())
+                    .products(List.of())
+                    .build();
+        }
+
+        final Set<Long> productIds = new LinkedHashSet<>();
+        final Set<Long> categoryIds = new LinkedHashSet<>();
+        long upTo = since;
+        for (final var change : maybeChanges.get()) {
+            (change.kind() == CatalogChange.Kind.PRODUCT ? productIds : categoryIds).add(change.id());
+            upTo = Math.max(upTo, change.version());
+        }
+
+        final long toVersion = upTo;
+        return readOnlyTx.execute(status -> CatalogChangesResponse.builder()
+                .since(since)
+                .version(toVersion)
+                .resyncRequired(false)
+                // hard-deleted categories are reported as inactive stubs so clients drop them
+                .categories(categoryIds.stream()
+                        .map(id -> categoryRepository.findById(id)
+                                .map(CatalogSnapshotService::toEntry)
+                                .orElseGet(() -> CatalogCategoryEntry.builder().id(id).active(false).build()))
+                        .toList())
+                .products(productIds.stream()
+                        .map(productRepository::findById)
+                        .flatMap(Optional::stream)
+                        .map(CatalogSnapshotService::toEntry)
+                        .toList())
+                .build());
+    }
+
+    private Snapshot build() {
+        return readOnlyTx.execute(status -> {
+            // read the version before loading so a write landing mid-build only triggers another rebuild
+            final long version = changeLog.currentVersion();
+
+            final var document = CatalogDocument.builder()
+                    .version(version)
+                    .categories(categoryRepository.findByActivityStatus(ActivityStatus.ACTIVE).stream()
+                            .sorted(Comparator.comparing(Category::getId))
+                            .map(CatalogSnapshotService::toEntry)
+                            .toList())
+                    .products(productRepository.findByActivityStatus(ActivityStatus.ACTIVE).stream()
+                            .sorted(Comparator.comparing(Product::getId))
+                            .map(CatalogSnapshotService::toEntry)
+                            .toList())
+                    .build();
+
+            try {
+                final var body = writer.writeValueAsBytes(
+                        ApiResponse.success(document, "Catalog snapshot retrieved successfully"));
+                return new Snapshot(version, etagOf(version), body);
+            } catch (final JsonProcessingException e) {
+                throw new IllegalStateException("Unable to serialize catalog snapshot", e);
+            }
+        });
+    }
+
+    private static CatalogCategoryEntry toEntry(final Category category) {
+        return CatalogCategoryEntry.builder()
+                .id(category.getId())
+                .name(category.getName().getWord())
+                .description(category.getDescription().getWord())
+                .parentId(category.getParentCategory() != null ? category.getParentCategory().getId() : null)
+                .active(category.isActive())
+                .build();
+    }
+
+    private static CatalogProductEntry toEntry(final Product product) {
+        return CatalogProductEntry.builder()
+                .id(product.getId())
+                .name(product.getName().getWord())
+                .description(product.getDescription().getWord())
+                .price(product.getPrice())
+                .imageUrl(product.getImageUrl())
+                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
+                .active(product.isActive())
+                .available(product.isActive() && product.getStockQuantity() > 0)
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package org.pedrcruz.backendarch.core.catalogmanagement.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One committed write to a product or category. The id is the catalog version the write produced; appends
+ * are serialized across instances (see {@code CatalogChangeLog}) so that versions follow commit order.
+ */
+@Entity
+@Table(name = "catalog_changes")
+public class CatalogChange implements Serializable {
+
+    public enum Kind { PRODUCT, CATEGORY }
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Getter
+    private Long id;
+
+    @Getter
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+
+    @Getter
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Getter
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    protected CatalogChange() {
+        // for ORM
+    }
+
+    public CatalogChange(final Kind kind, final Long entityId) {
+        if (kind == null) {
+            throw new IllegalArgumentException("Kind cannot be null");
+        }
+        if (entityId == null) {
+            throw new IllegalArgumentException("Entity cannot be null");
+        }
+        this.kind = kind;
+        this.entityId = entityId;
+        this.changedAt = Instant.now();
+    }
+}
@@ -0,0 +1,28 @@
+package org.pedrcruz.backendarch.core.catalogmanagement.domain.repositories;
+
+import org.pedrcruz.backendarch.core.catalogmanagement.domain.model.CatalogChange;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CatalogChangeRepository {
+
+    <S extends CatalogChange> List<S> saveAll(Iterable<S> entities);
+
+    Optional<Long> findLatestVersion();
+
+    Optional<Long> findOldestVersion();
+
+    List<CatalogChange> findByIdGreaterThanOrderByIdAsc(Long version);
+
+    /**
+     * Waits until no other transaction is appending changes and keeps them out until this one ends, so that
+     * ids are allocated in commit order.
+     */
+    long lockForAppend();
+
+    /**
+     * Deletes the changes up to and including {@code version}; returns the number of rows deleted.
+     */
+    int deleteUpTo(Long version);
+}
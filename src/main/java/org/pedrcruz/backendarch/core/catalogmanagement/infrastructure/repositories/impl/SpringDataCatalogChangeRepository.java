@@ -0,0 +1,36 @@
+package org.pedrcruz.backendarch.core.catalogmanagement.infrastructure.repositories.impl;
+
+import org.pedrcruz.backendarch.core.catalogmanagement.domain.model.CatalogChange;
+import org.pedrcruz.backendarch.core.catalogmanagement.domain.repositories.CatalogChangeRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Spring Data repository for the catalog change log
+ */
+@Repository
+public interface SpringDataCatalogChangeRepository extends CatalogChangeRepository, CrudRepository<CatalogChange, Long> {
+
+    @Override
+    @Query("SELECT MAX(c.id) FROM CatalogChange c")
+    Optional<Long> findLatestVersion();
+
+    @Override
+    @Query("SELECT MIN(c.id) FROM CatalogChange c")
+    Optional<Long> findOldestVersion();
+
+    // transaction-scoped advisory lock, released on commit or rollback; the key is only used for this log
+    @Override
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(4711001)) l", nativeQuery = true)
+    long lockForAppend();
+
+    @Override
+    @Modifying
+    @Query("DELETE FROM CatalogChange c WHERE c.id <= :version")
+    int deleteUpTo(@Param("version") Long version);
+}
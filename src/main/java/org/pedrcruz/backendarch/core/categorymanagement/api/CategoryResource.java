@@ -6,26 +6,35 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.pedrcruz.backendarch.api.dto.PagedResponse;
+import org.pedrcruz.backendarch.core.categorymanagement.api.dto.CategoryPathEntry;
 import org.pedrcruz.backendarch.core.categorymanagement.api.dto.CategoryResponse;
 import org.pedrcruz.backendarch.core.categorymanagement.api.dto.CreateCategoryRequest;
+import org.pedrcruz.backendarch.core.categorymanagement.api.dto.MoveCategoryRequest;
 import org.pedrcruz.backendarch.core.categorymanagement.api.dto.UpdateCategoryRequest;
 import org.pedrcruz.backendarch.core.categorymanagement.api.mapper.CategoryMapper;
 import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryService;
+import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryTreeSnapshot;
 import org.pedrcruz.backendarch.core.categorymanagement.application.SearchCategoryQuery;
 import org.pedrcruz.backendarch.pagination.Page;
+import org.pedrcruz.backendarch.util.api.AbstractResource;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Tag(name = "Category Management", description = "Operations related to category management")
 @RestController
@@ -33,10 +42,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Validated
 @Slf4j
-public class CategoryResource {
+public class CategoryResource extends AbstractResource {
 
     private final CategoryService categoryService;
     private final CategoryMapper categoryMapper;
+    private final CategoryTreeSnapshot categoryTree;
+    private final CategoryResponseCache responses;
 
     @Operation(summary = "Create a new category", description = "Creates a new category with the provided information")
     @ApiResponses(value = {
@@ -66,51 +77,50 @@ public class CategoryResource {
     @Operation(summary = "Get all categories", description = "Retrieve all categories with optional filtering and pagination")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Categories retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Catalog not modified"),
         @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
     })
     @GetMapping
-    @Cacheable(value = "categories", key = "#page.toString() + '_' + (#query != null ? #query.toString() : 'all')")
     public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<PagedResponse<CategoryResponse>>> getCategories(
             @Parameter(description = "Search query") final SearchCategoryQuery query,
-            @Parameter(description = "Pagination parameters") final Page page) {
+            @Parameter(description = "Pagination parameters") final Page page,
+            final WebRequest request) {
+
+        final var etag = responses.catalogEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
         log.debug("Retrieving categories with query: {} and page: {}", query, page);
 
-        final var categories = categoryService.searchCategories(query, page);
-        final var categoryResponses = categories.stream()
-                .map(categoryMapper::toResponse)
-                .collect(Collectors.toList());
-
-        // For simplicity, using the list size as total. In production, you'd get actual count from service
-        final var pagedResponse = PagedResponse.of(
-                categoryResponses,
-                page != null ? page.getNumber() : 0,
-                page != null ? page.getLimit() : categoryResponses.size(),
-                categoryResponses.size()
-        );
+        final var pagedResponse = responses.page(query, page);
 
-        return ResponseEntity.ok(
-                org.pedrcruz.backendarch.api.dto.ApiResponse.success(pagedResponse, "Categories retrieved successfully")
+        return ResponseEntity.ok().eTag(pagedResponse.etag()).body(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(pagedResponse.body(), "Categories retrieved successfully")
         );
     }
 
     @Operation(summary = "Get category by ID", description = "Retrieve a specific category by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Category found"),
+        @ApiResponse(responseCode = "304", description = "Category not modified"),
         @ApiResponse(responseCode = "404", description = "Category not found")
     })
     @GetMapping("/{id}")
-    @Cacheable(value = "categories", key = "#id")
     public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<CategoryResponse>> getCategoryById(
-            @Parameter(description = "Category ID") @PathVariable final Long id) {
+            @Parameter(description = "Category ID") @PathVariable final Long id,
+            final WebRequest request) {
+
+        if (checkNotModified(request, () -> categoryService.findVersion(id).map(version -> categoryEtag(id, version)))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
 
         log.debug("Retrieving category with ID: {}", id);
 
-        final var category = categoryService.getById(id);
-        final var response = categoryMapper.toResponse(category);
+        final var response = responses.byId(id);
 
-        return ResponseEntity.ok(
-                org.pedrcruz.backendarch.api.dto.ApiResponse.success(response, "Category retrieved successfully")
+        return ResponseEntity.ok().eTag(response.etag()).body(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(response.body(), "Category retrieved successfully")
         );
     }
 
@@ -119,27 +129,30 @@ public class CategoryResource {
         @ApiResponse(responseCode = "200", description = "Category updated successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
         @ApiResponse(responseCode = "404", description = "Category not found"),
-        @ApiResponse(responseCode = "403", description = "Access denied")
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "412", description = "Category changed since the version in If-Match")
     })
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @CacheEvict(value = "categories", allEntries = true)
     public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<CategoryResponse>> updateCategory(
             @Parameter(description = "Category ID") @PathVariable final Long id,
-            @Valid @RequestBody final UpdateCategoryRequest request) {
+            @Valid @RequestBody final UpdateCategoryRequest request,
+            final WebRequest webRequest) {
 
         log.info("Updating category with ID: {}", id);
 
         final var category = categoryService.getById(id);
         categoryMapper.updateEntity(request, category);
 
-        final var updatedCategory = categoryService.editCategory(id, request);
+        final var updatedCategory = categoryService.editCategory(id, request, getOptionalIfMatchVersion(webRequest));
 
+        final var etag = categoryEtag(id, updatedCategory.getVersion());
         final var response = categoryMapper.toResponse(updatedCategory);
 
         log.info("Category updated successfully with ID: {}", id);
 
-        return ResponseEntity.ok(
+        return ResponseEntity.ok().eTag(etag).body(
                 org.pedrcruz.backendarch.api.dto.ApiResponse.success(response, "Category updated successfully")
         );
     }
@@ -149,17 +162,19 @@ public class CategoryResource {
         @ApiResponse(responseCode = "200", description = "Category deleted successfully"),
         @ApiResponse(responseCode = "404", description = "Category not found"),
         @ApiResponse(responseCode = "403", description = "Access denied"),
-        @ApiResponse(responseCode = "409", description = "Category has associated products")
+        @ApiResponse(responseCode = "409", description = "Category has associated products"),
+        @ApiResponse(responseCode = "412", description = "Category changed since the version in If-Match")
     })
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @CacheEvict(value = "categories", allEntries = true)
     public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<Void>> deleteCategory(
-            @Parameter(description = "Category ID") @PathVariable final Long id) {
+            @Parameter(description = "Category ID") @PathVariable final Long id,
+            final WebRequest webRequest) {
 
         log.info("Deleting category with ID: {}", id);
 
-        categoryService.deleteCategory(id);
+        categoryService.deleteCategory(id, getOptionalIfMatchVersion(webRequest));
 
         log.info("Category deleted successfully with ID: {}", id);
 
@@ -168,53 +183,197 @@ public class CategoryResource {
         );
     }
 
-    @Operation(summary = "Activate category", description = "Activate a deactivated category")
+    @Operation(summary = "Activate category",
+            description = "Activate a deactivated category together with its subcategories and the products deactivated with them; with If-Match, only if it is still at that version")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Category activated successfully"),
         @ApiResponse(responseCode = "404", description = "Category not found"),
-        @ApiResponse(responseCode = "403", description = "Access denied")
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "412", description = "Category changed since the version in If-Match")
     })
     @PatchMapping("/{id}/activate")
     @PreAuthorize("hasRole('ADMIN')")
-    @CacheEvict(value = "categories", allEntries = true)
     public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<CategoryResponse>> activateCategory(
-            @Parameter(description = "Category ID") @PathVariable final Long id) {
+            @Parameter(description = "Category ID") @PathVariable final Long id,
+            final WebRequest webRequest) {
 
         log.info("Activating category with ID: {}", id);
 
-        final var category = categoryService.getById(id);
-        category.activate();
-
-        // Save the changes (you might need to add this method to CategoryService)
-        final var updateRequest = new UpdateCategoryRequest();
-        updateRequest.setName(category.getName().getWord());
-        updateRequest.setDescription(category.getDescription().getWord());
-
-        final var updatedCategory = categoryService.editCategory(id, updateRequest);
+        // the service evicts exactly the cached categories and products it changes
+        final var updatedCategory = categoryService.activateCategory(id, getOptionalIfMatchVersion(webRequest));
 
+        final var etag = categoryEtag(id, updatedCategory.getVersion());
         final var response = categoryMapper.toResponse(updatedCategory);
 
         log.info("Category activated successfully with ID: {}", id);
 
-        return ResponseEntity.ok(
+        return ResponseEntity.ok().eTag(etag).body(
                 org.pedrcruz.backendarch.api.dto.ApiResponse.success(response, "Category activated successfully")
         );
     }
 
+    @Operation(summary = "Deactivate category",
+            description = "Deactivate a category together with its subcategories and their products; with If-Match, only if it is still at that version")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Category deactivated successfully"),
+        @ApiResponse(responseCode = "404", description = "Category not found"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "412", description = "Category changed since the version in If-Match")
+    })
+    @PatchMapping("/{id}/deactivate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<CategoryResponse>> deactivateCategory(
+            @Parameter(description = "Category ID") @PathVariable final Long id,
+            final WebRequest webRequest) {
+
+        log.info("Deactivating category with ID: {}", id);
+
+        final var updatedCategory = categoryService.deactivateCategory(id, getOptionalIfMatchVersion(webRequest));
+
+        final var etag = categoryEtag(id, updatedCategory.getVersion());
+        final var response = categoryMapper.toResponse(updatedCategory);
+
+        log.info("Category deactivated successfully with ID: {}", id);
+
+        return ResponseEntity.ok().eTag(etag).body(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(response, "Category deactivated successfully")
+        );
+    }
+
     @Operation(summary = "Get active categories", description = "Retrieve only active categories")
     @GetMapping("/active")
-    @Cacheable(value = "categories", key = "'active'")
-    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<List<CategoryResponse>>> getActiveCategories() {
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<List<CategoryResponse>>> getActiveCategories(
+            final WebRequest request) {
+
+        final var etag = responses.catalogEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
         log.debug("Retrieving active categories");
 
-        final var categories = categoryService.findActiveCategories();
-        final var categoryResponses = categories.stream()
+        final var categoryResponses = responses.active();
+
+        return ResponseEntity.ok().eTag(categoryResponses.etag()).body(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(categoryResponses.body(), "Active categories retrieved successfully")
+        );
+    }
+
+    @Operation(summary = "Get category tree",
+            description = "Returns the whole active category hierarchy as nested nodes. Send the ETag back in If-None-Match to get 304 when nothing changed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Category tree retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Category tree not modified")
+    })
+    @GetMapping("/tree")
+    public ResponseEntity<byte[]> getCategoryTree(final WebRequest request) {
+
+        final var tree = categoryTree.tree();
+        if (request.checkNotModified(tree.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tree.etag()).build();
+        }
+
+        log.debug("Serving category tree version {}", tree.version());
+
+        return ResponseEntity.ok()
+                .eTag(tree.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(tree.body());
+    }
+
+    @Operation(summary = "Get category ancestors", description = "Retrieve the ancestors of a category, root first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ancestors retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Category not found")
+    })
+    @GetMapping("/{id}/ancestors")
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<List<CategoryResponse>>> getAncestors(
+            @Parameter(description = "Category ID") @PathVariable final Long id) {
+
+        log.debug("Retrieving ancestors of category with ID: {}", id);
+
+        final var ancestors = categoryService.findAncestors(id).stream()
                 .map(categoryMapper::toResponse)
-                .collect(Collectors.toList());
+                .toList();
+
+        return ResponseEntity.ok(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(ancestors, "Ancestors retrieved successfully")
+        );
+    }
+
+    @Operation(summary = "Get category descendants", description = "Retrieve every category below a category, at any depth")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Descendants retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Category not found")
+    })
+    @GetMapping("/{id}/descendants")
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<List<CategoryResponse>>> getDescendants(
+            @Parameter(description = "Category ID") @PathVariable final Long id) {
+
+        log.debug("Retrieving descendants of category with ID: {}", id);
+
+        final var descendants = categoryService.findDescendants(id).stream()
+                .map(categoryMapper::toResponse)
+                .toList();
+
+        return ResponseEntity.ok(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(descendants, "Descendants retrieved successfully")
+        );
+    }
+
+    @Operation(summary = "Get category breadcrumbs",
+            description = "Resolve the breadcrumb (root first, ending with the category itself) of several categories at once")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Breadcrumbs retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid list of IDs")
+    })
+    @GetMapping("/breadcrumbs")
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<Map<Long, List<CategoryPathEntry>>>> getBreadcrumbs(
+            @Parameter(description = "Category IDs") @RequestParam @NotEmpty @Size(max = 200) final List<Long> ids) {
+
+        log.debug("Resolving breadcrumbs for {} categories", ids.size());
+
+        final Map<Long, List<CategoryPathEntry>> breadcrumbs = new LinkedHashMap<>();
+        categoryService.findBreadcrumbs(ids).forEach((id, path) ->
+                breadcrumbs.put(id, path.stream().map(categoryMapper::toPathEntry).toList()));
 
         return ResponseEntity.ok(
-                org.pedrcruz.backendarch.api.dto.ApiResponse.success(categoryResponses, "Active categories retrieved successfully")
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(breadcrumbs, "Breadcrumbs retrieved successfully")
         );
     }
+
+    @Operation(summary = "Move category",
+            description = "Move a category and its subcategories under another parent, or to the root; with If-Match, only if it is still at that version")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Category moved successfully"),
+        @ApiResponse(responseCode = "400", description = "Move would create a cycle"),
+        @ApiResponse(responseCode = "404", description = "Category not found"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "412", description = "Category changed since the version in If-Match")
+    })
+    @PatchMapping("/{id}/parent")
+    @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(value = {"categories", "products"}, allEntries = true)
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<CategoryResponse>> moveCategory(
+            @Parameter(description = "Category ID") @PathVariable final Long id,
+            @RequestBody final MoveCategoryRequest request,
+            final WebRequest webRequest) {
+
+        log.info("Moving category with ID: {} under parent: {}", id, request.getParentId());
+
+        final var moved = categoryService.moveCategory(id, request.getParentId(), getOptionalIfMatchVersion(webRequest));
+        final var etag = categoryEtag(id, moved.getVersion());
+        final var response = categoryMapper.toResponse(moved);
+
+        log.info("Category moved successfully with ID: {}", id);
+
+        return ResponseEntity.ok().eTag(etag).body(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(response, "Category moved successfully")
+        );
+    }
+
+    private String categoryEtag(final Long id, final long version) {
+        return responses.categoryEtag(id, version);
+    }
 }
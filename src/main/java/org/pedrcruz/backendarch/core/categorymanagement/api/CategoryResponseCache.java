@@ -0,0 +1,83 @@
+package org.pedrcruz.backendarch.core.categorymanagement.api;
+
+import lombok.RequiredArgsConstructor;
+import org.pedrcruz.backendarch.api.dto.PagedResponse;
+import org.pedrcruz.backendarch.core.catalogmanagement.application.CatalogChangeLog;
+import org.pedrcruz.backendarch.core.categorymanagement.api.dto.CategoryResponse;
+import org.pedrcruz.backendarch.core.categorymanagement.api.mapper.CategoryMapper;
+import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryProductCounts;
+import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryService;
+import org.pedrcruz.backendarch.core.categorymanagement.application.SearchCategoryQuery;
+import org.pedrcruz.backendarch.pagination.Page;
+import org.pedrcruz.backendarch.util.api.Tagged;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.pedrcruz.backendarch.util.api.AbstractResource.etagOf;
+
+/**
+ * Cached bodies of the category read endpoints, each with the tag of the state it was built from. Like
+ * {@code ProductResponseCache}, no cached call takes the request, since the "categories" cache may re-run
+ * it on a refresh thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryResponseCache {
+
+    private final CategoryService categoryService;
+    private final CategoryMapper categoryMapper;
+    private final CatalogChangeLog catalogChangeLog;
+    private final CategoryProductCounts productCounts;
+
+    @Cacheable(value = "categories", key = "#page.toString() + '_' + (#query != null ? #query.toString() : 'all')", sync = true)
+    public Tagged<PagedResponse<CategoryResponse>> page(final SearchCategoryQuery query, final Page page) {
+        // read before loading, so the tag is never newer than the body
+        final var etag = catalogEtag();
+        final var categoryResponses = categoryService.searchCategories(query, page).stream()
+                .map(categoryMapper::toResponse)
+                .toList();
+
+        // For simplicity, using the list size as total. In production, you'd get actual count from service
+        return new Tagged<>(etag, PagedResponse.of(
+                categoryResponses,
+                page != null ? page.getNumber() : 0,
+                page != null ? page.getLimit() : categoryResponses.size(),
+                categoryResponses.size()
+        ));
+    }
+
+    // prefixed: the repository caches its entities under the bare id in the same cache
+    @Cacheable(value = "categories", key = "'item_' + #id", sync = true)
+    public Tagged<CategoryResponse> byId(final Long id) {
+        final var category = categoryService.getById(id);
+        final var etag = categoryEtag(id, category.getVersion());
+        return new Tagged<>(etag, categoryMapper.toResponse(category));
+    }
+
+    @Cacheable(value = "categories", key = "'active'", sync = true)
+    public Tagged<List<CategoryResponse>> active() {
+        final var etag = catalogEtag();
+        return new Tagged<>(etag, categoryService.findActiveCategories().stream()
+                .map(categoryMapper::toResponse)
+                .toList());
+    }
+
+    /**
+     * Category responses include product counts, which move without the category version, so the tag
+     * carries them too; taken before mapping so it is never newer than the body.
+     */
+    public String categoryEtag(final Long id, final long version) {
+        final var counts = productCounts.countsOf(id);
+        return etagOf(version, counts.total() + "." + counts.active() + "." + counts.subtreeTotal() + "."
+                + counts.subtreeActive());
+    }
+
+    /**
+     * Category lists are tagged with the catalog version.
+     */
+    public String catalogEtag() {
+        return etagOf(catalogChangeLog.currentVersion());
+    }
+}
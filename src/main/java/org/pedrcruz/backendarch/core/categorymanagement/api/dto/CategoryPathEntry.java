@@ -0,0 +1,15 @@
+package org.pedrcruz.backendarch.core.categorymanagement.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * One step of a category breadcrumb.
+ */
+@Data
+@Builder
+public class CategoryPathEntry {
+
+    private Long id;
+    private String name;
+}
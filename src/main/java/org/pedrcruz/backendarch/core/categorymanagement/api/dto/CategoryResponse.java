@@ -15,11 +15,19 @@ public class CategoryResponse {
     private String description;
     private boolean active;
 
+    // Hierarchy
+    private Long parentId;
+    private int depth;
+
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdDate;
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime lastUpdatedDate;
 
+    // Product counts: direct, and rolled up over the whole subtree
     private long productCount;
+    private long activeProductCount;
+    private long subtreeProductCount;
+    private long subtreeActiveProductCount;
 }
@@ -0,0 +1,18 @@
+package org.pedrcruz.backendarch.core.categorymanagement.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CategoryTreeNode {
+
+    private Long id;
+    private String name;
+    private String description;
+    private int depth;
+    private String path;
+    private List<CategoryTreeNode> children;
+}
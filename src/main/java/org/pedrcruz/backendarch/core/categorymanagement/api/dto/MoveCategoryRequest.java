@@ -0,0 +1,10 @@
+package org.pedrcruz.backendarch.core.categorymanagement.api.dto;
+
+import lombok.Data;
+
+@Data
+public class MoveCategoryRequest {
+
+    // null moves the category to the root
+    private Long parentId;
+}
@@ -1,11 +1,12 @@
 package org.pedrcruz.backendarch.core.categorymanagement.api.mapper;
 
+import org.pedrcruz.backendarch.core.categorymanagement.api.dto.CategoryPathEntry;
 import org.pedrcruz.backendarch.core.categorymanagement.api.dto.CategoryResponse;
 import org.pedrcruz.backendarch.core.categorymanagement.api.dto.CreateCategoryRequest;
 import org.pedrcruz.backendarch.core.categorymanagement.api.dto.UpdateCategoryRequest;
+import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryProductCounts;
 import org.pedrcruz.backendarch.core.categorymanagement.domain.model.Category;
 import org.pedrcruz.backendarch.core.domain.Word;
-import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductRepository;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -13,10 +14,10 @@ import java.time.LocalDateTime;
 @Component
 public class CategoryMapper {
 
-    private final ProductRepository productRepository;
+    private final CategoryProductCounts productCounts;
 
-    public CategoryMapper(ProductRepository productRepository) {
-        this.productRepository = productRepository;
+    public CategoryMapper(CategoryProductCounts productCounts) {
+        this.productCounts = productCounts;
     }
 
     public CategoryResponse toResponse(Category category) {
@@ -24,21 +25,29 @@ public class CategoryMapper {
             return null;
         }
 
-        long productCount = 0;
-        try {
-            productCount = productRepository.findByCategoryId(category.getId()).size();
-        } catch (Exception e) {
-            // Log error but don't fail the mapping
-        }
+        // maintained in memory, so mapping never queries products
+        final var counts = productCounts.countsOf(category.getId());
 
         return CategoryResponse.builder()
                 .id(category.getId())
                 .name(category.getName().getWord())
                 .description(category.getDescription().getWord())
                 .active(category.isActive())
+                .parentId(category.getParentCategory() != null ? category.getParentCategory().getId() : null)
+                .depth(category.getDepthLevel())
                 .createdDate(convertToLocalDateTime(category.getRegistrationDate()))
                 .lastUpdatedDate(convertToLocalDateTime(category.getLastActivityChangeDate()))
-                .productCount(productCount)
+                .productCount(counts.total())
+                .activeProductCount(counts.active())
+                .subtreeProductCount(counts.subtreeTotal())
+                .subtreeActiveProductCount(counts.subtreeActive())
+                .build();
+    }
+
+    public CategoryPathEntry toPathEntry(Category category) {
+        return CategoryPathEntry.builder()
+                .id(category.getId())
+                .name(category.getName().getWord())
                 .build();
     }
 
@@ -0,0 +1,46 @@
+package org.pedrcruz.backendarch.core.categorymanagement.application;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.core.categorymanagement.domain.model.Category;
+import org.pedrcruz.backendarch.core.categorymanagement.domain.repositories.CategoryRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains the materialized {@code hierarchyPath} of categories.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryHierarchy {
+
+    private final CategoryRepository repository;
+
+    /**
+     * Assigns paths to categories created without one (bootstrapped data, rows that predate the column).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillPaths() {
+        final var missing = repository.findByHierarchyPathIsNull();
+        if (missing.isEmpty()) {
+            return;
+        }
+        missing.forEach(this::assignWithAncestors);
+        repository.saveAll(missing);
+        log.info("Assigned hierarchy paths to {} categories", missing.size());
+    }
+
+    private void assignWithAncestors(final Category category) {
+        final var parent = category.getParentCategory();
+        if (parent != null && parent.getHierarchyPath() == null) {
+            assignWithAncestors(parent);
+        }
+        if (category.getHierarchyPath() == null) {
+            category.assignHierarchyPath();
+        }
+    }
+}
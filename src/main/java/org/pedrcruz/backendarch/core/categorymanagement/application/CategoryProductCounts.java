@@ -0,0 +1,315 @@
+package org.pedrcruz.backendarch.core.categorymanagement.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.core.categorymanagement.domain.repositories.CategoryRepository;
+import org.pedrcruz.backendarch.util.transaction.TransactionHooks;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Product counts per category, both direct and rolled up over the category's subtree, each as a total and
+ * as the number of active products.
+ * <p>
+ * Counters are loaded with one grouped query and then adjusted in place as products are created,
+ * deactivated or moved between categories (after the change commits); the subtree counters of every
+ * ancestor are adjusted along, using the ancestors encoded in the category's materialized path. Changes
+ * that reshape the tree (moves, cascading activation) trigger a full recompute. A scheduled
+ * reconciliation recomputes everything, reports counters that drifted and swaps in the exact values, with
+ * the adjustments committed during the recompute replayed on top.
+ */
+@Component
+@Slf4j
+public class CategoryProductCounts {
+
+    /**
+     * Product counts of one category.
+     */
+    public record Counts(long total, long active, long subtreeTotal, long subtreeActive) {
+        public static final Counts EMPTY = new Counts(0, 0, 0, 0);
+    }
+
+    private static final class Counters {
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong active = new AtomicLong();
+        final AtomicLong subtreeTotal = new AtomicLong();
+        final AtomicLong subtreeActive = new AtomicLong();
+
+        Counts snapshot() {
+            return new Counts(total.get(), active.get(), subtreeTotal.get(), subtreeActive.get());
+        }
+    }
+
+    /**
+     * A pending adjustment: {@code categoryId} is the product's category, {@code ancestorIds} its ancestors.
+     */
+    private record Delta(Long categoryId, List<Long> ancestorIds, long total, long active) {
+    }
+
+    private record Reload(Map<Long, Counters> previous, Map<Long, Counters> exact) {
+    }
+
+    /**
+     * Rows of the grouped query, and how many recorded deltas its result already has.
+     */
+    private record Snapshot(List<Object[]> rows, int included) {
+    }
+
+    private final CategoryRepository repository;
+    private final TransactionTemplate readOnlyTx;
+    private final Executor maintenanceExecutor;
+    private final Counter drift;
+
+    private final AtomicReference<Map<Long, Counters>> counters = new AtomicReference<>(new ConcurrentHashMap<>());
+    // locks rather than synchronized, so that virtual threads do not pin; one reload runs at a time
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final ReentrantLock deltaLock = new ReentrantLock();
+    // deltas applied while a reload runs, replayed onto its result; guarded by deltaLock
+    private List<Delta> pending;
+
+    public CategoryProductCounts(final CategoryRepository repository,
+                                 final PlatformTransactionManager transactionManager,
+                                 @Qualifier("maintenanceExecutor") final Executor maintenanceExecutor,
+                                 final MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maintenanceExecutor = maintenanceExecutor;
+        this.drift = Counter.builder("category.product-counts.drift")
+                .description("Category counters found wrong by the reconciliation job")
+                .register(meterRegistry);
+    }
+
+    public Counts countsOf(final Long categoryId) {
+        final var c = counters.get().get(categoryId);
+        return c != null ? c.snapshot() : Counts.EMPTY;
+    }
+
+    /**
+     * Number of products, and of active products, over all categories.
+     */
+    public Counts totals() {
+        long total = 0;
+        long active = 0;
+        for (final var c : counters.get().values()) {
+            total += c.total.get();
+            active += c.active.get();
+        }
+        return new Counts(total, active, total, active);
+    }
+
+    public void productAdded(final Long categoryId, final boolean active) {
+        final var ancestors = ancestorsOf(List.of(categoryId));
+        afterCommit(List.of(delta(ancestors, categoryId, 1, active ? 1 : 0)));
+    }
+
+    public void productsAdded(final Collection<Long> categoryIds) {
+        final var ancestors = ancestorsOf(categoryIds);
+        afterCommit(categoryIds.stream().map(id -> delta(ancestors, id, 1, 1)).toList());
+    }
+
+    public void productActivityChanged(final Long categoryId, final boolean active) {
+        final var ancestors = ancestorsOf(List.of(categoryId));
+        afterCommit(List.of(delta(ancestors, categoryId, 0, active ? 1 : -1)));
+    }
+
+    public void productMoved(final Long fromCategoryId, final Long toCategoryId, final boolean active) {
+        final long activeDelta = active ? 1 : 0;
+        final var ancestors = ancestorsOf(List.of(fromCategoryId, toCategoryId));
+        afterCommit(List.of(delta(ancestors, fromCategoryId, -1, -activeDelta),
+                delta(ancestors, toCategoryId, 1, activeDelta)));
+    }
+
+    /**
+     * The hierarchy or many products changed at once: recompute everything after commit, in the background.
+     * Until then the counters lag behind; a failed recompute is logged and left to the reconciliation job.
+     */
+    public void categoriesChanged() {
+        TransactionHooks.afterCommit(maintenanceExecutor, this::recompute);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recompute() {
+        final var reload = reload();
+        log.debug("Category product counts loaded for {} categories", reload.exact().size());
+    }
+
+    /**
+     * Recomputes every counter from the database, reports the ones that drifted and replaces them.
+     */
+    @Scheduled(fixedDelayString = "${category.product-counts.reconcile-interval:PT15M}",
+            initialDelayString = "${category.product-counts.reconcile-interval:PT15M}")
+    public void reconcile() {
+        final var reload = reload();
+        final var previous = reload.previous();
+
+        int mismatches = 0;
+        for (final var entry : reload.exact().entrySet()) {
+            final var expected = entry.getValue().snapshot();
+            final var actual = previous.containsKey(entry.getKey()) ? previous.get(entry.getKey()).snapshot() : Counts.EMPTY;
+            if (!expected.equals(actual)) {
+                mismatches++;
+                log.debug("Category {} product counts drifted: {} instead of {}", entry.getKey(), actual, expected);
+            }
+        }
+
+        if (mismatches > 0) {
+            drift.increment(mismatches);
+            log.warn("Reconciled product counts of {} categories", mismatches);
+        }
+    }
+
+    /**
+     * Loads exact counters and swaps them in. Deltas are recorded while the load runs; those recorded before
+     * the grouped query started are in its result already, the later ones may not be and are replayed onto
+     * it before the swap. The previous map receives no delta afterwards.
+     */
+    private Reload reload() {
+        loadLock.lock();
+        try {
+            final List<Delta> replay = new ArrayList<>();
+            recordPending(replay);
+            final Snapshot snapshot;
+            final Map<Long, Counters> exact;
+            try {
+                snapshot = readOnlyTx.execute(status -> {
+                    // taken right before the query: deltas are recorded after their commit, so the ones
+                    // recorded so far are visible to it
+                    final int included = pendingCount();
+                    return new Snapshot(repository.countProductsPerCategory(), included);
+                });
+                exact = load(snapshot.rows());
+            } catch (final RuntimeException e) {
+                recordPending(null);
+                throw e;
+            }
+            deltaLock.lock();
+            try {
+                pending = null;
+                replay.subList(snapshot.included(), replay.size())
+                        .forEach(d -> apply(exact, d.categoryId(), d.ancestorIds(), d.total(), d.active(), true));
+                return new Reload(counters.getAndSet(exact), exact);
+            } finally {
+                deltaLock.unlock();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void recordPending(final List<Delta> deltas) {
+        deltaLock.lock();
+        try {
+            pending = deltas;
+        } finally {
+            deltaLock.unlock();
+        }
+    }
+
+    private int pendingCount() {
+        deltaLock.lock();
+        try {
+            return pending.size();
+        } finally {
+            deltaLock.unlock();
+        }
+    }
+
+    private Map<Long, Counters> load(final List<Object[]> rows) {
+        final Map<Long, Counters> loaded = new ConcurrentHashMap<>(rows.size() * 2);
+        final Map<Long, List<Long>> ancestors = new HashMap<>();
+        for (final Object[] row : rows) {
+            final var id = (Long) row[0];
+            final var c = loaded.computeIfAbsent(id, k -> new Counters());
+            c.total.set(((Number) row[2]).longValue());
+            c.active.set(((Number) row[3]).longValue());
+            ancestors.put(id, ancestorIds((String) row[1]));
+        }
+        loaded.forEach((id, c) -> apply(loaded, id, ancestors.get(id), c.total.get(), c.active.get(), false));
+        return loaded;
+    }
+
+    /**
+     * Ancestors of the given categories, read from their materialized paths in the caller's transaction:
+     * the categories callers hold may be detached proxies that cannot be initialized any more.
+     */
+    private Map<Long, List<Long>> ancestorsOf(final Collection<Long> categoryIds) {
+        final Map<Long, List<Long>> ancestors = new HashMap<>();
+        if (categoryIds.isEmpty()) {
+            return ancestors;
+        }
+        for (final Object[] row : repository.findHierarchyPaths(new HashSet<>(categoryIds))) {
+            ancestors.put((Long) row[0], ancestorIds((String) row[1]));
+        }
+        return ancestors;
+    }
+
+    private static Delta delta(final Map<Long, List<Long>> ancestors, final Long categoryId, final long total,
+                               final long active) {
+        return new Delta(categoryId, ancestors.getOrDefault(categoryId, List.of()), total, active);
+    }
+
+    private void afterCommit(final List<Delta> deltas) {
+        TransactionHooks.afterCommit(() -> {
+            deltaLock.lock();
+            try {
+                final var map = counters.get();
+                deltas.forEach(d -> apply(map, d.categoryId(), d.ancestorIds(), d.total(), d.active(), true));
+                if (pending != null) {
+                    pending.addAll(deltas);
+                }
+            } finally {
+                deltaLock.unlock();
+            }
+        });
+    }
+
+    private static void apply(final Map<Long, Counters> map, final Long categoryId, final List<Long> ancestorIds,
+                              final long total, final long active, final boolean direct) {
+        final var own = map.computeIfAbsent(categoryId, k -> new Counters());
+        if (direct) {
+            own.total.addAndGet(total);
+            own.active.addAndGet(active);
+        }
+        own.subtreeTotal.addAndGet(total);
+        own.subtreeActive.addAndGet(active);
+        for (final Long ancestorId : ancestorIds) {
+            final var ancestor = map.computeIfAbsent(ancestorId, k -> new Counters());
+            ancestor.subtreeTotal.addAndGet(total);
+            ancestor.subtreeActive.addAndGet(active);
+        }
+    }
+
+    private static List<Long> ancestorIds(final String hierarchyPath) {
+        final List<Long> ids = new ArrayList<>();
+        if (hierarchyPath == null) {
+            return ids;
+        }
+        for (final String segment : hierarchyPath.split("/")) {
+            if (!segment.isEmpty()) {
+                ids.add(Long.valueOf(segment));
+            }
+        }
+        // the last segment is the category itself
+        ids.remove(ids.size() - 1);
+        return ids;
+    }
+}
@@ -6,7 +6,9 @@ import org.pedrcruz.backendarch.core.domain.Word;
 import org.pedrcruz.backendarch.pagination.Page;
 import org.pedrcruz.backendarch.core.categorymanagement.domain.model.Category;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface CategoryService {
@@ -19,12 +21,67 @@ public interface CategoryService {
 
     Category editCategory(Long id, UpdateCategoryRequest request);
 
+    /**
+     * Edits the category if it is still at {@code version} (any version when null).
+     */
+    Category editCategory(Long id, UpdateCategoryRequest request, Long version);
+
     List<Category> searchCategories(SearchCategoryQuery query, Page page);
 
     Category getById(Long id);
 
+    Optional<Long> findVersion(Long id);
+
     Category deleteCategory(Long id);
 
+    Category deleteCategory(Long id, Long version);
+
     List<Category> findActiveCategories();
 
+    /**
+     * Ids of the category and all its descendants.
+     */
+    List<Long> findSubtreeIds(Long id);
+
+    /**
+     * Ancestors of the category, root first.
+     */
+    List<Category> findAncestors(Long id);
+
+    /**
+     * All categories below the category, at any depth.
+     */
+    List<Category> findDescendants(Long id);
+
+    /**
+     * Breadcrumb (root first, ending with the category itself) of each given category, loading the
+     * categories and then all their ancestors by id.
+     */
+    Map<Long, List<Category>> findBreadcrumbs(Collection<Long> categoryIds);
+
+    /**
+     * Moves the category and its subtree under another parent, or to the root when {@code newParentId}
+     * is null.
+     */
+    Category moveCategory(Long id, Long newParentId);
+
+    /**
+     * Moves the category if it is still at {@code version} (any version when null).
+     */
+    Category moveCategory(Long id, Long newParentId, Long version);
+
+    /**
+     * Deactivates the category, its whole subtree and every product in it.
+     */
+    Category deactivateCategory(Long id);
+
+    Category deactivateCategory(Long id, Long version);
+
+    /**
+     * Activates the category, its whole subtree and the products that were deactivated along with it.
+     */
+    Category activateCategory(Long id);
+
+    Category activateCategory(Long id, Long version);
+
 }
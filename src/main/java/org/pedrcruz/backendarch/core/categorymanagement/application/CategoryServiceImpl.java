@@ -1,24 +1,51 @@
 package org.pedrcruz.backendarch.core.categorymanagement.application;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.core.catalogmanagement.application.CatalogChangeLog;
 import org.pedrcruz.backendarch.core.categorymanagement.api.dto.CreateCategoryRequest;
 import org.pedrcruz.backendarch.core.categorymanagement.api.dto.UpdateCategoryRequest;
 import org.pedrcruz.backendarch.core.categorymanagement.domain.model.Category;
 import org.pedrcruz.backendarch.core.categorymanagement.domain.repositories.CategoryRepository;
 import org.pedrcruz.backendarch.core.domain.Word;
+import org.pedrcruz.backendarch.core.productmanagement.application.SuggestionIndex;
+import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductRepository;
+import org.pedrcruz.backendarch.exceptions.NotFoundException;
 import org.pedrcruz.backendarch.pagination.Page;
+import org.pedrcruz.backendarch.util.transaction.TransactionHooks;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
+@Slf4j
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository repository;
+    private final SuggestionIndex suggestionIndex;
+    private final CatalogChangeLog catalogChangeLog;
+    private final CategoryTreeSnapshot categoryTree;
+    private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+    private final CategoryProductCounts productCounts;
+    private final CategoryHierarchy categoryHierarchy;
 
     @Override
     public Optional<Category> findCategoryByName(final String name) {
@@ -30,7 +57,12 @@ public class CategoryServiceImpl implements CategoryService {
         final var name = new Word(request.getName());
         final var description = new Word(request.getDescription());
         final var category = new Category(name, description);
-        return repository.save(category);
+        final var saved = repository.save(category);
+        saved.assignHierarchyPath();
+        suggestionIndex.categoryChanged(saved, false);
+        catalogChangeLog.categoryChanged(saved.getId());
+        categoryTree.categoryChanged();
+        return saved;
     }
 
     @Override
@@ -39,12 +71,22 @@ public class CategoryServiceImpl implements CategoryService {
         final var name = new Word(request.getName());
         final var description = new Word(request.getDescription());
         final var category = new Category(name, description, parent);
-        return repository.save(category);
+        final var saved = repository.save(category);
+        saved.assignHierarchyPath();
+        suggestionIndex.categoryChanged(saved, false);
+        catalogChangeLog.categoryChanged(saved.getId());
+        categoryTree.categoryChanged();
+        return saved;
     }
 
     @Override
     public Category editCategory(final Long id, final UpdateCategoryRequest request) {
-        final var category = repository.getById(id);
+        return editCategory(id, request, null);
+    }
+
+    @Override
+    public Category editCategory(final Long id, final UpdateCategoryRequest request, final Long version) {
+        final var category = repository.getByIdAndVersion(id, version);
         if (request != null) {
             final var name = new Word(request.getName());
             final var description = new Word(request.getDescription());
@@ -52,7 +94,11 @@ public class CategoryServiceImpl implements CategoryService {
             category.changeName(name);
             category.changeDescription(description);
         }
-        return repository.save(category);
+        final var saved = repository.save(category);
+        suggestionIndex.categoryChanged(saved, false);
+        catalogChangeLog.categoryChanged(saved.getId());
+        categoryTree.categoryChanged();
+        return saved;
     }
 
     @Override
@@ -65,13 +111,182 @@ public class CategoryServiceImpl implements CategoryService {
         return repository.getById(id);
     }
 
+    @Override
+    public Optional<Long> findVersion(final Long id) {
+        return repository.findVersionById(id);
+    }
+
     @Override
     public Category deleteCategory(final Long id) {
-        final var category = repository.getById(id);
+        return deleteCategory(id, null);
+    }
+
+    @Override
+    public Category deleteCategory(final Long id, final Long version) {
+        final var category = repository.getByIdAndVersion(id, version);
         repository.delete(category);
+        suggestionIndex.categoryChanged(category, true);
+        catalogChangeLog.categoryChanged(category.getId());
+        categoryTree.categoryChanged();
+        productCounts.categoriesChanged();
         return category;
     }
 
+    @Override
+    public List<Long> findSubtreeIds(final Long id) {
+        return categoryTree.subtreeIds(id);
+    }
+
+    @Override
+    public List<Category> findAncestors(final Long id) {
+        final var ancestorIds = repository.getById(id).getAncestorIds();
+        if (ancestorIds.isEmpty()) {
+            return List.of();
+        }
+        final Map<Long, Category> byId = new HashMap<>();
+        repository.findByIdIn(ancestorIds).forEach(c -> byId.put(c.getId(), c));
+        return ancestorIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public List<Category> findDescendants(final Long id) {
+        final var category = repository.getById(id);
+        if (category.getHierarchyPath() == null) {
+            return List.of();
+        }
+        return repository.findByHierarchyPathStartingWith(category.getHierarchyPath()).stream()
+                .filter(c -> !c.getId().equals(id))
+                .toList();
+    }
+
+    @Override
+    public Map<Long, List<Category>> findBreadcrumbs(final Collection<Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Map.of();
+        }
+        // ancestor ids come from the materialized paths, so everything is loaded by primary key
+        final Map<Long, Category> byId = new HashMap<>();
+        repository.findByIdIn(categoryIds).forEach(c -> byId.put(c.getId(), c));
+        final Set<Long> ancestorIds = new HashSet<>();
+        byId.values().forEach(c -> ancestorIds.addAll(c.getAncestorIds()));
+        ancestorIds.removeAll(byId.keySet());
+        if (!ancestorIds.isEmpty()) {
+            repository.findByIdIn(ancestorIds).forEach(c -> byId.put(c.getId(), c));
+        }
+
+        final Map<Long, List<Category>> breadcrumbs = new LinkedHashMap<>();
+        categoryIds.stream().distinct().sorted().map(byId::get).filter(Objects::nonNull).forEach(category -> {
+            final List<Category> path = new ArrayList<>();
+            category.getAncestorIds().stream().map(byId::get).filter(Objects::nonNull).forEach(path::add);
+            path.add(category);
+            breadcrumbs.put(category.getId(), path);
+        });
+        return breadcrumbs;
+    }
+
+    @Override
+    public Category moveCategory(final Long id, final Long newParentId) {
+        return moveCategory(id, newParentId, null);
+    }
+
+    @Override
+    public Category moveCategory(final Long id, final Long newParentId, final Long version) {
+        final var category = repository.getByIdAndVersion(id, version);
+        final var newParent = newParentId != null ? repository.getById(newParentId) : null;
+        ensureHierarchyPaths(category, newParent);
+        final var oldPath = category.getHierarchyPath();
+
+        category.moveTo(newParent);
+        category.assignHierarchyPath();
+        final var saved = repository.save(category);
+        if (oldPath != null) {
+            repository.replaceHierarchyPathPrefix(oldPath, saved.getHierarchyPath());
+        }
+
+        catalogChangeLog.categoryChanged(saved.getId());
+        categoryTree.categoryChanged();
+        productCounts.categoriesChanged();
+        return saved;
+    }
+
+    @Override
+    public Category deactivateCategory(final Long id) {
+        return deactivateCategory(id, null);
+    }
+
+    @Override
+    public Category deactivateCategory(final Long id, final Long version) {
+        return setSubtreeActive(repository.getByIdAndVersion(id, version), false);
+    }
+
+    @Override
+    public Category activateCategory(final Long id) {
+        return activateCategory(id, null);
+    }
+
+    @Override
+    public Category activateCategory(final Long id, final Long version) {
+        // inactive categories included, so the version check of getByIdAndVersion is repeated here
+        final var category = repository.findById(id)
+                .orElseThrow(() -> new NotFoundException(Category.class, id));
+        if (version != null && !version.equals(category.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Resource has been modified by another user. Please refresh and try again.");
+        }
+        return setSubtreeActive(category, true);
+    }
+
+    /**
+     * Assigns the paths still missing (categories written without one since the startup backfill), since
+     * subtree updates select by path and would otherwise miss part of the tree.
+     */
+    private void ensureHierarchyPaths(final Category... categories) {
+        if (Arrays.stream(categories).anyMatch(c -> c != null && c.getHierarchyPath() == null)) {
+            categoryHierarchy.backfillPaths();
+        }
+    }
+
+    /**
+     * Flips the status of a whole subtree and its products with two set-based updates on the
+     * materialized path, then invalidates exactly the cached entries they affect.
+     */
+    private Category setSubtreeActive(final Category category, final boolean active) {
+        final var id = category.getId();
+        ensureHierarchyPaths(category);
+        final var pathPrefix = category.getHierarchyPath();
+        final var today = LocalDate.now();
+
+        final var categoryIds = repository.findIdsByHierarchyPathStartingWith(pathPrefix);
+        final var productIds = productRepository.findIdsByCategoryPathPrefix(pathPrefix);
+        final int categories = repository.setActiveByHierarchyPathPrefix(pathPrefix, active, today);
+        // reactivation only restores the products the cascade deactivated, not deleted ones
+        final int products = active
+                ? productRepository.reactivateByCategoryPathPrefix(pathPrefix, today)
+                : productRepository.deactivateByCategoryPathPrefix(pathPrefix, today);
+        log.info("{} category {}: {} categories and {} products changed",
+                active ? "Activated" : "Deactivated", id, categories, products);
+
+        catalogChangeLog.categoriesChanged(categoryIds);
+        catalogChangeLog.productsChanged(productIds);
+        categoryTree.categoryChanged();
+        productCounts.categoriesChanged();
+        evictCached(categoryIds, productIds);
+        TransactionHooks.afterCommit(() -> evictCached(categoryIds, productIds));
+        suggestionIndex.rebuildAfterCommit();
+
+        return repository.findById(id).orElseThrow(() -> new NotFoundException(Category.class, id));
+    }
+
+    private void evictCached(final List<Long> categoryIds, final List<Long> productIds) {
+        final var categories = Objects.requireNonNull(cacheManager.getCache("categories"));
+        final var products = Objects.requireNonNull(cacheManager.getCache("products"));
+        categoryIds.forEach(categories::evict);
+        productIds.forEach(products::evict);
+        // listings and cached responses mix many categories and products: drop them too
+        categories.clear();
+        products.clear();
+    }
+
     @Override
     public List<Category> findActiveCategories() {
         return repository.findByActivityStatus(new org.pedrcruz.backendarch.core.domain.ActivityStatus(true));
@@ -0,0 +1,268 @@
+package org.pedrcruz.backendarch.core.categorymanagement.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.api.dto.ApiResponse;
+import org.pedrcruz.backendarch.core.categorymanagement.api.dto.CategoryTreeNode;
+import org.pedrcruz.backendarch.core.categorymanagement.domain.model.Category;
+import org.pedrcruz.backendarch.core.categorymanagement.domain.repositories.CategoryRepository;
+import org.pedrcruz.backendarch.exceptions.NotFoundException;
+import org.pedrcruz.backendarch.util.transaction.TransactionHooks;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Immutable in-memory copy of the active category tree.
+ * <p>
+ * All active categories are loaded with one scalar query and laid out in an array in pre-order, so a
+ * subtree is a contiguous slice; name paths and depths are computed once. The tree is rebuilt after a
+ * category change commits and published by swapping an atomic reference, so readers never lock and
+ * other modules can resolve categories without touching JPA. The JSON served by
+ * {@code GET /api/categories/tree} is serialized once per build.
+ */
+@Service
+@Slf4j
+public class CategoryTreeSnapshot {
+
+    /**
+     * A category as seen in the tree. {@code path} is the names from the root, e.g. "Bows > Recurve".
+     */
+    public record CategoryNode(Long id, String name, String description, Long parentId, int depth, String path) {
+    }
+
+    /**
+     * One immutable build of the tree.
+     */
+    public static final class Tree {
+        private final long version;
+        private final String etag;
+        private final byte[] body;
+        // pre-order; the subtree of nodes[i] is nodes[i .. subtreeEnd[i])
+        private final CategoryNode[] nodes;
+        private final int[] parent;
+        private final int[] subtreeEnd;
+        private final Map<Long, Integer> indexById;
+
+        private Tree(final long version, final byte[] body, final CategoryNode[] nodes, final int[] parent,
+                     final int[] subtreeEnd, final Map<Long, Integer> indexById) {
+            this.version = version;
+            // weak, so that the tree can be gzip-compressed
+            this.etag = "W/\"" + version + "\"";
+            this.body = body;
+            this.nodes = nodes;
+            this.parent = parent;
+            this.subtreeEnd = subtreeEnd;
+            this.indexById = indexById;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        public byte[] body() {
+            return body;
+        }
+
+        public int size() {
+            return nodes.length;
+        }
+    }
+
+    private final CategoryRepository repository;
+    private final ObjectWriter writer;
+    private final TransactionTemplate readOnlyTx;
+
+    // bumped after every committed category change; the published tree is current when versions match
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final AtomicReference<Tree> current = new AtomicReference<>();
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    public CategoryTreeSnapshot(final CategoryRepository repository,
+                                final ObjectMapper objectMapper,
+                                final PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        final var tree = tree();
+        log.info("Category tree built with {} categories ({} bytes)", tree.size(), tree.body().length);
+    }
+
+    /**
+     * Marks the tree outdated once the current transaction commits; the next read publishes a new one.
+     */
+    public void categoryChanged() {
+        TransactionHooks.afterCommit(version::incrementAndGet);
+    }
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns the tree for the current version, building it at most once per version.
+     */
+    public Tree tree() {
+        final var cached = current.get();
+        if (cached != null && cached.version == version.get()) {
+            return cached;
+        }
+        // a lock rather than synchronized: the build runs queries, which would pin a virtual thread
+        buildLock.lock();
+        try {
+            final var latest = current.get();
+            if (latest != null && latest.version == version.get()) {
+                return latest;
+            }
+            final var built = build();
+            current.set(built);
+            return built;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    public Optional<CategoryNode> find(final Long id) {
+        final var tree = tree();
+        final var index = tree.indexById.get(id);
+        return index != null ? Optional.of(tree.nodes[index]) : Optional.empty();
+    }
+
+    public CategoryNode get(final Long id) {
+        return find(id).orElseThrow(() -> new NotFoundException(Category.class, id));
+    }
+
+    /**
+     * Ancestors of an active category, root first.
+     */
+    public List<CategoryNode> ancestors(final Long id) {
+        final var tree = tree();
+        final int index = indexOf(tree, id);
+        final List<CategoryNode> ancestors = new ArrayList<>(tree.nodes[index].depth());
+        for (int p = tree.parent[index]; p >= 0; p = tree.parent[p]) {
+            ancestors.add(0, tree.nodes[p]);
+        }
+        return ancestors;
+    }
+
+    /**
+     * Ids of an active category and all its active descendants.
+     */
+    public List<Long> subtreeIds(final Long id) {
+        final var tree = tree();
+        final int index = indexOf(tree, id);
+        return Arrays.stream(tree.nodes, index, tree.subtreeEnd[index])
+                .map(CategoryNode::id)
+                .toList();
+    }
+
+    private static int indexOf(final Tree tree, final Long id) {
+        final var index = tree.indexById.get(id);
+        if (index == null) {
+            throw new NotFoundException(Category.class, id);
+        }
+        return index;
+    }
+
+    private Tree build() {
+        // read the version before loading so a change committed mid-build only triggers another build
+        final long builtVersion = version.get();
+        final List<Object[]> rows = readOnlyTx.execute(status -> repository.findActiveTreeRows());
+
+        final Map<Long, Object[]> byId = new HashMap<>();
+        final Map<Long, List<Object[]>> children = new HashMap<>();
+        rows.forEach(row -> byId.put((Long) row[0], row));
+        for (final Object[] row : rows) {
+            final var parentId = (Long) row[3];
+            // children of inactive (or missing) parents are hidden with them
+            if (parentId == null || byId.containsKey(parentId)) {
+                children.computeIfAbsent(parentId, k -> new ArrayList<>()).add(row);
+            }
+        }
+        final Comparator<Object[]> byName = Comparator.comparing(row -> ((String) row[1]).toLowerCase(Locale.ROOT));
+        children.values().forEach(list -> list.sort(byName));
+
+        final List<CategoryNode> nodes = new ArrayList<>(rows.size());
+        final List<Integer> parents = new ArrayList<>(rows.size());
+        final List<Integer> ends = new ArrayList<>(rows.size());
+        final List<CategoryTreeNode> roots = new ArrayList<>();
+        for (final Object[] root : children.getOrDefault(null, List.of())) {
+            roots.add(layOut(root, -1, null, children, nodes, parents, ends));
+        }
+
+        final var nodeArray = nodes.toArray(new CategoryNode[0]);
+        final Map<Long, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < nodeArray.length; i++) {
+            indexById.put(nodeArray[i].id(), i);
+        }
+
+        try {
+            final var body = writer.writeValueAsBytes(ApiResponse.success(roots, "Category tree retrieved successfully"));
+            return new Tree(builtVersion, body, nodeArray,
+                    parents.stream().mapToInt(Integer::intValue).toArray(),
+                    ends.stream().mapToInt(Integer::intValue).toArray(),
+                    Map.copyOf(indexById));
+        } catch (final JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize category tree", e);
+        }
+    }
+
+    /**
+     * Appends the subtree rooted at {@code row} in pre-order and returns its JSON representation.
+     */
+    private static CategoryTreeNode layOut(final Object[] row, final int parentIndex, final CategoryNode parent,
+                                           final Map<Long, List<Object[]>> children, final List<CategoryNode> nodes,
+                                           final List<Integer> parents, final List<Integer> ends) {
+        final var id = (Long) row[0];
+        final var name = (String) row[1];
+        final int depth = parent != null ? parent.depth() + 1 : 0;
+        final var node = new CategoryNode(id, name, (String) row[2], parent != null ? parent.id() : null, depth,
+                parent != null ? parent.path() + " > " + name : name);
+
+        final int index = nodes.size();
+        nodes.add(node);
+        parents.add(parentIndex);
+        ends.add(-1);
+
+        final List<CategoryTreeNode> childNodes = new ArrayList<>();
+        for (final Object[] child : children.getOrDefault(id, List.of())) {
+            childNodes.add(layOut(child, index, node, children, nodes, parents, ends));
+        }
+        ends.set(index, nodes.size());
+
+        return CategoryTreeNode.builder()
+                .id(id)
+                .name(name)
+                .description(node.description())
+                .depth(depth)
+                .path(node.path())
+                .children(childNodes)
+                .build();
+    }
+}
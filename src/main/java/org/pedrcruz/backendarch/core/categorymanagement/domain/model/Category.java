@@ -7,12 +7,15 @@ import eapli.framework.domain.model.DomainEntities;
 import eapli.framework.representations.dto.DTOable;
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.ColumnDefault;
 import org.pedrcruz.backendarch.core.domain.ActivityStatus;
 import org.pedrcruz.backendarch.core.domain.Date;
 import org.pedrcruz.backendarch.core.domain.Word;
 
 import java.io.Serial;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -22,7 +25,9 @@ import java.util.Set;
  */
 @Getter
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+        @Index(name = "idx_categories_hierarchy_path", columnList = "hierarchy_path")
+})
 public class Category implements AggregateRoot<Word>{
 
     @Serial
@@ -32,6 +37,11 @@ public class Category implements AggregateRoot<Word>{
     @GeneratedValue
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Embedded
     @AttributeOverride(name = "word", column = @Column(name = "name_word", unique = true))
     private Word name;
@@ -47,6 +57,13 @@ public class Category implements AggregateRoot<Word>{
     @OneToMany(mappedBy = "parentCategory", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Category> subcategories = new HashSet<>();
 
+    /**
+     * Materialized path of ids from the root, e.g. "/1/4/9/", so a whole subtree can be selected with
+     * one indexed prefix match. Assigned once the id is known, see {@link #assignHierarchyPath()}.
+     */
+    @Column(name = "hierarchy_path", length = 512)
+    private String hierarchyPath;
+
     @Embedded
     private ActivityStatus activityStatus;
 
@@ -137,12 +154,17 @@ public class Category implements AggregateRoot<Word>{
     }
 
     /**
-     * Checks if this category is a descendant of another category.
+     * Checks if this category is a descendant of another category. Compares materialized paths when both
+     * have one, so no parent is loaded.
      */
     public boolean isDescendantOf(final Category potentialAncestor) {
         if (potentialAncestor == null) {
             return false;
         }
+        if (this.hierarchyPath != null && potentialAncestor.getHierarchyPath() != null) {
+            return this.hierarchyPath.length() > potentialAncestor.getHierarchyPath().length()
+                    && this.hierarchyPath.startsWith(potentialAncestor.getHierarchyPath());
+        }
 
         Category current = this.parentCategory;
         while (current != null) {
@@ -156,6 +178,8 @@ public class Category implements AggregateRoot<Word>{
 
     /**
      * Gets the full hierarchical path of this category (e.g., "Bows > Recurve > Traditional").
+     * Loads each ancestor in turn; to render many paths at once use
+     * {@code CategoryService.findBreadcrumbs}, which loads all the ancestors at once.
      */
     public String getHierarchicalPath() {
         if (isRootCategory()) {
@@ -168,6 +192,9 @@ public class Category implements AggregateRoot<Word>{
      * Gets the depth level of this category in the hierarchy (root = 0).
      */
     public int getDepthLevel() {
+        if (this.hierarchyPath != null) {
+            return getAncestorIds().size();
+        }
         int depth = 0;
         Category current = this.parentCategory;
         while (current != null) {
@@ -178,7 +205,45 @@ public class Category implements AggregateRoot<Word>{
     }
 
     /**
-     * Deactivates the category and all its subcategories.
+     * Ids of the ancestors of this category, root first.
+     */
+    public List<Long> getAncestorIds() {
+        final List<Long> ancestors = new ArrayList<>();
+        if (this.hierarchyPath != null) {
+            for (final String segment : this.hierarchyPath.split("/")) {
+                if (!segment.isEmpty()) {
+                    ancestors.add(Long.valueOf(segment));
+                }
+            }
+            // the last segment is this category
+            ancestors.remove(ancestors.size() - 1);
+            return ancestors;
+        }
+        Category current = this.parentCategory;
+        while (current != null) {
+            ancestors.add(0, current.getId());
+            current = current.parentCategory;
+        }
+        return ancestors;
+    }
+
+    /**
+     * Moves this category (and its subtree) under another parent, or to the root when
+     * {@code newParent} is null. The materialized paths of the subtree must then be rewritten, see
+     * {@code CategoryRepository.replaceHierarchyPathPrefix}.
+     */
+    public void moveTo(final Category newParent) {
+        if (newParent != null && (newParent.equals(this) || newParent.isDescendantOf(this))) {
+            throw new IllegalArgumentException("Cannot create circular category hierarchy");
+        }
+        // the owning side is enough; the parents' lazy subcategory sets are left unloaded
+        this.parentCategory = newParent;
+        this.lastActivityChangeDate = Date.now();
+    }
+
+    /**
+     * Deactivates the category and all its subcategories, loading each level. For persisted trees prefer
+     * {@code CategoryService.deactivateCategory}, which updates the subtree and its products in bulk.
      */
     public void deactivate() {
         this.activityStatus = new ActivityStatus(false);
@@ -198,6 +263,21 @@ public class Category implements AggregateRoot<Word>{
         this.lastActivityChangeDate = Date.now();
     }
 
+    /**
+     * (Re)computes the materialized path from the parent's path. The category must already have an id,
+     * and the parent its path.
+     */
+    public void assignHierarchyPath() {
+        if (this.id == null) {
+            throw new IllegalStateException("Category must be persisted before its path can be assigned");
+        }
+        final var parentPath = this.parentCategory != null ? this.parentCategory.getHierarchyPath() : "/";
+        if (parentPath == null) {
+            throw new IllegalStateException("Parent category has no hierarchy path");
+        }
+        this.hierarchyPath = parentPath + this.id + "/";
+    }
+
     /**
      * Checks if the category is active.
      */
@@ -6,8 +6,12 @@ import org.pedrcruz.backendarch.core.domain.ActivityStatus;
 import org.pedrcruz.backendarch.core.domain.Word;
 import org.pedrcruz.backendarch.exceptions.NotFoundException;
 import org.pedrcruz.backendarch.pagination.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,8 +32,73 @@ public interface CategoryRepository {
                 .orElseThrow(() -> new NotFoundException(Category.class, id));
     }
 
+    /**
+     * Like {@link #getById(Long)}, but fails with 412 Precondition Failed when the category is no longer at
+     * the version the client expects; a {@code null} version skips the check.
+     */
+    default Category getByIdAndVersion(final Long id, final Long version) {
+        final var category = getById(id);
+        if (version != null && !version.equals(category.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Resource has been modified by another user. Please refresh and try again.");
+        }
+        return category;
+    }
+
+    /**
+     * Current version of an active category, read without loading the entity; empty if there is none.
+     */
+    Optional<Long> findVersionById(Long id);
+
     List<Category> searchCategories(Page page, SearchCategoryQuery query);
 
+    /**
+     * Ids of every category whose materialized path starts with {@code pathPrefix} (the subtree rooted
+     * at the category owning that path, itself included).
+     */
+    List<Long> findIdsByHierarchyPathStartingWith(String pathPrefix);
+
+    List<Category> findByHierarchyPathIsNull();
+
+    /**
+     * Materialized paths of the given categories as {@code [id, hierarchyPath]} rows, without loading entities.
+     */
+    List<Object[]> findHierarchyPaths(Collection<Long> ids);
+
+    /**
+     * Categories whose materialized path starts with {@code pathPrefix}, i.e. a whole subtree.
+     */
+    List<Category> findByHierarchyPathStartingWith(String pathPrefix);
+
+    List<Category> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Rewrites the materialized path of every category under {@code oldPrefix} to start with
+     * {@code newPrefix}, moving a whole subtree in one statement.
+     *
+     * @return the number of categories updated
+     */
+    int replaceHierarchyPathPrefix(String oldPrefix, String newPrefix);
+
+    /**
+     * Activates or deactivates, in one statement, every category under the given materialized path
+     * prefix (the subtree, its root included). Bypasses the cache; callers must evict it themselves.
+     *
+     * @return the number of categories changed
+     */
+    int setActiveByHierarchyPathPrefix(String pathPrefix, boolean active, LocalDate changeDate);
+
+    /**
+     * Product counts of every category as {@code [id, hierarchyPath, total, active]} rows (categories
+     * without products included, with zero counts).
+     */
+    List<Object[]> countProductsPerCategory();
+
+    /**
+     * Every active category as {@code [id, name, description, parentId]} rows, without loading entities.
+     */
+    List<Object[]> findActiveTreeRows();
+
     List<Category> findByParentCategoryId(Long parentId);
 
     List<Category> findByParentCategoryIdAndActivityStatus(Long parentId, ActivityStatus activityStatus);
@@ -17,11 +17,16 @@ import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,6 +55,10 @@ public interface SpringDataCategoryRepository extends CategoryRepository, Catego
 				.orElseThrow(() -> new NotFoundException(Category.class, id));
 	}
 
+	@Override
+	@Query("SELECT c.version FROM Category c WHERE c.id = :id AND c.activityStatus.status = true")
+	Optional<Long> findVersionById(@Param("id") Long id);
+
 	@Override
 	@Cacheable
 	List<Category> findByParentCategoryId(Long parentId);
@@ -74,6 +83,41 @@ public interface SpringDataCategoryRepository extends CategoryRepository, Catego
 	@CacheEvict(allEntries = true)
 	void delete(Category category);
 
+	@Override
+	@Query("SELECT c.id FROM Category c WHERE c.hierarchyPath LIKE CONCAT(:pathPrefix, '%')")
+	List<Long> findIdsByHierarchyPathStartingWith(@Param("pathPrefix") String pathPrefix);
+
+	@Override
+	@Query("SELECT c.id, c.hierarchyPath FROM Category c WHERE c.id IN :ids")
+	List<Object[]> findHierarchyPaths(@Param("ids") Collection<Long> ids);
+
+	@Override
+	@Modifying(flushAutomatically = true)
+	@CacheEvict(allEntries = true)
+	@Query("UPDATE Category c SET c.hierarchyPath = CONCAT(:newPrefix, SUBSTRING(c.hierarchyPath, LENGTH(:oldPrefix) + 1)), "
+			+ "c.version = c.version + 1 "
+			+ "WHERE c.hierarchyPath LIKE CONCAT(:oldPrefix, '%')")
+	int replaceHierarchyPathPrefix(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix);
+
+	@Override
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Category c SET c.activityStatus.status = :active, c.lastActivityChangeDate.date = :changeDate, "
+			+ "c.version = c.version + 1 "
+			+ "WHERE c.activityStatus.status <> :active AND c.hierarchyPath LIKE CONCAT(:pathPrefix, '%')")
+	int setActiveByHierarchyPathPrefix(@Param("pathPrefix") String pathPrefix, @Param("active") boolean active,
+			@Param("changeDate") LocalDate changeDate);
+
+	@Override
+	@Query("SELECT c.id, c.hierarchyPath, COUNT(p.id), "
+			+ "COALESCE(SUM(CASE WHEN p.activityStatus.status = true THEN 1 ELSE 0 END), 0) "
+			+ "FROM Category c LEFT JOIN Product p ON p.category = c GROUP BY c.id, c.hierarchyPath")
+	List<Object[]> countProductsPerCategory();
+
+	@Override
+	@Query("SELECT c.id, c.name.word, c.description.word, p.id FROM Category c LEFT JOIN c.parentCategory p "
+			+ "WHERE c.activityStatus.status = true")
+	List<Object[]> findActiveTreeRows();
+
 }
 
 interface CategoryRepoCustom {
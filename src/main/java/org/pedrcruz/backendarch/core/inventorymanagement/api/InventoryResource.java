@@ -3,26 +3,33 @@ package org.pedrcruz.backendarch.core.inventorymanagement.api;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.pedrcruz.backendarch.api.dto.PagedResponse;
 import org.pedrcruz.backendarch.core.inventorymanagement.application.InventoryService;
 import org.pedrcruz.backendarch.core.inventorymanagement.domain.model.Inventory;
 import org.pedrcruz.backendarch.core.productmanagement.application.ProductService;
 import org.pedrcruz.backendarch.pagination.Page;
+import org.pedrcruz.backendarch.util.api.AbstractResource;
+import org.pedrcruz.backendarch.util.api.StreamingPageWriter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/inventory")
 @RequiredArgsConstructor
 @Tag(name = "Inventory Management", description = "API for managing inventory")
-public class InventoryResource {
+public class InventoryResource extends AbstractResource {
 
     private final InventoryService inventoryService;
     private final ProductService productService;
+    private final StreamingPageWriter pageWriter;
 
     @PostMapping
     @Operation(summary = "Create inventory", description = "Create a new inventory entry for a product")
@@ -43,22 +50,15 @@ public class InventoryResource {
     }
 
     @GetMapping
-    @Operation(summary = "Get all inventories", description = "Retrieve all inventory entries with pagination")
-    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<PagedResponse<Inventory>>> getAllInventories(
-            @Parameter(description = "Pagination parameters") final Page page) {
-        final var inventories = inventoryService.findAll();
-
-        final int pageNumber = page != null ? page.getNumber() : 0;
+    @Operation(summary = "Get all inventories", description = "Retrieve all inventory entries with pagination; the page is written as it is read")
+    public void getAllInventories(@Parameter(description = "Pagination parameters") final Page page,
+                                  final HttpServletRequest request,
+                                  final HttpServletResponse response) throws IOException {
+        final int pageNumber = page != null ? page.getNumber() : 1;
         final int pageSize = page != null ? page.getLimit() : 20;
-        final int startIndex = pageNumber * pageSize;
-        final int endIndex = Math.min(startIndex + pageSize, inventories.size());
-
-        final var paginatedInventories = inventories.subList(startIndex, endIndex);
-        final var pagedResponse = PagedResponse.of(paginatedInventories, pageNumber, pageSize, inventories.size());
 
-        return ResponseEntity.ok(
-            org.pedrcruz.backendarch.api.dto.ApiResponse.success(pagedResponse, "Inventories retrieved successfully")
-        );
+        pageWriter.<Inventory>write(request, response, pageNumber, pageSize, inventoryService.getTotalInventoryCount(),
+                "Inventories retrieved successfully", sink -> inventoryService.forEachInPage(pageNumber, pageSize, sink));
     }
 
     @GetMapping("/active")
@@ -81,10 +81,14 @@ public class InventoryResource {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get inventory by ID", description = "Retrieve inventory by ID")
-    public ResponseEntity<Inventory> getInventoryById(@PathVariable final Long id) {
+    @Operation(summary = "Get inventory by ID",
+            description = "Retrieve inventory by ID. Send the ETag back in If-None-Match to get 304 when it did not change")
+    public ResponseEntity<Inventory> getInventoryById(@PathVariable final Long id, final WebRequest request) {
+        if (checkNotModified(request, () -> inventoryService.findVersion(id).map(version -> etagOf(version)))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         final var inventory = inventoryService.findById(id);
-        return inventory.map(ResponseEntity::ok)
+        return inventory.map(i -> ResponseEntity.ok().eTag(etagOf(i.getVersion())).body(i))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -97,56 +101,67 @@ public class InventoryResource {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update inventory", description = "Update an existing inventory entry")
+    @Operation(summary = "Update inventory",
+            description = "Update an existing inventory entry; with If-Match, only if it is still at that version")
     public ResponseEntity<Inventory> updateInventory(@PathVariable final Long id,
-                                                   @RequestBody final UpdateInventoryRequest request) {
+                                                   @RequestBody final UpdateInventoryRequest request,
+                                                   final WebRequest webRequest) {
         final var inventory = inventoryService.updateInventory(
                 id,
                 request.getCurrentQuantity(),
                 request.getMinimumStockLevel(),
                 request.getMaximumStockLevel(),
                 request.getReorderPoint(),
-                request.getReorderQuantity()
+                request.getReorderQuantity(),
+                getOptionalIfMatchVersion(webRequest)
         );
-        return ResponseEntity.ok(inventory);
+        return ResponseEntity.ok().eTag(etagOf(inventory.getVersion())).body(inventory);
     }
 
     @PatchMapping("/{id}/quantity")
-    @Operation(summary = "Update quantity", description = "Update inventory quantity")
+    @Operation(summary = "Update quantity",
+            description = "Update inventory quantity; with If-Match, only if it is still at that version")
     public ResponseEntity<Inventory> updateQuantity(@PathVariable final Long id,
-                                                   @RequestBody final UpdateQuantityRequest request) {
-        final var inventory = inventoryService.updateQuantity(id, request.getQuantity());
-        return ResponseEntity.ok(inventory);
+                                        @RequestBody final UpdateQuantityRequest request,
+                                        final WebRequest webRequest) {
+        final var inventory = inventoryService.updateQuantity(id, request.getQuantity(), getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(inventory.getVersion())).body(inventory);
     }
 
     @PatchMapping("/{id}/add-quantity")
-    @Operation(summary = "Add quantity", description = "Add quantity to inventory")
+    @Operation(summary = "Add quantity",
+            description = "Add quantity to inventory; with If-Match, only if it is still at that version")
     public ResponseEntity<Inventory> addQuantity(@PathVariable final Long id,
-                                               @RequestBody final AddQuantityRequest request) {
-        final var inventory = inventoryService.addQuantity(id, request.getQuantity());
-        return ResponseEntity.ok(inventory);
+                                        @RequestBody final AddQuantityRequest request,
+                                        final WebRequest webRequest) {
+        final var inventory = inventoryService.addQuantity(id, request.getQuantity(), getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(inventory.getVersion())).body(inventory);
     }
 
     @PatchMapping("/{id}/remove-quantity")
-    @Operation(summary = "Remove quantity", description = "Remove quantity from inventory")
+    @Operation(summary = "Remove quantity",
+            description = "Remove quantity from inventory; with If-Match, only if it is still at that version")
     public ResponseEntity<Inventory> removeQuantity(@PathVariable final Long id,
-                                                   @RequestBody final RemoveQuantityRequest request) {
-        final var inventory = inventoryService.removeQuantity(id, request.getQuantity());
-        return ResponseEntity.ok(inventory);
+                                        @RequestBody final RemoveQuantityRequest request,
+                                        final WebRequest webRequest) {
+        final var inventory = inventoryService.removeQuantity(id, request.getQuantity(), getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(inventory.getVersion())).body(inventory);
     }
 
     @PatchMapping("/{id}/activate")
-    @Operation(summary = "Activate inventory", description = "Activate an inventory entry")
-    public ResponseEntity<Inventory> activateInventory(@PathVariable final Long id) {
-        final var inventory = inventoryService.activateInventory(id);
-        return ResponseEntity.ok(inventory);
+    @Operation(summary = "Activate inventory",
+            description = "Activate an inventory entry; with If-Match, only if it is still at that version")
+    public ResponseEntity<Inventory> activateInventory(@PathVariable final Long id, final WebRequest webRequest) {
+        final var inventory = inventoryService.activateInventory(id, getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(inventory.getVersion())).body(inventory);
     }
 
     @PatchMapping("/{id}/deactivate")
-    @Operation(summary = "Deactivate inventory", description = "Deactivate an inventory entry")
-    public ResponseEntity<Inventory> deactivateInventory(@PathVariable final Long id) {
-        final var inventory = inventoryService.deactivateInventory(id);
-        return ResponseEntity.ok(inventory);
+    @Operation(summary = "Deactivate inventory",
+            description = "Deactivate an inventory entry; with If-Match, only if it is still at that version")
+    public ResponseEntity<Inventory> deactivateInventory(@PathVariable final Long id, final WebRequest webRequest) {
+        final var inventory = inventoryService.deactivateInventory(id, getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(inventory.getVersion())).body(inventory);
     }
 
     @GetMapping("/low-stock")
@@ -226,9 +241,10 @@ public class InventoryResource {
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete inventory", description = "Delete an inventory entry")
-    public ResponseEntity<Void> deleteInventory(@PathVariable final Long id) {
-        inventoryService.deleteInventory(id);
+    @Operation(summary = "Delete inventory",
+            description = "Delete an inventory entry; with If-Match, only if it is still at that version")
+    public ResponseEntity<Void> deleteInventory(@PathVariable final Long id, final WebRequest webRequest) {
+        inventoryService.deleteInventory(id, getOptionalIfMatchVersion(webRequest));
         return ResponseEntity.noContent().build();
     }
 
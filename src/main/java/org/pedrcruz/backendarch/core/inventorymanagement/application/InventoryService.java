@@ -5,6 +5,7 @@ import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface InventoryService {
 
@@ -14,12 +15,28 @@ public interface InventoryService {
     Inventory updateInventory(Long id, int currentQuantity, int minimumStockLevel,
                             int maximumStockLevel, int reorderPoint, int reorderQuantity);
 
+    /**
+     * Updates the entry if it is still at {@code version} (any version when null).
+     */
+    Inventory updateInventory(Long id, int currentQuantity, int minimumStockLevel,
+                            int maximumStockLevel, int reorderPoint, int reorderQuantity, Long version);
+
     Inventory updateQuantity(Long id, int quantity);
 
+    /**
+     * Sets the quantity if the entry is still at {@code version} (any version when null); likewise for the
+     * other quantity and status changes.
+     */
+    Inventory updateQuantity(Long id, int quantity, Long version);
+
     Inventory addQuantity(Long id, int quantity);
 
+    Inventory addQuantity(Long id, int quantity, Long version);
+
     Inventory removeQuantity(Long id, int quantity);
 
+    Inventory removeQuantity(Long id, int quantity, Long version);
+
     Inventory updateMinimumStockLevel(Long id, int minimumStockLevel);
 
     Inventory updateMaximumStockLevel(Long id, int maximumStockLevel);
@@ -30,16 +47,30 @@ public interface InventoryService {
 
     Inventory activateInventory(Long id);
 
+    Inventory activateInventory(Long id, Long version);
+
     Inventory deactivateInventory(Long id);
 
+    Inventory deactivateInventory(Long id, Long version);
+
     Optional<Inventory> findById(Long id);
 
+    Optional<Long> findVersion(Long id);
+
+    Optional<Long> findVersionByProductId(Long productId);
+
     Optional<Inventory> findByProduct(Product product);
 
     Optional<Inventory> findByProductId(Long productId);
 
     List<Inventory> findAll();
 
+    /**
+     * Hands the inventory entries of one page (1-based, by id) to {@code action} one at a time, within a read-only
+     * transaction, without collecting them into a list.
+     */
+    void forEachInPage(int page, int size, Consumer<Inventory> action);
+
     List<Inventory> findActiveInventories();
 
     List<Inventory> findInactiveInventories();
@@ -56,6 +87,8 @@ public interface InventoryService {
 
     void deleteInventory(Long id);
 
+    void deleteInventory(Long id, Long version);
+
     boolean existsById(Long id);
 
     boolean existsByProduct(Product product);
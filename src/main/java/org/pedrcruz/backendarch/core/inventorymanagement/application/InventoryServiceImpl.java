@@ -1,24 +1,37 @@
 package org.pedrcruz.backendarch.core.inventorymanagement.application;
 
+import org.pedrcruz.backendarch.core.catalogmanagement.application.CatalogChangeLog;
 import org.pedrcruz.backendarch.core.domain.ActivityStatus;
 import org.pedrcruz.backendarch.core.inventorymanagement.domain.model.Inventory;
 import org.pedrcruz.backendarch.core.inventorymanagement.domain.repositories.InventoryRepository;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
 import org.pedrcruz.backendarch.exceptions.NotFoundException;
+import org.pedrcruz.backendarch.util.transaction.TransactionHooks;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryRepository inventoryRepository;
+    private final CatalogChangeLog catalogChangeLog;
+    private final CacheManager cacheManager;
 
-    public InventoryServiceImpl(final InventoryRepository inventoryRepository) {
+    public InventoryServiceImpl(final InventoryRepository inventoryRepository,
+                                final CatalogChangeLog catalogChangeLog,
+                                final CacheManager cacheManager) {
         this.inventoryRepository = inventoryRepository;
+        this.catalogChangeLog = catalogChangeLog;
+        this.cacheManager = cacheManager;
     }
 
     @Override
@@ -30,13 +43,21 @@ public class InventoryServiceImpl implements InventoryService {
 
         final var inventory = new Inventory(product, currentQuantity, minimumStockLevel,
                 maximumStockLevel, reorderPoint, reorderQuantity);
-        return inventoryRepository.save(inventory);
+        return save(inventory);
     }
 
     @Override
     public Inventory updateInventory(final Long id, final int currentQuantity, final int minimumStockLevel,
                                    final int maximumStockLevel, final int reorderPoint, final int reorderQuantity) {
-        final var inventory = inventoryRepository.getById(id);
+        return updateInventory(id, currentQuantity, minimumStockLevel, maximumStockLevel, reorderPoint,
+                reorderQuantity, null);
+    }
+
+    @Override
+    public Inventory updateInventory(final Long id, final int currentQuantity, final int minimumStockLevel,
+                                   final int maximumStockLevel, final int reorderPoint, final int reorderQuantity,
+                                   final Long version) {
+        final var inventory = inventoryRepository.getByIdAndVersion(id, version);
 
         inventory.updateQuantity(currentQuantity);
         inventory.updateMinimumStockLevel(minimumStockLevel);
@@ -44,71 +65,101 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.updateReorderPoint(reorderPoint);
         inventory.updateReorderQuantity(reorderQuantity);
 
-        return inventoryRepository.save(inventory);
+        return save(inventory);
     }
 
     @Override
     public Inventory updateQuantity(final Long id, final int quantity) {
-        final var inventory = inventoryRepository.getById(id);
+        return updateQuantity(id, quantity, null);
+    }
+
+    @Override
+    public Inventory updateQuantity(final Long id, final int quantity, final Long version) {
+        final var inventory = inventoryRepository.getByIdAndVersion(id, version);
         inventory.updateQuantity(quantity);
-        return inventoryRepository.save(inventory);
+        return save(inventory);
     }
 
     @Override
     public Inventory addQuantity(final Long id, final int quantity) {
-        final var inventory = inventoryRepository.getById(id);
+        return addQuantity(id, quantity, null);
+    }
+
+    @Override
+    public Inventory addQuantity(final Long id, final int quantity, final Long version) {
+        final var inventory = inventoryRepository.getByIdAndVersion(id, version);
         inventory.addQuantity(quantity);
-        return inventoryRepository.save(inventory);
+        return save(inventory);
     }
 
     @Override
     public Inventory removeQuantity(final Long id, final int quantity) {
-        final var inventory = inventoryRepository.getById(id);
+        return removeQuantity(id, quantity, null);
+    }
+
+    @Override
+    public Inventory removeQuantity(final Long id, final int quantity, final Long version) {
+        final var inventory = inventoryRepository.getByIdAndVersion(id, version);
         inventory.removeQuantity(quantity);
-        return inventoryRepository.save(inventory);
+        return save(inventory);
     }
 
     @Override
     public Inventory updateMinimumStockLevel(final Long id, final int minimumStockLevel) {
         final var inventory = inventoryRepository.getById(id);
         inventory.updateMinimumStockLevel(minimumStockLevel);
-        return inventoryRepository.save(inventory);
+        return save(inventory);
     }
 
     @Override
     public Inventory updateMaximumStockLevel(final Long id, final int maximumStockLevel) {
         final var inventory = inventoryRepository.getById(id);
         inventory.updateMaximumStockLevel(maximumStockLevel);
-        return inventoryRepository.save(inventory);
+        return save(inventory);
     }
 
     @Override
     public Inventory updateReorderPoint(final Long id, final int reorderPoint) {
         final var inventory = inventoryRepository.getById(id);
         inventory.updateReorderPoint(reorderPoint);
-        return inventoryRepository.save(inventory);
+        return save(inventory);
     }
 
     @Override
     public Inventory updateReorderQuantity(final Long id, final int reorderQuantity) {
         final var inventory = inventoryRepository.getById(id);
         inventory.updateReorderQuantity(reorderQuantity);
-        return inventoryRepository.save(inventory);
+        return save(inventory);
     }
 
     @Override
     public Inventory activateInventory(final Long id) {
+        return activateInventory(id, null);
+    }
+
+    @Override
+    public Inventory activateInventory(final Long id, final Long version) {
+        // inactive entries included, so the version check of getByIdAndVersion is repeated here
         final var inventory = inventoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(Inventory.class, id));
+        if (version != null && !version.equals(inventory.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Resource has been modified by another user. Please refresh and try again.");
+        }
         inventory.activate();
-        return inventoryRepository.save(inventory);
+        return save(inventory);
     }
 
     @Override
     public Inventory deactivateInventory(final Long id) {
-        final var inventory = inventoryRepository.getById(id);
+        return deactivateInventory(id, null);
+    }
+
+    @Override
+    public Inventory deactivateInventory(final Long id, final Long version) {
+        final var inventory = inventoryRepository.getByIdAndVersion(id, version);
         inventory.deactivate();
-        return inventoryRepository.save(inventory);
+        return save(inventory);
     }
 
     @Override
@@ -117,6 +168,18 @@ public class InventoryServiceImpl implements InventoryService {
         return inventoryRepository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(final Long id) {
+        return inventoryRepository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersionByProductId(final Long productId) {
+        return inventoryRepository.findVersionByProductId(productId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Inventory> findByProduct(final Product product) {
@@ -135,6 +198,12 @@ public class InventoryServiceImpl implements InventoryService {
         return inventoryRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachInPage(final int page, final int size, final Consumer<Inventory> action) {
+        inventoryRepository.forEachInPage(page, size, action);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Inventory> findActiveInventories() {
@@ -179,8 +248,14 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     public void deleteInventory(final Long id) {
-        final var inventory = inventoryRepository.getById(id);
+        deleteInventory(id, null);
+    }
+
+    @Override
+    public void deleteInventory(final Long id, final Long version) {
+        final var inventory = inventoryRepository.getByIdAndVersion(id, version);
         inventoryRepository.delete(inventory);
+        productChanged(inventory.getProduct().getId());
     }
 
     @Override
@@ -212,4 +287,20 @@ public class InventoryServiceImpl implements InventoryService {
     public long getActiveInventoryCount() {
         return inventoryRepository.countByActivityStatus(new ActivityStatus(true));
     }
+
+    private Inventory save(final Inventory inventory) {
+        final var saved = inventoryRepository.save(inventory);
+        productChanged(saved.getProduct().getId());
+        return saved;
+    }
+
+    /**
+     * Product responses show inventory figures, so an inventory write is a change of its product: it moves
+     * the catalog version (and with it the ETag of product listings), and cached listings are dropped once
+     * it commits.
+     */
+    private void productChanged(final Long productId) {
+        catalogChangeLog.productChanged(productId);
+        TransactionHooks.afterCommit(() -> Objects.requireNonNull(cacheManager.getCache("products")).clear());
+    }
 }
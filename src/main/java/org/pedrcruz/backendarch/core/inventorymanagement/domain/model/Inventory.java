@@ -4,6 +4,7 @@ import eapli.framework.domain.model.AggregateRoot;
 import eapli.framework.domain.model.DomainEntities;
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.ColumnDefault;
 import org.pedrcruz.backendarch.core.domain.ActivityStatus;
 import org.pedrcruz.backendarch.core.domain.Date;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
@@ -26,6 +27,12 @@ public class Inventory implements AggregateRoot<Long> {
     @Getter
     private Long id;
 
+    @Version
+    @Getter
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Getter
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false, unique = true)
@@ -4,9 +4,12 @@ import org.pedrcruz.backendarch.core.domain.ActivityStatus;
 import org.pedrcruz.backendarch.core.inventorymanagement.domain.model.Inventory;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
 import org.pedrcruz.backendarch.exceptions.NotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface InventoryRepository {
 
@@ -24,8 +27,34 @@ public interface InventoryRepository {
                 .orElseThrow(() -> new NotFoundException(Inventory.class, id));
     }
 
+    /**
+     * Like {@link #getById(Long)}, but fails with 412 Precondition Failed when the inventory entry is no longer at
+     * the version the client expects; a {@code null} version skips the check.
+     */
+    default Inventory getByIdAndVersion(final Long id, final Long version) {
+        final var inventory = getById(id);
+        if (version != null && !version.equals(inventory.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Resource has been modified by another user. Please refresh and try again.");
+        }
+        return inventory;
+    }
+
+    /**
+     * Current version of an inventory entry, read without loading the entity; empty if there is none.
+     */
+    Optional<Long> findVersionById(Long id);
+
+    Optional<Long> findVersionByProductId(Long productId);
+
     List<Inventory> findAll();
 
+    /**
+     * Passes the inventory entries of one page, by id, to {@code action} as they are read; each is detached
+     * from the persistence context once handled. Must run inside a transaction.
+     */
+    void forEachInPage(int page, int size, Consumer<Inventory> action);
+
     List<Inventory> findByActivityStatus(ActivityStatus activityStatus);
 
     Optional<Inventory> findByProduct(Product product);
@@ -1,21 +1,28 @@
 package org.pedrcruz.backendarch.core.inventorymanagement.infrastructure.repositories.impl;
 
+import jakarta.persistence.EntityManager;
 import org.pedrcruz.backendarch.core.domain.ActivityStatus;
 import org.pedrcruz.backendarch.core.inventorymanagement.domain.model.Inventory;
 import org.pedrcruz.backendarch.core.inventorymanagement.domain.repositories.InventoryRepository;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class InventoryRepositoryImpl implements InventoryRepository {
 
     private final SpringDataInventoryRepository springDataInventoryRepository;
+    private final EntityManager entityManager;
 
-    public InventoryRepositoryImpl(final SpringDataInventoryRepository springDataInventoryRepository) {
+    public InventoryRepositoryImpl(final SpringDataInventoryRepository springDataInventoryRepository,
+                                   final EntityManager entityManager) {
         this.springDataInventoryRepository = springDataInventoryRepository;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -33,11 +40,32 @@ public class InventoryRepositoryImpl implements InventoryRepository {
         return springDataInventoryRepository.findById(objectId);
     }
 
+    @Override
+    public Optional<Long> findVersionById(final Long id) {
+        return springDataInventoryRepository.findVersionById(id);
+    }
+
+    @Override
+    public Optional<Long> findVersionByProductId(final Long productId) {
+        return springDataInventoryRepository.findVersionByProductId(productId);
+    }
+
     @Override
     public List<Inventory> findAll() {
         return springDataInventoryRepository.findAll();
     }
 
+    @Override
+    public void forEachInPage(final int page, final int size, final Consumer<Inventory> action) {
+        try (var rows = springDataInventoryRepository.streamAllBy(PageRequest.of(page - 1, size, Sort.by("id")))) {
+            rows.forEach(row -> {
+                action.accept(row);
+                // handled: don't let the persistence context grow with the page
+                entityManager.detach(row);
+            });
+        }
+    }
+
     @Override
     public List<Inventory> findByActivityStatus(final ActivityStatus activityStatus) {
         return springDataInventoryRepository.findByActivityStatus(activityStatus);
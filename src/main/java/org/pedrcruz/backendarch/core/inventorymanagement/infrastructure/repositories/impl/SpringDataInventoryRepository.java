@@ -1,23 +1,39 @@
 package org.pedrcruz.backendarch.core.inventorymanagement.infrastructure.repositories.impl;
 
+import jakarta.persistence.QueryHint;
 import org.pedrcruz.backendarch.core.domain.ActivityStatus;
 import org.pedrcruz.backendarch.core.inventorymanagement.domain.model.Inventory;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface SpringDataInventoryRepository extends JpaRepository<Inventory, Long> {
 
+    // a cursor rather than a result list; the fetch size keeps the driver from buffering the whole page
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "100"))
+    Stream<Inventory> streamAllBy(Pageable pageable);
+
     List<Inventory> findByActivityStatus(ActivityStatus activityStatus);
 
     Optional<Inventory> findByProduct(Product product);
 
     Optional<Inventory> findByProductId(Long productId);
 
+    @Query("SELECT i.version FROM Inventory i WHERE i.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT i.version FROM Inventory i WHERE i.product.id = :productId")
+    Optional<Long> findVersionByProductId(@Param("productId") Long productId);
+
     List<Inventory> findByCurrentQuantityLessThan(int quantity);
 
     List<Inventory> findByCurrentQuantityGreaterThan(int quantity);
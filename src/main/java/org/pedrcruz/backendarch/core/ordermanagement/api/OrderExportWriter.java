@@ -0,0 +1,162 @@
+package org.pedrcruz.backendarch.core.ordermanagement.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.pedrcruz.backendarch.core.domain.Date;
+import org.pedrcruz.backendarch.core.ordermanagement.domain.model.Order;
+import org.pedrcruz.backendarch.core.ordermanagement.domain.model.OrderItem;
+import org.pedrcruz.backendarch.core.ordermanagement.domain.model.OrderStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Renders orders with their items for the export: NDJSON has one order per line with its items nested,
+ * CSV one line per item with the order columns repeated (an order without items gets one line with empty
+ * item columns). Each batch is encoded in memory and written with a single call.
+ */
+@Component
+public class OrderExportWriter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(final String mediaType, final String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format of(final String value) {
+            for (final Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format '" + value + "'; expected ndjson or csv");
+        }
+    }
+
+    private record ItemLine(Long id, Long productId, String productName, int quantity, BigDecimal unitPrice,
+                            BigDecimal totalPrice) {
+    }
+
+    private record OrderLine(Long id, Long customerId, OrderStatus status, LocalDate orderDate,
+                             LocalDate lastUpdatedDate, BigDecimal totalAmount, String notes, List<ItemLine> items) {
+    }
+
+    private static final String CSV_HEADER = "order_id,customer_id,status,order_date,last_updated_date,total_amount,"
+            + "notes,item_id,product_id,product_name,quantity,unit_price,total_price\r\n";
+
+    private final ObjectWriter jsonWriter;
+
+    public OrderExportWriter(final ObjectMapper objectMapper) {
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Whatever precedes the first batch: the CSV header line, nothing for NDJSON.
+     */
+    public void writeStart(final Format format, final OutputStream out) throws IOException {
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public void write(final Format format, final List<Order> batch, final OutputStream out) throws IOException {
+        final var text = new StringBuilder(batch.size() * 256);
+        for (final Order order : batch) {
+            if (format == Format.NDJSON) {
+                text.append(jsonWriter.writeValueAsString(lineOf(order))).append('\n');
+            } else {
+                appendCsv(text, order);
+            }
+        }
+        out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static OrderLine lineOf(final Order order) {
+        final var items = order.getItems().stream()
+                .map(item -> new ItemLine(item.getId(), item.getProduct().getId(), productName(item),
+                        item.getQuantity(), item.getUnitPrice(), item.getTotalPrice()))
+                .toList();
+        return new OrderLine(order.getId(), order.getCustomer().getId(), order.getStatus(),
+                dateOf(order.getOrderDate()), dateOf(order.getLastUpdatedDate()), order.getTotalAmount(),
+                order.getNotes(), items);
+    }
+
+    private static void appendCsv(final StringBuilder text, final Order order) {
+        final var orderColumns = String.join(",",
+                String.valueOf(order.getId()),
+                String.valueOf(order.getCustomer().getId()),
+                order.getStatus().name(),
+                textOf(dateOf(order.getOrderDate())),
+                textOf(dateOf(order.getLastUpdatedDate())),
+                textOf(order.getTotalAmount()),
+                csvText(order.getNotes()));
+        if (order.getItems().isEmpty()) {
+            text.append(orderColumns).append(",,,,,,\r\n");
+            return;
+        }
+        for (final OrderItem item : order.getItems()) {
+            text.append(orderColumns).append(',')
+                    .append(item.getId()).append(',')
+                    .append(item.getProduct().getId()).append(',')
+                    .append(csvText(productName(item))).append(',')
+                    .append(item.getQuantity()).append(',')
+                    .append(textOf(item.getUnitPrice())).append(',')
+                    .append(textOf(item.getTotalPrice())).append("\r\n");
+        }
+    }
+
+    private static String productName(final OrderItem item) {
+        final var name = item.getProduct().getName();
+        return name != null ? name.getWord() : null;
+    }
+
+    private static LocalDate dateOf(final Date date) {
+        return date != null ? date.date() : null;
+    }
+
+    private static String textOf(final Object value) {
+        if (value == null) {
+            return "";
+        }
+        return value instanceof BigDecimal number ? number.toPlainString() : value.toString();
+    }
+
+    /**
+     * Quotes free text as RFC 4180 requires, and keeps spreadsheets from evaluating values that look like
+     * formulas by prefixing them with an apostrophe.
+     */
+    private static String csvText(final String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        var text = value;
+        if ("=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            text = '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -3,26 +3,43 @@ package org.pedrcruz.backendarch.core.ordermanagement.api;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.pedrcruz.backendarch.api.dto.PagedResponse;
 import org.pedrcruz.backendarch.core.ordermanagement.application.OrderService;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.Order;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.OrderStatus;
+import org.pedrcruz.backendarch.core.ordermanagement.domain.repositories.OrderRepository;
 import org.pedrcruz.backendarch.pagination.Page;
+import org.pedrcruz.backendarch.util.api.AbstractResource;
+import org.pedrcruz.backendarch.util.api.FieldSelection;
+import org.pedrcruz.backendarch.util.api.StreamingPageWriter;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 @Tag(name = "Order Management", description = "API for managing orders")
-public class OrderResource {
+public class OrderResource extends AbstractResource {
 
     private final OrderService orderService;
+    private final StreamingPageWriter pageWriter;
+    private final OrderExportWriter exportWriter;
 
     @PostMapping
     @Operation(summary = "Create order", description = "Create a new order for a customer")
@@ -32,23 +49,64 @@ public class OrderResource {
     }
 
     @GetMapping
-    @Operation(summary = "Get all orders", description = "Retrieve all orders with pagination")
-    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<PagedResponse<Order>>> getAllOrders(
-            @Parameter(description = "Pagination parameters") final Page page) {
-        final var orders = orderService.findAll();
-
-        // Apply pagination logic
-        final int pageNumber = page != null ? page.getNumber() : 0;
+    @Operation(summary = "Get all orders", description = "Retrieve all orders with pagination; the page is written as it is read")
+    public void getAllOrders(@Parameter(description = "Pagination parameters") final Page page,
+                             @Parameter(description = "Comma-separated fields to return, e.g. id,status,totalAmount; all when absent")
+                             @RequestParam(required = false) final String fields,
+                             final HttpServletRequest request,
+                             final HttpServletResponse response) throws IOException {
+        final var selection = FieldSelection.parse(fields, OrderRepository.PROJECTABLE_COLUMNS);
+        final int pageNumber = page != null ? page.getNumber() : 1;
         final int pageSize = page != null ? page.getLimit() : 20;
-        final int startIndex = pageNumber * pageSize;
-        final int endIndex = Math.min(startIndex + pageSize, orders.size());
-
-        final var paginatedOrders = orders.subList(startIndex, endIndex);
-        final var pagedResponse = PagedResponse.of(paginatedOrders, pageNumber, pageSize, orders.size());
+        final var total = orderService.getTotalOrderCount();
+        final var message = "Orders retrieved successfully";
+
+        if (selection.isAll()) {
+            pageWriter.<Order>write(request, response, pageNumber, pageSize, total, message,
+                    sink -> orderService.forEachInPage(pageNumber, pageSize, sink));
+        } else {
+            // only the selected columns are queried; rows are written as field maps
+            pageWriter.<Map<String, Object>>write(request, response, pageNumber, pageSize, total, message,
+                    sink -> orderService.forEachInPage(pageNumber, pageSize, selection.fields(),
+                            row -> sink.accept(selection.pick(row))));
+        }
+    }
 
-        return ResponseEntity.ok(
-            org.pedrcruz.backendarch.api.dto.ApiResponse.success(pagedResponse, "Orders retrieved successfully")
-        );
+    @GetMapping("/export")
+    @Operation(summary = "Export orders",
+            description = "Stream the orders placed in a date range with their items, as NDJSON (one order per line) or CSV (one line per item)")
+    public void exportOrders(
+            @Parameter(description = "First order date, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+            @Parameter(description = "Last order date, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to,
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") final String format,
+            final HttpServletResponse response) throws IOException {
+        final var exportFormat = OrderExportWriter.Format.of(format);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(exportFormat.mediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("orders." + exportFormat.extension())
+                .build()
+                .toString());
+
+        final var out = response.getOutputStream();
+        exportWriter.writeStart(exportFormat, out);
+        // send the headers right away, before the query runs
+        out.flush();
+        orderService.exportOrders(from, to, batch -> {
+            try {
+                exportWriter.write(exportFormat, batch, out);
+                out.flush();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     @GetMapping("/active")
@@ -132,10 +190,14 @@ public class OrderResource {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get order by ID", description = "Retrieve order by ID")
-    public ResponseEntity<Order> getOrderById(@PathVariable final Long id) {
+    @Operation(summary = "Get order by ID",
+            description = "Retrieve order by ID. Send the ETag back in If-None-Match to get 304 when it did not change")
+    public ResponseEntity<Order> getOrderById(@PathVariable final Long id, final WebRequest request) {
+        if (checkNotModified(request, () -> orderService.findVersion(id).map(version -> etagOf(version)))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         final var order = orderService.findById(id);
-        return order.map(ResponseEntity::ok)
+        return order.map(o -> ResponseEntity.ok().eTag(etagOf(o.getVersion())).body(o))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -148,63 +210,68 @@ public class OrderResource {
     }
 
     @DeleteMapping("/{id}/items/{itemId}")
-    @Operation(summary = "Remove item from order", description = "Remove an item from an order")
+    @Operation(summary = "Remove item from order", description = "Remove an item from an order; with If-Match, only if it is still at that version")
     public ResponseEntity<Order> removeItemFromOrder(@PathVariable final Long id,
-                                                    @PathVariable final Long itemId) {
-        final var order = orderService.removeItemFromOrder(id, itemId);
-        return ResponseEntity.ok(order);
+                                                    @PathVariable final Long itemId,
+                                                    final WebRequest webRequest) {
+        final var order = orderService.removeItemFromOrder(id, itemId, getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(order.getVersion())).body(order);
     }
 
     @PutMapping("/{id}/items/{itemId}")
-    @Operation(summary = "Update item quantity", description = "Update the quantity of an item in an order")
+    @Operation(summary = "Update item quantity", description = "Update the quantity of an item in an order; with If-Match, only if it is still at that version")
     public ResponseEntity<Order> updateItemQuantity(@PathVariable final Long id,
                                                    @PathVariable final Long itemId,
-                                                   @RequestBody final UpdateItemQuantityRequest request) {
-        final var order = orderService.updateItemQuantity(id, itemId, request.getQuantity());
-        return ResponseEntity.ok(order);
+                                                   @RequestBody final UpdateItemQuantityRequest request,
+                                                   final WebRequest webRequest) {
+        final var order = orderService.updateItemQuantity(id, itemId, request.getQuantity(),
+                getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(order.getVersion())).body(order);
     }
 
     @PatchMapping("/{id}/confirm")
-    @Operation(summary = "Confirm order", description = "Confirm a pending order")
-    public ResponseEntity<Order> confirmOrder(@PathVariable final Long id) {
-        final var order = orderService.confirmOrder(id);
-        return ResponseEntity.ok(order);
+    @Operation(summary = "Confirm order", description = "Confirm a pending order; with If-Match, only if it is still at that version")
+    public ResponseEntity<Order> confirmOrder(@PathVariable final Long id, final WebRequest webRequest) {
+        final var order = orderService.confirmOrder(id, getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(order.getVersion())).body(order);
     }
 
     @PatchMapping("/{id}/start-preparing")
-    @Operation(summary = "Start preparing order", description = "Start preparing a confirmed order")
-    public ResponseEntity<Order> startPreparingOrder(@PathVariable final Long id) {
-        final var order = orderService.startPreparingOrder(id);
-        return ResponseEntity.ok(order);
+    @Operation(summary = "Start preparing order", description = "Start preparing a confirmed order; with If-Match, only if it is still at that version")
+    public ResponseEntity<Order> startPreparingOrder(@PathVariable final Long id, final WebRequest webRequest) {
+        final var order = orderService.startPreparingOrder(id, getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(order.getVersion())).body(order);
     }
 
     @PatchMapping("/{id}/ready")
-    @Operation(summary = "Mark order as ready", description = "Mark a preparing order as ready")
-    public ResponseEntity<Order> markOrderAsReady(@PathVariable final Long id) {
-        final var order = orderService.markOrderAsReady(id);
-        return ResponseEntity.ok(order);
+    @Operation(summary = "Mark order as ready", description = "Mark a preparing order as ready; with If-Match, only if it is still at that version")
+    public ResponseEntity<Order> markOrderAsReady(@PathVariable final Long id, final WebRequest webRequest) {
+        final var order = orderService.markOrderAsReady(id, getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(order.getVersion())).body(order);
     }
 
     @PatchMapping("/{id}/deliver")
-    @Operation(summary = "Deliver order", description = "Mark a ready order as delivered")
-    public ResponseEntity<Order> deliverOrder(@PathVariable final Long id) {
-        final var order = orderService.deliverOrder(id);
-        return ResponseEntity.ok(order);
+    @Operation(summary = "Deliver order", description = "Mark a ready order as delivered; with If-Match, only if it is still at that version")
+    public ResponseEntity<Order> deliverOrder(@PathVariable final Long id, final WebRequest webRequest) {
+        final var order = orderService.deliverOrder(id, getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(order.getVersion())).body(order);
     }
 
     @PatchMapping("/{id}/cancel")
-    @Operation(summary = "Cancel order", description = "Cancel an order")
-    public ResponseEntity<Order> cancelOrder(@PathVariable final Long id) {
-        final var order = orderService.cancelOrder(id);
-        return ResponseEntity.ok(order);
+    @Operation(summary = "Cancel order", description = "Cancel an order; with If-Match, only if it is still at that version")
+    public ResponseEntity<Order> cancelOrder(@PathVariable final Long id, final WebRequest webRequest) {
+        final var order = orderService.cancelOrder(id, getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(order.getVersion())).body(order);
     }
 
     @PatchMapping("/{id}/notes")
-    @Operation(summary = "Update order notes", description = "Update the notes for an order")
+    @Operation(summary = "Update order notes",
+            description = "Update the notes for an order; with If-Match, only if it is still at that version")
     public ResponseEntity<Order> updateOrderNotes(@PathVariable final Long id,
-                                                 @RequestBody final UpdateNotesRequest request) {
-        final var order = orderService.updateOrderNotes(id, request.getNotes());
-        return ResponseEntity.ok(order);
+                                                 @RequestBody final UpdateNotesRequest request,
+                                                 final WebRequest webRequest) {
+        final var order = orderService.updateOrderNotes(id, request.getNotes(), getOptionalIfMatchVersion(webRequest));
+        return ResponseEntity.ok().eTag(etagOf(order.getVersion())).body(order);
     }
 
     @GetMapping("/pending")
@@ -322,9 +389,9 @@ public class OrderResource {
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete order", description = "Delete an order")
-    public ResponseEntity<Void> deleteOrder(@PathVariable final Long id) {
-        orderService.deleteOrder(id);
+    @Operation(summary = "Delete order", description = "Delete an order; with If-Match, only if it is still at that version")
+    public ResponseEntity<Void> deleteOrder(@PathVariable final Long id, final WebRequest webRequest) {
+        orderService.deleteOrder(id, getOptionalIfMatchVersion(webRequest));
         return ResponseEntity.noContent().build();
     }
 
@@ -1,13 +1,18 @@
 package org.pedrcruz.backendarch.core.ordermanagement.application;
 
+import jakarta.persistence.Tuple;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.Order;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.OrderStatus;
+import org.pedrcruz.backendarch.core.ordermanagement.domain.repositories.OrderRepository;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
 import org.pedrcruz.backendarch.core.usermanagement.domain.model.User;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface OrderService {
 
@@ -21,24 +26,71 @@ public interface OrderService {
 
     Order removeItemFromOrder(Long orderId, Long itemId);
 
+    /**
+     * Removes an item if the order is still at {@code version} (any version when null).
+     */
+    Order removeItemFromOrder(Long orderId, Long itemId, Long version);
+
     Order updateItemQuantity(Long orderId, Long itemId, int newQuantity);
 
+    Order updateItemQuantity(Long orderId, Long itemId, int newQuantity, Long version);
+
     Order confirmOrder(Long orderId);
 
+    /**
+     * Confirms the order if it is still at {@code version} (any version when null); likewise for the other
+     * status transitions.
+     */
+    Order confirmOrder(Long orderId, Long version);
+
     Order startPreparingOrder(Long orderId);
 
+    Order startPreparingOrder(Long orderId, Long version);
+
     Order markOrderAsReady(Long orderId);
 
+    Order markOrderAsReady(Long orderId, Long version);
+
     Order deliverOrder(Long orderId);
 
+    Order deliverOrder(Long orderId, Long version);
+
     Order cancelOrder(Long orderId);
 
+    Order cancelOrder(Long orderId, Long version);
+
     Order updateOrderNotes(Long orderId, String notes);
 
+    /**
+     * Replaces the notes if the order is still at {@code version} (any version when null).
+     */
+    Order updateOrderNotes(Long orderId, String notes, Long version);
+
     Optional<Order> findById(Long id);
 
+    Optional<Long> findVersion(Long id);
+
     List<Order> findAll();
 
+    /**
+     * Hands the orders of one page (1-based, by id) to {@code action} one at a time, within a read-only
+     * transaction, without collecting them into a list.
+     */
+    void forEachInPage(int page, int size, Consumer<Order> action);
+
+    /**
+     * Like {@link #forEachInPage(int, int, Consumer)}, selecting only the given columns of
+     * {@link OrderRepository#PROJECTABLE_COLUMNS}.
+     */
+    void forEachInPage(int page, int size, Collection<String> columns, Consumer<Tuple> action);
+
+    /**
+     * Hands every order placed between {@code from} and {@code to} (inclusive, either may be null) to
+     * {@code action} in batches, oldest id first, with their items loaded. The batches are read from a
+     * database cursor in one read-only transaction and are not retained.
+     */
+    void exportOrders(LocalDate from, LocalDate to, Consumer<List<Order>> action);
+
     List<Order> findByStatus(OrderStatus status);
 
     List<Order> findByCustomer(User customer);
@@ -69,6 +121,8 @@ public interface OrderService {
 
     void deleteOrder(Long id);
 
+    void deleteOrder(Long id, Long version);
+
     boolean existsById(Long id);
 
     boolean hasCustomerActiveOrder(User customer);
@@ -1,5 +1,6 @@
 package org.pedrcruz.backendarch.core.ordermanagement.application;
 
+import jakarta.persistence.Tuple;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.Order;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.OrderStatus;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.repositories.OrderRepository;
@@ -12,13 +13,20 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    // orders per cursor fetch and per write; bounds what an export holds in memory
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final UserService userService;
     private final ProductService productService;
@@ -54,63 +62,104 @@ public class OrderServiceImpl implements OrderService {
     public Order addItemToOrder(final Long orderId, final Long productId, final int quantity) {
         final var order = orderRepository.getById(orderId);
         final var product = productService.getById(productId);
-        final var unitPrice = product.getPrice();
+        // price from the history so a scheduled change applies from its exact instant
+        final var unitPrice = productService.getPriceAt(productId, Instant.now()).orElse(product.getPrice());
         order.addItem(product, quantity, unitPrice);
         return orderRepository.save(order);
     }
 
     @Override
     public Order removeItemFromOrder(final Long orderId, final Long itemId) {
-        final var order = orderRepository.getById(orderId);
+        return removeItemFromOrder(orderId, itemId, null);
+    }
+
+    @Override
+    public Order removeItemFromOrder(final Long orderId, final Long itemId, final Long version) {
+        final var order = orderRepository.getByIdAndVersion(orderId, version);
         order.removeItem(itemId);
         return orderRepository.save(order);
     }
 
     @Override
     public Order updateItemQuantity(final Long orderId, final Long itemId, final int newQuantity) {
-        final var order = orderRepository.getById(orderId);
+        return updateItemQuantity(orderId, itemId, newQuantity, null);
+    }
+
+    @Override
+    public Order updateItemQuantity(final Long orderId, final Long itemId, final int newQuantity, final Long version) {
+        final var order = orderRepository.getByIdAndVersion(orderId, version);
         order.updateItemQuantity(itemId, newQuantity);
         return orderRepository.save(order);
     }
 
     @Override
     public Order confirmOrder(final Long orderId) {
-        final var order = orderRepository.getById(orderId);
+        return confirmOrder(orderId, null);
+    }
+
+    @Override
+    public Order confirmOrder(final Long orderId, final Long version) {
+        final var order = orderRepository.getByIdAndVersion(orderId, version);
         order.confirm();
         return orderRepository.save(order);
     }
 
     @Override
     public Order startPreparingOrder(final Long orderId) {
-        final var order = orderRepository.getById(orderId);
+        return startPreparingOrder(orderId, null);
+    }
+
+    @Override
+    public Order startPreparingOrder(final Long orderId, final Long version) {
+        final var order = orderRepository.getByIdAndVersion(orderId, version);
         order.startPreparing();
         return orderRepository.save(order);
     }
 
     @Override
     public Order markOrderAsReady(final Long orderId) {
-        final var order = orderRepository.getById(orderId);
+        return markOrderAsReady(orderId, null);
+    }
+
+    @Override
+    public Order markOrderAsReady(final Long orderId, final Long version) {
+        final var order = orderRepository.getByIdAndVersion(orderId, version);
         order.markAsReady();
         return orderRepository.save(order);
     }
 
     @Override
     public Order deliverOrder(final Long orderId) {
-        final var order = orderRepository.getById(orderId);
+        return deliverOrder(orderId, null);
+    }
+
+    @Override
+    public Order deliverOrder(final Long orderId, final Long version) {
+        final var order = orderRepository.getByIdAndVersion(orderId, version);
         order.deliver();
         return orderRepository.save(order);
     }
 
     @Override
     public Order cancelOrder(final Long orderId) {
-        final var order = orderRepository.getById(orderId);
+        return cancelOrder(orderId, null);
+    }
+
+    @Override
+    public Order cancelOrder(final Long orderId, final Long version) {
+        final var order = orderRepository.getByIdAndVersion(orderId, version);
         order.cancel();
         return orderRepository.save(order);
     }
 
     @Override
     public Order updateOrderNotes(final Long orderId, final String notes) {
-        final var order = orderRepository.getById(orderId);
+        return updateOrderNotes(orderId, notes, null);
+    }
+
+    @Override
+    public Order updateOrderNotes(final Long orderId, final String notes, final Long version) {
+        final var order = orderRepository.getByIdAndVersion(orderId, version);
         order.updateNotes(notes);
         return orderRepository.save(order);
     }
@@ -121,12 +170,37 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(final Long id) {
+        return orderRepository.findVersionById(id);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Order> findAll() {
         return orderRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachInPage(final int page, final int size, final Consumer<Order> action) {
+        orderRepository.forEachInPage(page, size, action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachInPage(final int page, final int size, final Collection<String> columns,
+                              final Consumer<Tuple> action) {
+        orderRepository.forEachInPage(page, size, columns, action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(final LocalDate from, final LocalDate to, final Consumer<List<Order>> action) {
+        orderRepository.forEachBatch(from, to, EXPORT_BATCH_SIZE, action);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Order> findByStatus(final OrderStatus status) {
@@ -213,7 +287,12 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public void deleteOrder(final Long id) {
-        final var order = orderRepository.getById(id);
+        deleteOrder(id, null);
+    }
+
+    @Override
+    public void deleteOrder(final Long id, final Long version) {
+        final var order = orderRepository.getByIdAndVersion(id, version);
         orderRepository.delete(order);
     }
 
@@ -4,6 +4,7 @@ import eapli.framework.domain.model.AggregateRoot;
 import eapli.framework.domain.model.DomainEntities;
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.ColumnDefault;
 import org.pedrcruz.backendarch.core.domain.Date;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
 import org.pedrcruz.backendarch.core.usermanagement.domain.model.User;
@@ -30,6 +31,12 @@ public class Order implements AggregateRoot<Long> {
     @Getter
     private Long id;
 
+    @Version
+    @Getter
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Getter
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
@@ -1,16 +1,29 @@
 package org.pedrcruz.backendarch.core.ordermanagement.domain.repositories;
 
+import jakarta.persistence.Tuple;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.Order;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.OrderStatus;
 import org.pedrcruz.backendarch.core.usermanagement.domain.model.User;
 import org.pedrcruz.backendarch.exceptions.NotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface OrderRepository {
 
+    /**
+     * Columns the projected {@link #forEachInPage(int, int, Collection, Consumer)} can select; the dates are
+     * unwrapped and {@code customerId} is the customer's id.
+     */
+    List<String> PROJECTABLE_COLUMNS = List.of("id", "version", "customerId", "status", "totalAmount", "orderDate",
+            "lastUpdatedDate", "notes");
+
     <S extends Order> List<S> saveAll(Iterable<S> entities);
 
     <S extends Order> S save(S entity);
@@ -23,8 +36,46 @@ public interface OrderRepository {
         return maybeOrder.orElseThrow(() -> new NotFoundException(Order.class, id));
     }
 
+    /**
+     * Like {@link #getById(Long)}, but fails with 412 Precondition Failed when the order is no longer at
+     * the version the client expects; a {@code null} version skips the check.
+     */
+    default Order getByIdAndVersion(final Long id, final Long version) {
+        final var order = getById(id);
+        if (version != null && !version.equals(order.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Resource has been modified by another user. Please refresh and try again.");
+        }
+        return order;
+    }
+
+    /**
+     * Current version of an order, read without loading the entity; empty if there is none.
+     */
+    Optional<Long> findVersionById(Long id);
+
     List<Order> findAll();
 
+    /**
+     * Passes the order entries of one page (1-based), by id, to {@code action} as they are read; each is detached
+     * from the persistence context once handled. Must run inside a transaction.
+     */
+    void forEachInPage(int page, int size, Consumer<Order> action);
+
+    /**
+     * Same page, selecting only {@code columns} (see {@link #PROJECTABLE_COLUMNS}) as tuples whose elements
+     * are aliased by column name.
+     */
+    void forEachInPage(int page, int size, Collection<String> columns, Consumer<Tuple> action);
+
+    /**
+     * Passes the orders placed between {@code from} and {@code to} (inclusive, either may be null), by id, to
+     * {@code action} in batches of up to {@code batchSize}, with their items and products loaded. Orders are
+     * read from a forward-only cursor and each batch is dropped from the persistence context once handled,
+     * so memory does not grow with the number of orders. Must run inside a transaction.
+     */
+    void forEachBatch(LocalDate from, LocalDate to, int batchSize, Consumer<List<Order>> action);
+
     List<Order> findByStatus(OrderStatus status);
 
     List<Order> findByCustomer(User customer);
@@ -80,4 +131,10 @@ public interface OrderRepository {
     long countByCustomerId(Long customerId);
 
     long countActiveOrders();
+
+    /**
+     * Total quantity ordered per product on orders placed since the given day and not cancelled, as
+     * {@code [productId, quantity]} rows.
+     */
+    List<Object[]> sumQuantityByProduct(LocalDate since);
 }
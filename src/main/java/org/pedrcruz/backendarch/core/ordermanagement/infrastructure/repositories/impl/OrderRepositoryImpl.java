@@ -1,22 +1,39 @@
 package org.pedrcruz.backendarch.core.ordermanagement.infrastructure.repositories.impl;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.Order;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.OrderStatus;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.repositories.OrderRepository;
 import org.pedrcruz.backendarch.core.usermanagement.domain.model.User;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class OrderRepositoryImpl implements OrderRepository {
 
     private final SpringDataOrderRepository springDataOrderRepository;
+    private final EntityManager entityManager;
 
-    public OrderRepositoryImpl(final SpringDataOrderRepository springDataOrderRepository) {
+    public OrderRepositoryImpl(final SpringDataOrderRepository springDataOrderRepository,
+                               final EntityManager entityManager) {
         this.springDataOrderRepository = springDataOrderRepository;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -34,11 +51,102 @@ public class OrderRepositoryImpl implements OrderRepository {
         return springDataOrderRepository.findById(objectId);
     }
 
+    @Override
+    public Optional<Long> findVersionById(final Long id) {
+        return springDataOrderRepository.findVersionById(id);
+    }
+
     @Override
     public List<Order> findAll() {
         return springDataOrderRepository.findAll();
     }
 
+    @Override
+    public void forEachInPage(final int page, final int size, final Consumer<Order> action) {
+        try (var rows = springDataOrderRepository.streamAllBy(PageRequest.of(page - 1, size, Sort.by("id")))) {
+            rows.forEach(row -> {
+                action.accept(row);
+                // handled: don't let the persistence context grow with the page
+                entityManager.detach(row);
+            });
+        }
+    }
+
+    @Override
+    public void forEachInPage(final int page, final int size, final Collection<String> columns,
+                              final Consumer<Tuple> action) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        final Root<Order> root = cq.from(Order.class);
+        cq.multiselect(columns.stream().<Selection<?>>map(column -> column(root, column).alias(column)).toList());
+        cq.orderBy(cb.asc(root.get("id")));
+
+        try (var rows = entityManager.createQuery(cq)
+                .setFirstResult((page - 1) * size)
+                .setMaxResults(size)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 100)
+                .getResultStream()) {
+            rows.forEach(action);
+        }
+    }
+
+    @Override
+    public void forEachBatch(final LocalDate from, final LocalDate to, final int batchSize,
+                             final Consumer<List<Order>> action) {
+        final var cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Order> cq = cb.createQuery(Order.class);
+        final Root<Order> root = cq.from(Order.class);
+        final Path<LocalDate> orderDate = root.get("orderDate").get("date");
+        final List<Predicate> where = new ArrayList<>();
+        if (from != null) {
+            where.add(cb.greaterThanOrEqualTo(orderDate, from));
+        }
+        if (to != null) {
+            where.add(cb.lessThanOrEqualTo(orderDate, to));
+        }
+        cq.where(where.toArray(new Predicate[0]));
+        cq.orderBy(cb.asc(root.get("id")));
+
+        final List<Order> batch = new ArrayList<>(batchSize);
+        // getResultStream scrolls forward-only; the fetch size keeps the driver from reading ahead further
+        try (var orders = entityManager.createQuery(cq)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, batchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            orders.forEach(order -> {
+                batch.add(order);
+                if (batch.size() == batchSize) {
+                    handleBatch(batch, action);
+                }
+            });
+        }
+        if (!batch.isEmpty()) {
+            handleBatch(batch, action);
+        }
+    }
+
+    private void handleBatch(final List<Order> batch, final Consumer<List<Order>> action) {
+        // initializes the items of the managed orders with one query for the batch instead of one per order
+        entityManager.createQuery("SELECT o FROM Order o LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.product "
+                        + "WHERE o IN :batch", Order.class)
+                .setParameter("batch", batch)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+        action.accept(List.copyOf(batch));
+        // nothing is written in this transaction; clearing also drops the customers and products loaded along
+        entityManager.clear();
+        batch.clear();
+    }
+
+    private static Path<?> column(final Root<Order> root, final String column) {
+        return switch (column) {
+            case "id", "version", "status", "totalAmount", "notes" -> root.get(column);
+            case "customerId" -> root.get("customer").get("id");
+            case "orderDate", "lastUpdatedDate" -> root.get(column).get("date");
+            default -> throw new IllegalArgumentException("Unknown order column: " + column);
+        };
+    }
+
     @Override
     public List<Order> findByStatus(final OrderStatus status) {
         return springDataOrderRepository.findByStatus(status);
@@ -178,4 +286,9 @@ public class OrderRepositoryImpl implements OrderRepository {
     public long countActiveOrders() {
         return springDataOrderRepository.countActiveOrders();
     }
+
+    @Override
+    public List<Object[]> sumQuantityByProduct(final LocalDate since) {
+        return springDataOrderRepository.sumQuantityByProduct(since);
+    }
 }
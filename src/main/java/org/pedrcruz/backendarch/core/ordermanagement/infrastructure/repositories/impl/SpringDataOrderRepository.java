@@ -1,19 +1,34 @@
 package org.pedrcruz.backendarch.core.ordermanagement.infrastructure.repositories.impl;
 
+import jakarta.persistence.QueryHint;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.Order;
 import org.pedrcruz.backendarch.core.ordermanagement.domain.model.OrderStatus;
 import org.pedrcruz.backendarch.core.usermanagement.domain.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface SpringDataOrderRepository extends JpaRepository<Order, Long> {
 
+    // a cursor rather than a result list; the fetch size keeps the driver from buffering the whole page
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "100"))
+    Stream<Order> streamAllBy(Pageable pageable);
+
     List<Order> findByStatus(OrderStatus status);
 
+    @Query("SELECT o.version FROM Order o WHERE o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
     List<Order> findByCustomer(User customer);
 
     List<Order> findByCustomerId(Long customerId);
@@ -70,4 +85,8 @@ public interface SpringDataOrderRepository extends JpaRepository<Order, Long> {
 
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status IN ('PENDING', 'CONFIRMED', 'PREPARING', 'READY')")
     long countActiveOrders();
+
+    @Query("SELECT i.product.id, SUM(i.quantity) FROM OrderItem i "
+            + "WHERE i.order.status <> 'CANCELLED' AND i.order.orderDate.date >= :since GROUP BY i.product.id")
+    List<Object[]> sumQuantityByProduct(@Param("since") LocalDate since);
 }
@@ -0,0 +1,177 @@
+package org.pedrcruz.backendarch.core.productmanagement.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.core.productmanagement.infrastructure.images.ProductImageStore;
+import org.pedrcruz.backendarch.core.productmanagement.infrastructure.images.ThumbnailCache;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves product images straight from disk.
+ * <p>
+ * Bodies are never copied through the heap: Tomcat's sendfile is used when the connector supports it,
+ * otherwise {@link FileChannel#transferTo} writes into the response. Single byte ranges, conditional
+ * requests (ETag and Last-Modified) and long-lived caching are supported.
+ */
+@Tag(name = "Product Images", description = "Product image originals and thumbnails")
+@RestController
+@RequestMapping("/api/public/images")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class ProductImageResource {
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(30)).cachePublic().getHeaderValue();
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ProductImageStore imageStore;
+    private final ThumbnailCache thumbnailCache;
+
+    @Operation(summary = "Get product image",
+            description = "Returns an image by file name, or a resized variant when a width is given")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Image returned"),
+        @ApiResponse(responseCode = "206", description = "Partial image returned for a Range request"),
+        @ApiResponse(responseCode = "304", description = "Image not modified"),
+        @ApiResponse(responseCode = "404", description = "Image not found"),
+        @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")
+    })
+    @GetMapping("/{name}")
+    public void getImage(
+            @Parameter(description = "Image file name") @PathVariable final String name,
+            @Parameter(description = "Thumbnail width in pixels (snapped to 64, 128, 256 or 512)")
+            @RequestParam(value = "w", required = false) @Min(1) final Integer width,
+            final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException {
+
+        final var original = imageStore.resolve(name);
+        final var file = width != null ? thumbnailCache.get(original, ThumbnailCache.snapWidth(width)) : original;
+
+        log.debug("Serving image {} ({})", name, file.getFileName());
+
+        serve(file, request, response);
+    }
+
+    private void serve(final Path file, final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        final var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        final long length = attributes.size();
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+        final var etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        final var ranges = requestedRanges(request, etag, lastModified);
+        if (ranges.size() == 1) {
+            try {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+            } catch (final IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        // multiple ranges are answered with the whole image, which RFC 9110 allows
+
+        final long count = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final var out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                final long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static List<HttpRange> requestedRanges(final HttpServletRequest request, final String etag, final long lastModified) {
+        final var range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null) {
+            return List.of();
+        }
+
+        // If-Range: only honour the range if the client's copy is still current
+        final var ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                return List.of();
+            }
+            try {
+                if (request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 != lastModified / 1000) {
+                    return List.of();
+                }
+            } catch (final IllegalArgumentException e) {
+                return List.of();
+            }
+        }
+
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (final IllegalArgumentException e) {
+            // malformed ranges are ignored and the whole image is returned
+            return List.of();
+        }
+    }
+}
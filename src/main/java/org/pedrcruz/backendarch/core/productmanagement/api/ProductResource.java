@@ -9,21 +9,35 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.pedrcruz.backendarch.api.dto.PagedResponse;
+import org.pedrcruz.backendarch.core.productmanagement.api.dto.FacetedProductResponse;
+import org.pedrcruz.backendarch.core.productmanagement.api.dto.ProductImportReport;
+import org.pedrcruz.backendarch.core.productmanagement.api.dto.ProductPriceResponse;
 import org.pedrcruz.backendarch.core.productmanagement.api.dto.ProductResponse;
 import org.pedrcruz.backendarch.core.productmanagement.api.dto.CreateProductRequest;
+import org.pedrcruz.backendarch.core.productmanagement.api.dto.SchedulePriceRequest;
 import org.pedrcruz.backendarch.core.productmanagement.api.dto.UpdateProductRequest;
 import org.pedrcruz.backendarch.core.productmanagement.api.mapper.ProductMapper;
+import org.pedrcruz.backendarch.core.productmanagement.application.ProductImportService;
 import org.pedrcruz.backendarch.core.productmanagement.application.ProductService;
 import org.pedrcruz.backendarch.core.productmanagement.application.SearchProductQuery;
+import org.pedrcruz.backendarch.core.productmanagement.domain.model.ProductPrice;
+import org.pedrcruz.backendarch.exceptions.NotFoundException;
 import org.pedrcruz.backendarch.pagination.Page;
+import org.pedrcruz.backendarch.util.api.AbstractResource;
+import org.pedrcruz.backendarch.util.api.FieldSelection;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -33,10 +47,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Validated
 @Slf4j
-public class ProductResource {
+public class ProductResource extends AbstractResource {
 
     private final ProductService productService;
     private final ProductMapper productMapper;
+    private final ProductImportService productImportService;
+    private final ProductResponseCache responses;
 
     @Operation(summary = "Create a new product", description = "Creates a new product with the provided information")
     @ApiResponses(value = {
@@ -63,53 +79,113 @@ public class ProductResource {
                 .body(org.pedrcruz.backendarch.api.dto.ApiResponse.created(response, "Product created successfully"));
     }
 
+    @Operation(summary = "Import products",
+            description = "Bulk-create products from a CSV file (with a header row) or NDJSON. Columns: name, description, price, categoryId or category (name), imageUrl, stockQuantity")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import processed; see the report for rows that failed"),
+        @ApiResponse(responseCode = "415", description = "Unsupported content type"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(value = { "products", "categories" }, allEntries = true)
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<ProductImportReport>> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) final String contentType,
+            final InputStream body) throws IOException {
+
+        final var format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+
+        log.info("Importing products from {} stream", format);
+
+        final var report = productImportService.importProducts(body, format);
+
+        log.info("Product import completed: {} imported, {} failed", report.getImported(), report.getFailed());
+
+        return ResponseEntity.ok(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(report, "Products imported")
+        );
+    }
+
     @Operation(summary = "Get all products", description = "Retrieve all products with optional filtering and pagination")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Catalog not modified"),
         @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
     })
     @GetMapping
-    @Cacheable(value = "products", key = "#page.toString() + '_' + (#query != null ? #query.toString() : 'all')")
     public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<PagedResponse<ProductResponse>>> getProducts(
             @Parameter(description = "Search query") final SearchProductQuery query,
-            @Parameter(description = "Pagination parameters") final Page page) {
+            @Parameter(description = "Pagination parameters") final Page page,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name,price,inStock; all when absent")
+            @RequestParam(required = false) final String fields,
+            final WebRequest request) {
+
+        // rejects unknown fields before anything is cached
+        FieldSelection.parse(fields, ProductMapper.FIELDS);
+        final var etag = responses.catalogEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
         log.debug("Retrieving products with query: {} and page: {}", query, page);
 
-        final var products = productService.searchProducts(query, page);
-        final var productResponses = products.stream()
-                .map(productMapper::toResponse)
-                .toList();
+        final var pagedResponse = responses.page(query, page, fields);
 
-        final var pagedResponse = PagedResponse.of(
-                productResponses,
-                page != null ? page.getNumber() : 0,
-                page != null ? page.getLimit() : productResponses.size(),
-                productResponses.size()
+        return ResponseEntity.ok().eTag(pagedResponse.etag()).body(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(pagedResponse.body(), "Products retrieved successfully")
         );
+    }
 
-        return ResponseEntity.ok(
-                org.pedrcruz.backendarch.api.dto.ApiResponse.success(pagedResponse, "Products retrieved successfully")
+    @Operation(summary = "Faceted product search",
+            description = "Search products and return the page, the total number of matches and counts per category and price band")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Catalog not modified"),
+        @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<FacetedProductResponse>> searchProducts(
+            @Parameter(description = "Search query") final SearchProductQuery query,
+            @Parameter(description = "Pagination parameters") @Valid final Page page,
+            final WebRequest request) {
+
+        final var etag = responses.catalogEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        log.debug("Faceted search with query: {} and page: {}", query, page);
+
+        final var response = responses.faceted(query, page);
+
+        return ResponseEntity.ok().eTag(response.etag()).body(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(response.body(), "Products retrieved successfully")
         );
     }
 
     @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Product found"),
+        @ApiResponse(responseCode = "304", description = "Product not modified"),
         @ApiResponse(responseCode = "404", description = "Product not found")
     })
     @GetMapping("/{id}")
-    @Cacheable(value = "products", key = "#id")
     public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<ProductResponse>> getProductById(
-            @Parameter(description = "Product ID") @PathVariable final Long id) {
+            @Parameter(description = "Product ID") @PathVariable final Long id,
+            final WebRequest request) {
+
+        if (checkNotModified(request, () -> productService.findVersion(id).map(version -> productEtag(id, version)))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
 
         log.debug("Retrieving product with ID: {}", id);
 
-        final var product = productService.getById(id);
-        final var response = productMapper.toResponse(product);
+        final var response = responses.byId(id);
 
-        return ResponseEntity.ok(
-                org.pedrcruz.backendarch.api.dto.ApiResponse.success(response, "Product retrieved successfully")
+        return ResponseEntity.ok().eTag(response.etag()).body(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(response.body(), "Product retrieved successfully")
         );
     }
 
@@ -118,14 +194,16 @@ public class ProductResource {
         @ApiResponse(responseCode = "200", description = "Product updated successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
         @ApiResponse(responseCode = "404", description = "Product not found"),
-        @ApiResponse(responseCode = "403", description = "Access denied")
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "412", description = "Product changed since the version in If-Match")
     })
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @CacheEvict(value = "products", allEntries = true)
     public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<ProductResponse>> updateProduct(
             @Parameter(description = "Product ID") @PathVariable final Long id,
-            @Valid @RequestBody final UpdateProductRequest request) {
+            @Valid @RequestBody final UpdateProductRequest request,
+            final WebRequest webRequest) {
 
         log.info("Updating product with ID: {}", id);
 
@@ -137,30 +215,34 @@ public class ProductResource {
         createRequest.setImageUrl(request.getImageUrl());
         createRequest.setStockQuantity(request.getStockQuantity());
 
-        final var product = productService.editProduct(id, createRequest);
+        final var product = productService.editProduct(id, createRequest, getOptionalIfMatchVersion(webRequest));
 
+        final var etag = productEtag(id, product.getVersion());
         final var response = productMapper.toResponse(product);
 
         log.info("Product updated successfully with ID: {}", id);
 
-        return ResponseEntity.ok(org.pedrcruz.backendarch.api.dto.ApiResponse.success(response, "Product updated successfully"));
+        return ResponseEntity.ok().eTag(etag)
+                .body(org.pedrcruz.backendarch.api.dto.ApiResponse.success(response, "Product updated successfully"));
     }
 
     @Operation(summary = "Delete product", description = "Soft delete a product (deactivate)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Product deleted successfully"),
         @ApiResponse(responseCode = "404", description = "Product not found"),
-        @ApiResponse(responseCode = "403", description = "Access denied")
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "412", description = "Product changed since the version in If-Match")
     })
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @CacheEvict(value = "products", allEntries = true)
     public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<Void>> deleteProduct(
-            @Parameter(description = "Product ID") @PathVariable final Long id) {
+            @Parameter(description = "Product ID") @PathVariable final Long id,
+            final WebRequest webRequest) {
 
         log.info("Deleting product with ID: {}", id);
 
-        productService.deleteProduct(id);
+        productService.deleteProduct(id, getOptionalIfMatchVersion(webRequest));
 
         log.info("Product deleted successfully with ID: {}", id);
 
@@ -173,62 +255,141 @@ public class ProductResource {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Stock updated successfully"),
         @ApiResponse(responseCode = "404", description = "Product not found"),
-        @ApiResponse(responseCode = "403", description = "Access denied")
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "412", description = "Product changed since the version in If-Match")
     })
     @PatchMapping("/{id}/stock")
     @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
     @CacheEvict(value = "products", allEntries = true)
     public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<ProductResponse>> updateStock(
             @Parameter(description = "Product ID") @PathVariable final Long id,
-            @Parameter(description = "New stock quantity") @RequestParam final int quantity) {
+            @Parameter(description = "New stock quantity") @RequestParam final int quantity,
+            final WebRequest webRequest) {
 
         log.info("Updating stock for product ID: {} to quantity: {}", id, quantity);
 
-        final var product = productService.updateStock(id, quantity);
+        final var product = productService.updateStock(id, quantity, getOptionalIfMatchVersion(webRequest));
+        final var etag = productEtag(id, product.getVersion());
         final var response = productMapper.toResponse(product);
 
         log.info("Stock updated successfully for product ID: {}", id);
 
-        return ResponseEntity.ok(
+        return ResponseEntity.ok().eTag(etag).body(
                 org.pedrcruz.backendarch.api.dto.ApiResponse.success(response, "Stock updated successfully")
         );
     }
 
-    @Operation(summary = "Get active products", description = "Retrieve only active products")
-    @GetMapping("/active")
-    @Cacheable(value = "products", key = "'active'")
-    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<List<ProductResponse>>> getActiveProducts() {
+    @Operation(summary = "Set or schedule product price",
+            description = "Appends a price to the product's history; a future validFrom schedules the change")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Price recorded"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "404", description = "Product not found"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PostMapping("/{id}/prices")
+    @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(value = "products", allEntries = true)
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<ProductPriceResponse>> schedulePrice(
+            @Parameter(description = "Product ID") @PathVariable final Long id,
+            @Valid @RequestBody final SchedulePriceRequest request) {
 
-        log.debug("Retrieving active products");
+        log.info("Recording price {} for product ID: {} from {}", request.getPrice(), id, request.getValidFrom());
 
-        final var products = productService.findActiveProducts();
-        final var productResponses = products.stream()
-                .map(productMapper::toResponse)
+        final var price = productService.schedulePrice(id, request.getPrice(), request.getValidFrom());
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(org.pedrcruz.backendarch.api.dto.ApiResponse.created(toPriceResponse(price), "Price recorded successfully"));
+    }
+
+    @Operation(summary = "Get product price history", description = "Retrieve every recorded price of a product, oldest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Price history retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    @GetMapping("/{id}/prices")
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<List<ProductPriceResponse>>> getPriceHistory(
+            @Parameter(description = "Product ID") @PathVariable final Long id) {
+
+        log.debug("Retrieving price history for product ID: {}", id);
+
+        final var prices = productService.getPriceHistory(id).stream()
+                .map(ProductResource::toPriceResponse)
                 .toList();
 
         return ResponseEntity.ok(
-                org.pedrcruz.backendarch.api.dto.ApiResponse.success(productResponses, "Active products retrieved successfully")
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(prices, "Price history retrieved successfully")
         );
     }
 
-    @Operation(summary = "Get products by category", description = "Retrieve products by category ID")
-    @GetMapping("/category/{categoryId}")
-    @Cacheable(value = "products", key = "'category_' + #categoryId")
-    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<List<ProductResponse>>> getProductsByCategory(
-            @Parameter(description = "Category ID") @PathVariable final Long categoryId) {
+    @Operation(summary = "Get product price at an instant", description = "Retrieve the price that applied (or will apply) at the given instant; defaults to now")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Price retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Product not found or no price at that instant")
+    })
+    @GetMapping("/{id}/price")
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<ProductPriceResponse>> getPriceAt(
+            @Parameter(description = "Product ID") @PathVariable final Long id,
+            @Parameter(description = "Instant (ISO-8601)") @RequestParam(required = false) final Instant at) {
 
-        log.debug("Retrieving products for category ID: {}", categoryId);
+        final var instant = at != null ? at : Instant.now();
+        // products without any history are at their current price, with no known start
+        final var response = productService.getPriceEntryAt(id, instant)
+                .map(ProductResource::toPriceResponse)
+                .or(() -> productService.getPriceAt(id, instant)
+                        .map(p -> ProductPriceResponse.builder().productId(id).price(p).build()))
+                .orElseThrow(() -> new NotFoundException("No price for product " + id + " at " + instant));
 
-        final var products = productService.findAll().stream()
-                .filter(p -> p.getCategory().getId().equals(categoryId))
-                .collect(Collectors.toList());
+        return ResponseEntity.ok(org.pedrcruz.backendarch.api.dto.ApiResponse.success(response, "Price retrieved successfully"));
+    }
 
-        final var productResponses = products.stream()
-                .map(productMapper::toResponse)
-                .toList();
+    @Operation(summary = "Get active products", description = "Retrieve only active products")
+    @GetMapping("/active")
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<List<ProductResponse>>> getActiveProducts(
+            final WebRequest request) {
 
-        return ResponseEntity.ok(
-                org.pedrcruz.backendarch.api.dto.ApiResponse.success(productResponses, "Products retrieved successfully")
+        final var etag = responses.catalogEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        log.debug("Retrieving active products");
+
+        final var productResponses = responses.active();
+
+        return ResponseEntity.ok().eTag(productResponses.etag()).body(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(productResponses.body(), "Active products retrieved successfully")
+        );
+    }
+
+    @Operation(summary = "Get products by category",
+            description = "Retrieve a page of products of a category, optionally including every descendant category")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Catalog not modified"),
+        @ApiResponse(responseCode = "404", description = "Category not found")
+    })
+    @GetMapping("/category/{categoryId}")
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<PagedResponse<ProductResponse>>> getProductsByCategory(
+            @Parameter(description = "Category ID") @PathVariable final Long categoryId,
+            @Parameter(description = "Include products of subcategories") @RequestParam(defaultValue = "false") final boolean includeDescendants,
+            @Parameter(description = "Pagination parameters") @Valid final Page page,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name,price,inStock; all when absent")
+            @RequestParam(required = false) final String fields,
+            final WebRequest request) {
+
+        FieldSelection.parse(fields, ProductMapper.FIELDS);
+        final var etag = responses.catalogEtag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        log.debug("Retrieving products for category ID: {} (includeDescendants={})", categoryId, includeDescendants);
+
+        final var pagedResponse = responses.byCategory(categoryId, includeDescendants, page, fields);
+
+        return ResponseEntity.ok().eTag(pagedResponse.etag()).body(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(pagedResponse.body(), "Products retrieved successfully")
         );
     }
 
@@ -251,4 +412,16 @@ public class ProductResource {
                 org.pedrcruz.backendarch.api.dto.ApiResponse.success(productResponses, "Low stock products retrieved successfully")
         );
     }
+
+    private String productEtag(final Long id, final long version) {
+        return responses.productEtag(id, version);
+    }
+
+    private static ProductPriceResponse toPriceResponse(final ProductPrice price) {
+        return ProductPriceResponse.builder()
+                .productId(price.getProductId())
+                .price(price.getPrice())
+                .validFrom(price.getValidFrom())
+                .build();
+    }
 }
@@ -0,0 +1,155 @@
+package org.pedrcruz.backendarch.core.productmanagement.api;
+
+import lombok.RequiredArgsConstructor;
+import org.pedrcruz.backendarch.api.dto.PagedResponse;
+import org.pedrcruz.backendarch.core.catalogmanagement.application.CatalogChangeLog;
+import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryService;
+import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryTreeSnapshot;
+import org.pedrcruz.backendarch.core.inventorymanagement.application.InventoryService;
+import org.pedrcruz.backendarch.core.productmanagement.api.dto.FacetedProductResponse;
+import org.pedrcruz.backendarch.core.productmanagement.api.dto.ProductResponse;
+import org.pedrcruz.backendarch.core.productmanagement.api.mapper.ProductMapper;
+import org.pedrcruz.backendarch.core.productmanagement.application.ProductService;
+import org.pedrcruz.backendarch.core.productmanagement.application.SearchProductQuery;
+import org.pedrcruz.backendarch.pagination.Page;
+import org.pedrcruz.backendarch.util.api.FieldSelection;
+import org.pedrcruz.backendarch.util.api.Tagged;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.pedrcruz.backendarch.util.api.AbstractResource.etagOf;
+
+/**
+ * Cached bodies of the product read endpoints, each with the tag of the state it was built from.
+ * <p>
+ * Kept apart from {@link ProductResource} so that no cached call takes the request: the "products" cache
+ * may re-run a call on a refresh thread after the request that first made it has completed. Conditional
+ * requests are answered by the resource before it gets here, and the response is built per request.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductResponseCache {
+
+    private final ProductService productService;
+    private final ProductMapper productMapper;
+    private final CategoryService categoryService;
+    private final CatalogChangeLog catalogChangeLog;
+    private final CategoryTreeSnapshot categoryTree;
+    private final InventoryService inventoryService;
+
+    @Cacheable(value = "products", key = "#page.toString() + '_' + (#query != null ? #query.toString() : 'all') + '_' + #fields",
+            sync = true)
+    public Tagged<PagedResponse<ProductResponse>> page(final SearchProductQuery query, final Page page, final String fields) {
+        // read before loading, so the tag is never newer than the body
+        final var etag = catalogEtag();
+        final var productResponses = pageOf(query, page, FieldSelection.parse(fields, ProductMapper.FIELDS));
+
+        return new Tagged<>(etag, PagedResponse.of(
+                productResponses,
+                page != null ? page.getNumber() : 0,
+                page != null ? page.getLimit() : productResponses.size(),
+                productService.countProducts(query)
+        ));
+    }
+
+    @Cacheable(value = "products", key = "'faceted_' + #page.toString() + '_' + (#query != null ? #query.toString() : 'all')", sync = true)
+    public Tagged<FacetedProductResponse> faceted(final SearchProductQuery query, final Page page) {
+        final var etag = catalogEtag();
+        final var products = productService.searchProducts(query, page);
+        final var facets = productService.facetProducts(query);
+
+        final var pagedResponse = PagedResponse.of(
+                products.stream().map(productMapper::toResponse).toList(),
+                page.getNumber(),
+                page.getLimit(),
+                facets.getTotal()
+        );
+
+        return new Tagged<>(etag, FacetedProductResponse.builder()
+                .products(pagedResponse)
+                .categories(facets.getCategories().stream()
+                        .map(c -> FacetedProductResponse.CategoryFacet.builder()
+                                .categoryId(c.getCategoryId())
+                                .categoryName(c.getCategoryName())
+                                .count(c.getCount())
+                                .build())
+                        .toList())
+                .priceBands(facets.getPriceBands().stream()
+                        .map(b -> FacetedProductResponse.PriceBandFacet.builder()
+                                .from(b.getFrom())
+                                .to(b.getTo())
+                                .count(b.getCount())
+                                .build())
+                        .toList())
+                .build());
+    }
+
+    // prefixed: the repository caches its entities under the bare id in the same cache
+    @Cacheable(value = "products", key = "'item_' + #id", sync = true)
+    public Tagged<ProductResponse> byId(final Long id) {
+        final var product = productService.getById(id);
+        final var etag = productEtag(id, product.getVersion());
+        return new Tagged<>(etag, productMapper.toResponse(product));
+    }
+
+    @Cacheable(value = "products", key = "'active'", sync = true)
+    public Tagged<List<ProductResponse>> active() {
+        final var etag = catalogEtag();
+        return new Tagged<>(etag, productService.findActiveProducts().stream()
+                .map(productMapper::toResponse)
+                .toList());
+    }
+
+    @Cacheable(value = "products", key = "'category_' + #categoryId + '_' + #includeDescendants + '_' + #page.toString() + '_' + #fields",
+            sync = true)
+    public Tagged<PagedResponse<ProductResponse>> byCategory(final Long categoryId, final boolean includeDescendants,
+                                                             final Page page, final String fields) {
+        final var etag = catalogEtag();
+        final var query = new SearchProductQuery();
+        query.setCategoryIds(includeDescendants ? categoryService.findSubtreeIds(categoryId) : List.of(categoryId));
+
+        final var productResponses = pageOf(query, page, FieldSelection.parse(fields, ProductMapper.FIELDS));
+
+        return new Tagged<>(etag, PagedResponse.of(
+                productResponses,
+                page.getNumber(),
+                page.getLimit(),
+                productService.countProducts(query)
+        ));
+    }
+
+    /**
+     * A product response also shows its category name and inventory figures, which change without the
+     * product version moving, so the tag carries the category tree and inventory entry versions too. Built
+     * before mapping, so the tag is never newer than the body it goes with.
+     */
+    public String productEtag(final Long id, final long version) {
+        final var inventoryVersion = inventoryService.findVersionByProductId(id).map(String::valueOf).orElse("none");
+        return etagOf(version, categoryTree.currentVersion() + "." + inventoryVersion);
+    }
+
+    /**
+     * Lists change whenever any product or category does, so they are tagged with the catalog version;
+     * inventory writes are recorded as changes of their product, as listings show inventory figures too.
+     */
+    public String catalogEtag() {
+        return etagOf(catalogChangeLog.currentVersion());
+    }
+
+    /**
+     * One page of products as responses. With a field selection only the needed columns are queried and
+     * the inventory is looked up only for inventory fields.
+     */
+    private List<ProductResponse> pageOf(final SearchProductQuery query, final Page page, final FieldSelection fields) {
+        if (fields.isAll()) {
+            return productService.searchProducts(query, page).stream()
+                    .map(productMapper::toResponse)
+                    .toList();
+        }
+        return productService.searchProductColumns(query, page, productMapper.columnsFor(fields)).stream()
+                .map(row -> productMapper.toResponse(row, fields))
+                .toList();
+    }
+}
@@ -0,0 +1,58 @@
+package org.pedrcruz.backendarch.core.productmanagement.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.core.productmanagement.api.dto.SuggestionResponse;
+import org.pedrcruz.backendarch.core.productmanagement.application.SuggestionIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name = "Suggestions", description = "Typeahead over product and category names")
+@RestController
+@RequestMapping("/api/suggest")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class SuggestResource {
+
+    private final SuggestionIndex suggestionIndex;
+
+    @Operation(summary = "Suggest names", description = "Returns the most ordered active products and categories whose name starts with the given prefix")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    @GetMapping
+    public ResponseEntity<org.pedrcruz.backendarch.api.dto.ApiResponse<List<SuggestionResponse>>> suggest(
+            @Parameter(description = "Name prefix") @RequestParam("q") final String prefix,
+            @Parameter(description = "Maximum number of suggestions") @RequestParam(defaultValue = "10") @Min(1) @Max(50) final int limit) {
+
+        log.debug("Suggesting names for prefix: {}", prefix);
+
+        final var suggestions = suggestionIndex.suggest(prefix, limit).stream()
+                .map(e -> SuggestionResponse.builder()
+                        .type(e.kind().name())
+                        .id(e.id())
+                        .name(e.name())
+                        .weight(e.weight())
+                        .build())
+                .toList();
+
+        return ResponseEntity.ok(
+                org.pedrcruz.backendarch.api.dto.ApiResponse.success(suggestions, "Suggestions retrieved successfully")
+        );
+    }
+}
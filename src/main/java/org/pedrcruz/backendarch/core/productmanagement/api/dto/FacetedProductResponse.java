@@ -0,0 +1,35 @@
+package org.pedrcruz.backendarch.core.productmanagement.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import org.pedrcruz.backendarch.api.dto.PagedResponse;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+public class FacetedProductResponse {
+
+    private PagedResponse<ProductResponse> products;
+
+    // Facet counts over every product matching the query, not just the current page
+    private List<CategoryFacet> categories;
+    private List<PriceBandFacet> priceBands;
+
+    @Data
+    @Builder
+    public static class CategoryFacet {
+        private Long categoryId;
+        private String categoryName;
+        private long count;
+    }
+
+    @Data
+    @Builder
+    public static class PriceBandFacet {
+        private BigDecimal from;
+        private BigDecimal to;
+        private long count;
+    }
+}
@@ -0,0 +1,27 @@
+package org.pedrcruz.backendarch.core.productmanagement.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ProductImportReport {
+
+    private long totalRows;
+    private long imported;
+    private long failed;
+
+    // only the first errors are kept so the report stays small for very large files
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
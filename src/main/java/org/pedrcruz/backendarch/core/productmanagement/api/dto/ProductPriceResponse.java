@@ -0,0 +1,16 @@
+package org.pedrcruz.backendarch.core.productmanagement.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+public class ProductPriceResponse {
+
+    private Long productId;
+    private BigDecimal price;
+    private Instant validFrom;
+}
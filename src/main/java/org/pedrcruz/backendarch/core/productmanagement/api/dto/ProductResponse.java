@@ -16,10 +16,11 @@ public class ProductResponse {
     private String description;
     private BigDecimal price;
     private String imageUrl;
-    private int stockQuantity;
-    private boolean active;
-    private boolean inStock;
-    private boolean lowStock;
+    // wrappers so fields left out of a ?fields= selection are omitted rather than written as 0/false
+    private Integer stockQuantity;
+    private Boolean active;
+    private Boolean inStock;
+    private Boolean lowStock;
 
     // Category information
     private Long categoryId;
@@ -0,0 +1,23 @@
+package org.pedrcruz.backendarch.core.productmanagement.api.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+public class SchedulePriceRequest {
+
+    @NotNull(message = "Price is required")
+    @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+    @DecimalMax(value = "999.99", message = "Price must be less than 1000")
+    @Digits(integer = 3, fraction = 2, message = "Price must have at most 3 integer digits and 2 decimal places")
+    private BigDecimal price;
+
+    // when the price takes effect; omitted or past means immediately
+    private Instant validFrom;
+}
@@ -0,0 +1,14 @@
+package org.pedrcruz.backendarch.core.productmanagement.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SuggestionResponse {
+
+    private String type;
+    private Long id;
+    private String name;
+    private long weight;
+}
@@ -1,5 +1,7 @@
 package org.pedrcruz.backendarch.core.productmanagement.api.mapper;
 
+import jakarta.persistence.Tuple;
+import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryTreeSnapshot;
 import org.pedrcruz.backendarch.core.categorymanagement.domain.repositories.CategoryRepository;
 import org.pedrcruz.backendarch.core.domain.Word;
 import org.pedrcruz.backendarch.core.inventorymanagement.application.InventoryService;
@@ -7,19 +9,38 @@ import org.pedrcruz.backendarch.core.productmanagement.api.dto.CreateProductRequ
 import org.pedrcruz.backendarch.core.productmanagement.api.dto.ProductResponse;
 import org.pedrcruz.backendarch.core.productmanagement.api.dto.UpdateProductRequest;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
+import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductRepository;
+import org.pedrcruz.backendarch.util.api.FieldSelection;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @Component
 public class ProductMapper {
 
+    /**
+     * Fields of {@link ProductResponse} a client can select with {@code ?fields=}.
+     */
+    public static final List<String> FIELDS = List.of("id", "name", "description", "price", "imageUrl",
+            "stockQuantity", "active", "inStock", "lowStock", "categoryId", "categoryName", "registrationDate",
+            "lastActivityChangeDate", "inventoryQuantity", "minimumStockLevel", "needsReorder");
+
+    private static final int LOW_STOCK_THRESHOLD = 10;
+
     private final CategoryRepository categoryRepository;
     private final InventoryService inventoryService;
+    private final CategoryTreeSnapshot categoryTree;
 
-    public ProductMapper(CategoryRepository categoryRepository, InventoryService inventoryService) {
+    public ProductMapper(CategoryRepository categoryRepository, InventoryService inventoryService,
+                         CategoryTreeSnapshot categoryTree) {
         this.categoryRepository = categoryRepository;
         this.inventoryService = inventoryService;
+        this.categoryTree = categoryTree;
     }
 
     public ProductResponse toResponse(Product product) {
@@ -36,14 +57,17 @@ public class ProductMapper {
                 .stockQuantity(product.getStockQuantity())
                 .active(product.isActive())
                 .inStock(product.getStockQuantity() > 0)
-                .lowStock(product.getStockQuantity() < 10) // Define low stock threshold
+                .lowStock(product.getStockQuantity() < LOW_STOCK_THRESHOLD)
                 .registrationDate(convertToLocalDateTime(product.getRegistrationDate()))
                 .lastActivityChangeDate(convertToLocalDateTime(product.getLastActivityChangeDate()));
 
-        // Add category information
+        // Add category information; the name comes from the category tree so the lazy category is not loaded
         if (product.getCategory() != null) {
-            builder.categoryId(product.getCategory().getId())
-                   .categoryName(product.getCategory().getName().getWord());
+            final var categoryId = product.getCategory().getId();
+            builder.categoryId(categoryId)
+                   .categoryName(categoryTree.find(categoryId)
+                           .map(CategoryTreeSnapshot.CategoryNode::name)
+                           .orElseGet(() -> product.getCategory().getName().getWord()));
         }
 
         // Add inventory information if available
@@ -62,6 +86,69 @@ public class ProductMapper {
         return builder.build();
     }
 
+    /**
+     * Columns to select from {@link ProductRepository#PROJECTABLE_COLUMNS} to answer {@code fields}.
+     */
+    public Set<String> columnsFor(FieldSelection fields) {
+        Set<String> columns = new LinkedHashSet<>();
+        for (String field : fields.fields()) {
+            switch (field) {
+                case "inStock", "lowStock" -> columns.add("stockQuantity");
+                // looked up by product id
+                case "inventoryQuantity", "minimumStockLevel", "needsReorder" -> columns.add("id");
+                default -> columns.add(field);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Builds a response holding only the selected fields from a row selected with {@link #columnsFor}; the
+     * inventory is looked up only when one of its fields is selected.
+     */
+    public ProductResponse toResponse(Tuple row, FieldSelection fields) {
+        var builder = ProductResponse.builder();
+        var columns = columnsFor(fields);
+        Integer stockQuantity = columns.contains("stockQuantity") ? row.get("stockQuantity", Integer.class) : null;
+        for (String field : fields.fields()) {
+            switch (field) {
+                case "id" -> builder.id(row.get("id", Long.class));
+                case "name" -> builder.name(row.get("name", String.class));
+                case "description" -> builder.description(row.get("description", String.class));
+                case "price" -> builder.price(row.get("price", BigDecimal.class));
+                case "imageUrl" -> builder.imageUrl(row.get("imageUrl", String.class));
+                case "stockQuantity" -> builder.stockQuantity(stockQuantity);
+                case "active" -> builder.active(row.get("active", Boolean.class));
+                case "inStock" -> builder.inStock(stockQuantity > 0);
+                case "lowStock" -> builder.lowStock(stockQuantity < LOW_STOCK_THRESHOLD);
+                case "categoryId" -> builder.categoryId(row.get("categoryId", Long.class));
+                case "categoryName" -> builder.categoryName(row.get("categoryName", String.class));
+                case "registrationDate" -> builder.registrationDate(atStartOfDay(row.get("registrationDate", LocalDate.class)));
+                case "lastActivityChangeDate" ->
+                        builder.lastActivityChangeDate(atStartOfDay(row.get("lastActivityChangeDate", LocalDate.class)));
+                default -> {
+                    // inventory fields, below
+                }
+            }
+        }
+
+        if (fields.includesAny("inventoryQuantity", "minimumStockLevel", "needsReorder")) {
+            inventoryService.findByProductId(row.get("id", Long.class)).ifPresent(inv -> {
+                if (fields.includes("inventoryQuantity")) {
+                    builder.inventoryQuantity(inv.getCurrentQuantity());
+                }
+                if (fields.includes("minimumStockLevel")) {
+                    builder.minimumStockLevel(inv.getMinimumStockLevel());
+                }
+                if (fields.includes("needsReorder")) {
+                    builder.needsReorder(inv.isAtReorderPoint());
+                }
+            });
+        }
+
+        return builder.build();
+    }
+
     public Product toEntity(CreateProductRequest request) {
         if (request == null) {
             return null;
@@ -111,9 +198,13 @@ public class ProductMapper {
     }
 
     private LocalDateTime convertToLocalDateTime(org.pedrcruz.backendarch.core.domain.Date date) {
-        if (date == null || date.date() == null) {
+        if (date == null) {
             return null;
         }
-        return date.date().atStartOfDay();
+        return atStartOfDay(date.date());
+    }
+
+    private static LocalDateTime atStartOfDay(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
     }
 }
@@ -0,0 +1,83 @@
+package org.pedrcruz.backendarch.core.productmanagement.application;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Total and facet counts for the products matching a {@link SearchProductQuery}.
+ */
+@Value
+public class ProductFacets {
+
+    /**
+     * Lower bounds of the price bands; the last band is open ended.
+     */
+    public static final List<BigDecimal> PRICE_BAND_BOUNDS = List.of(
+            BigDecimal.ZERO, new BigDecimal("5"), new BigDecimal("10"), new BigDecimal("20"), new BigDecimal("50"));
+
+    long total;
+    List<CategoryCount> categories;
+    List<PriceBandCount> priceBands;
+
+    @Value
+    public static class CategoryCount {
+        Long categoryId;
+        String categoryName;
+        long count;
+    }
+
+    @Value
+    public static class PriceBandCount {
+        BigDecimal from;
+        BigDecimal to;
+        long count;
+    }
+
+    /**
+     * Folds {@code [categoryId, categoryName, price, count]} rows into the total and both facets.
+     */
+    public static ProductFacets fromRows(final List<Object[]> rows) {
+        final Map<Long, String> names = new LinkedHashMap<>();
+        final Map<Long, Long> perCategory = new LinkedHashMap<>();
+        final long[] perBand = new long[PRICE_BAND_BOUNDS.size()];
+        long total = 0;
+
+        for (final Object[] row : rows) {
+            final var categoryId = (Long) row[0];
+            final var price = (BigDecimal) row[2];
+            final long count = ((Number) row[3]).longValue();
+
+            names.putIfAbsent(categoryId, (String) row[1]);
+            perCategory.merge(categoryId, count, Long::sum);
+            perBand[bandOf(price)] += count;
+            total += count;
+        }
+
+        final List<CategoryCount> categories = new ArrayList<>();
+        perCategory.forEach((id, count) -> categories.add(new CategoryCount(id, names.get(id), count)));
+        categories.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+
+        final List<PriceBandCount> priceBands = new ArrayList<>();
+        for (int i = 0; i < perBand.length; i++) {
+            final var to = i + 1 < PRICE_BAND_BOUNDS.size() ? PRICE_BAND_BOUNDS.get(i + 1) : null;
+            priceBands.add(new PriceBandCount(PRICE_BAND_BOUNDS.get(i), to, perBand[i]));
+        }
+
+        return new ProductFacets(total, categories, priceBands);
+    }
+
+    private static int bandOf(final BigDecimal price) {
+        int band = 0;
+        for (int i = 1; i < PRICE_BAND_BOUNDS.size(); i++) {
+            if (price.compareTo(PRICE_BAND_BOUNDS.get(i)) >= 0) {
+                band = i;
+            }
+        }
+        return band;
+    }
+}
@@ -0,0 +1,338 @@
+package org.pedrcruz.backendarch.core.productmanagement.application;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.core.catalogmanagement.application.CatalogChangeLog;
+import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryProductCounts;
+import org.pedrcruz.backendarch.core.categorymanagement.domain.model.Category;
+import org.pedrcruz.backendarch.core.categorymanagement.domain.repositories.CategoryRepository;
+import org.pedrcruz.backendarch.core.domain.ActivityStatus;
+import org.pedrcruz.backendarch.core.domain.Word;
+import org.pedrcruz.backendarch.core.productmanagement.api.dto.CreateProductRequest;
+import org.pedrcruz.backendarch.core.productmanagement.api.dto.ProductImportReport;
+import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
+import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON product file into the database.
+ * <p>
+ * Rows are read one at a time, validated with the same rules as {@code POST /api/products}, and written
+ * in chunks, each chunk in its own transaction and flushed as JDBC batches. Categories are resolved once
+ * per distinct id or name for the whole import. If a chunk fails (e.g. a duplicate name) its rows are
+ * retried one by one so only the offending rows are reported. Memory use does not grow with file size
+ * beyond the capped error list and the category map.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final SuggestionIndex suggestionIndex;
+    private final CatalogChangeLog catalogChangeLog;
+    private final ProductPriceHistory priceHistory;
+    private final CategoryProductCounts productCounts;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ProductImportService(final ProductRepository productRepository,
+                                final CategoryRepository categoryRepository,
+                                final SuggestionIndex suggestionIndex,
+                                final CatalogChangeLog catalogChangeLog,
+                                final ProductPriceHistory priceHistory,
+                                final CategoryProductCounts productCounts,
+                                final Validator validator,
+                                final ObjectMapper objectMapper,
+                                final PlatformTransactionManager transactionManager,
+                                @Value("${product.import.chunk-size:500}") final int chunkSize) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.suggestionIndex = suggestionIndex;
+        this.catalogChangeLog = catalogChangeLog;
+        this.priceHistory = priceHistory;
+        this.productCounts = productCounts;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * A validated row. Products are instantiated per insert attempt, since a rolled back persist leaves
+     * its generated id on the instance.
+     */
+    private record Row(long line, Word name, Word description, BigDecimal price, Category category,
+                       String imageUrl, int stockQuantity) {
+
+        Product newProduct() {
+            return new Product(name, description, price, category, imageUrl, stockQuantity);
+        }
+    }
+
+    /**
+     * Mutable counters for one import run.
+     */
+    private static final class Progress {
+        long totalRows;
+        long imported;
+        long failed;
+        final List<ProductImportReport.RowError> errors = new ArrayList<>();
+        boolean errorsTruncated;
+
+        void fail(final long line, final String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportReport.RowError(line, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+
+    public ProductImportReport importProducts(final InputStream input, final Format format) throws IOException {
+        final var progress = new Progress();
+        final Map<String, Optional<Category>> categories = new HashMap<>();
+        final List<Row> chunk = new ArrayList<>(chunkSize);
+
+        try (var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && header == null) {
+                    header = parseCsvLine(line).stream()
+                            .map(h -> h.trim().toLowerCase(Locale.ROOT))
+                            .toList();
+                    continue;
+                }
+
+                progress.totalRows++;
+                try {
+                    final var fields = format == Format.CSV ? csvFields(header, line) : jsonFields(line);
+                    chunk.add(toRow(lineNumber, fields, categories));
+                } catch (final IllegalArgumentException e) {
+                    progress.fail(lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    write(chunk, progress);
+                }
+            }
+        }
+        write(chunk, progress);
+
+        if (progress.imported > 0) {
+            suggestionIndex.rebuild();
+        }
+        log.info("Product import finished: {} rows, {} imported, {} failed",
+                progress.totalRows, progress.imported, progress.failed);
+
+        return ProductImportReport.builder()
+                .totalRows(progress.totalRows)
+                .imported(progress.imported)
+                .failed(progress.failed)
+                .errors(progress.errors)
+                .errorsTruncated(progress.errorsTruncated)
+                .build();
+    }
+
+    private void write(final List<Row> chunk, final Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(chunk));
+            progress.imported += chunk.size();
+        } catch (final RuntimeException chunkFailure) {
+            log.debug("Import chunk failed, retrying row by row", chunkFailure);
+            for (final var row : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row)));
+                    progress.imported++;
+                } catch (final RuntimeException e) {
+                    progress.fail(row.line(), rootMessage(e));
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private void insert(final List<Row> rows) {
+        final var products = rows.stream().map(Row::newProduct).toList();
+        productRepository.insertBatch(products);
+        priceHistory.recordInitial(products);
+        productCounts.productsAdded(rows.stream().map(Row::category).filter(Objects::nonNull).map(Category::getId).toList());
+        catalogChangeLog.productsChanged(products.stream().map(Product::getId).toList());
+    }
+
+    private Row toRow(final long line, final Map<String, String> fields, final Map<String, Optional<Category>> categories) {
+        final var request = new CreateProductRequest();
+        request.setName(fields.get("name"));
+        request.setDescription(fields.get("description"));
+        request.setImageUrl(emptyToNull(fields.get("imageurl")));
+        request.setPrice(parse(fields.get("price"), BigDecimal::new, "price"));
+        final Integer stock = parse(fields.get("stockquantity"), Integer::valueOf, "stockQuantity");
+        request.setStockQuantity(stock != null ? stock : 0);
+
+        final Long categoryId = parse(fields.get("categoryid"), Long::valueOf, "categoryId");
+        final var categoryName = emptyToNull(fields.get("category"));
+        final Category category;
+        if (categoryId != null) {
+            category = categories.computeIfAbsent("id:" + categoryId, k -> categoryRepository.findById(categoryId)
+                    .filter(Category::isActive))
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown category " + categoryId));
+        } else if (categoryName != null) {
+            category = categories.computeIfAbsent("name:" + categoryName.toLowerCase(Locale.ROOT), k -> findCategoryByName(categoryName))
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown category " + categoryName));
+        } else {
+            category = null;
+        }
+        request.setCategoryId(category != null ? category.getId() : null);
+
+        final var violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        final var row = new Row(line, new Word(request.getName()), new Word(request.getDescription()),
+                request.getPrice(), category, request.getImageUrl(), request.getStockQuantity());
+        // run the domain invariants now so bad rows never reach a chunk
+        row.newProduct();
+        return row;
+    }
+
+    private Optional<Category> findCategoryByName(final String name) {
+        try {
+            return categoryRepository.findByNameAndActivityStatus(new Word(name), ActivityStatus.ACTIVE)
+                    .stream()
+                    .findFirst();
+        } catch (final IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Map<String, String> csvFields(final List<String> header, final String line) {
+        final var values = parseCsvLine(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " columns but found " + values.size());
+        }
+        final Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            fields.put(header.get(i), values.get(i).trim());
+        }
+        return fields;
+    }
+
+    private Map<String, String> jsonFields(final String line) {
+        final JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Malformed JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Each line must be a JSON object");
+        }
+        final Map<String, String> fields = new HashMap<>();
+        node.fields().forEachRemaining(e -> {
+            if (!e.getValue().isNull()) {
+                fields.put(e.getKey().toLowerCase(Locale.ROOT), e.getValue().asText());
+            }
+        });
+        return fields;
+    }
+
+    /**
+     * Splits one CSV line (RFC 4180 quoting; quoted fields may not span lines).
+     */
+    static List<String> parseCsvLine(final String line) {
+        final List<String> fields = new ArrayList<>();
+        final var field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static <T> T parse(final String value, final Function<String, T> parser, final String field) {
+        final var text = emptyToNull(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return parser.apply(text);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + text);
+        }
+    }
+
+    private static String emptyToNull(final String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String rootMessage(final Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+}
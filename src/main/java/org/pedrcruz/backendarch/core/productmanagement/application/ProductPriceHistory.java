@@ -0,0 +1,189 @@
+package org.pedrcruz.backendarch.core.productmanagement.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.core.catalogmanagement.application.CatalogChangeLog;
+import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
+import org.pedrcruz.backendarch.core.productmanagement.domain.model.ProductPrice;
+import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductPriceRepository;
+import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductRepository;
+import org.pedrcruz.backendarch.util.transaction.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Product price history ({@code product_prices}) with O(log n) "price as of" lookups.
+ * <p>
+ * Each product's history is cached as two parallel sorted arrays (effective instants and prices) and
+ * binary searched. The cache entry is dropped when this instance appends to the history and expires
+ * after a short TTL to pick up writes made by other instances.
+ * <p>
+ * A background job copies prices that become effective into {@code Product.price}, so scheduled
+ * price changes show up everywhere the current price is read.
+ */
+@Component
+@Slf4j
+public class ProductPriceHistory {
+
+    /**
+     * Immutable, sorted price timeline of one product.
+     */
+    static final class Timeline {
+        private final long[] validFrom;
+        private final ProductPrice[] entries;
+        private final long loadedAt;
+
+        Timeline(final List<ProductPrice> entries, final long loadedAt) {
+            // entries come sorted by (validFrom, id); for equal instants the later write wins
+            final List<ProductPrice> distinct = new ArrayList<>(entries.size());
+            for (final var entry : entries) {
+                if (!distinct.isEmpty() && distinct.get(distinct.size() - 1).getValidFrom().equals(entry.getValidFrom())) {
+                    distinct.set(distinct.size() - 1, entry);
+                } else {
+                    distinct.add(entry);
+                }
+            }
+            this.validFrom = distinct.stream().mapToLong(p -> p.getValidFrom().toEpochMilli()).toArray();
+            this.entries = distinct.toArray(new ProductPrice[0]);
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isEmpty() {
+            return validFrom.length == 0;
+        }
+
+        Optional<ProductPrice> at(final Instant instant) {
+            int i = Arrays.binarySearch(validFrom, instant.toEpochMilli());
+            if (i < 0) {
+                // insertion point - 1 is the last entry that started before the instant
+                i = -i - 2;
+            }
+            return i >= 0 ? Optional.of(entries[i]) : Optional.empty();
+        }
+    }
+
+    private final ProductPriceRepository priceRepository;
+    private final ProductRepository productRepository;
+    private final CatalogChangeLog catalogChangeLog;
+    private final long ttlMillis;
+    private final int maxCachedProducts;
+
+    private final ConcurrentHashMap<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    // upper bound of the last window applied by applyDuePrices; null before the first run
+    private volatile Instant appliedUpTo;
+
+    public ProductPriceHistory(final ProductPriceRepository priceRepository,
+                               final ProductRepository productRepository,
+                               final CatalogChangeLog catalogChangeLog,
+                               @Value("${product.prices.cache-ttl:PT5M}") final Duration ttl,
+                               @Value("${product.prices.cache-max-products:10000}") final int maxCachedProducts) {
+        this.priceRepository = priceRepository;
+        this.productRepository = productRepository;
+        this.catalogChangeLog = catalogChangeLog;
+        this.ttlMillis = ttl.toMillis();
+        this.maxCachedProducts = maxCachedProducts;
+    }
+
+    /**
+     * Appends a price to the product's history, effective from {@code validFrom}.
+     */
+    public ProductPrice record(final Product product, final BigDecimal price, final Instant validFrom) {
+        final var saved = priceRepository.save(new ProductPrice(product.getId(), validFrom, price));
+        invalidate(List.of(product.getId()));
+        return saved;
+    }
+
+    /**
+     * Records the initial price of freshly inserted products in one batch.
+     */
+    public void recordInitial(final Collection<Product> products) {
+        final var now = Instant.now();
+        priceRepository.saveAll(products.stream()
+                .map(p -> new ProductPrice(p.getId(), now, p.getPrice()))
+                .toList());
+        invalidate(products.stream().map(Product::getId).toList());
+    }
+
+    /**
+     * The price of a product at the given instant. Products without any history (e.g. created before the
+     * history existed) are reported at their current price.
+     */
+    public Optional<BigDecimal> priceAt(final Product product, final Instant instant) {
+        final var timeline = timeline(product.getId());
+        return timeline.isEmpty() ? Optional.of(product.getPrice()) : timeline.at(instant).map(ProductPrice::getPrice);
+    }
+
+    /**
+     * The history entry in effect at the given instant; empty before the first entry and for products
+     * without any history.
+     */
+    public Optional<ProductPrice> entryAt(final Long productId, final Instant instant) {
+        return timeline(productId).at(instant);
+    }
+
+    public List<ProductPrice> history(final Long productId) {
+        return priceRepository.findByProductIdOrderByValidFromAscIdAsc(productId);
+    }
+
+    /**
+     * Copies prices that became effective since the last run into {@code Product.price}. The first run
+     * after startup only looks at products whose latest effective price is not the stored one, which heals
+     * the changes due while no instance was running without going through the whole history.
+     */
+    @Scheduled(fixedDelayString = "${product.prices.apply-interval:PT1M}", initialDelayString = "${product.prices.apply-interval:PT1M}")
+    @Transactional
+    public void applyDuePrices() {
+        final var now = Instant.now();
+        final var productIds = appliedUpTo == null
+                ? priceRepository.findProductIdsWithUnappliedPrice(now)
+                : priceRepository.findByValidFromGreaterThanAndValidFromLessThanEqual(appliedUpTo, now).stream()
+                        .map(ProductPrice::getProductId).toList();
+
+        productIds.stream().distinct().forEach(productId -> {
+            timelines.remove(productId);
+            productRepository.findById(productId).ifPresent(product ->
+                    priceAt(product, now)
+                            .filter(price -> price.compareTo(product.getPrice()) != 0)
+                            .ifPresent(price -> {
+                                product.changePrice(price);
+                                productRepository.save(product);
+                                catalogChangeLog.productChanged(productId);
+                                log.info("Applied scheduled price {} to product {}", price, productId);
+                            }));
+        });
+        appliedUpTo = now;
+    }
+
+    private Timeline timeline(final Long productId) {
+        final var now = System.currentTimeMillis();
+        final var cached = timelines.get(productId);
+        if (cached != null && now - cached.loadedAt < ttlMillis) {
+            return cached;
+        }
+        final var loaded = new Timeline(priceRepository.findByProductIdOrderByValidFromAscIdAsc(productId), now);
+        if (timelines.size() >= maxCachedProducts) {
+            // crude bound: start over rather than track recency for what is a cheap reload
+            timelines.clear();
+        }
+        timelines.put(productId, loaded);
+        return loaded;
+    }
+
+    private void invalidate(final Collection<Long> productIds) {
+        productIds.forEach(timelines::remove);
+        // drop again after commit so a concurrent reader cannot re-cache the pre-commit history
+        TransactionHooks.afterCommit(() -> productIds.forEach(timelines::remove));
+    }
+}
@@ -1,9 +1,15 @@
 package org.pedrcruz.backendarch.core.productmanagement.application;
 
+import jakarta.persistence.Tuple;
 import org.pedrcruz.backendarch.core.productmanagement.api.dto.CreateProductRequest;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
+import org.pedrcruz.backendarch.core.productmanagement.domain.model.ProductPrice;
+import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductRepository;
 import org.pedrcruz.backendarch.pagination.Page;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,14 +21,50 @@ public interface ProductService {
 
     Product editProduct(Long id, CreateProductRequest request);
 
+    /**
+     * Edits the product if it is still at {@code version} (any version when null).
+     */
+    Product editProduct(Long id, CreateProductRequest request, Long version);
+
     List<Product> searchProducts(SearchProductQuery query, Page page);
 
+    /**
+     * The page {@link #searchProducts} returns, reduced to the given columns of
+     * {@link ProductRepository#PROJECTABLE_COLUMNS}.
+     */
+    List<Tuple> searchProductColumns(SearchProductQuery query, Page page, Collection<String> columns);
+
+    long countProducts(SearchProductQuery query);
+
+    ProductFacets facetProducts(SearchProductQuery query);
+
     Product getById(Long id);
 
+    Optional<Long> findVersion(Long id);
+
     Product deleteProduct(Long id);
 
+    Product deleteProduct(Long id, Long version);
+
     Product updateStock(Long id, int quantity);
 
+    Product updateStock(Long id, int quantity, Long version);
+
+    /**
+     * Sets a product's price from {@code validFrom}; future instants schedule the change, while a missing
+     * or past one means now, so the history is never rewritten retroactively.
+     */
+    ProductPrice schedulePrice(Long id, BigDecimal price, Instant validFrom);
+
+    List<ProductPrice> getPriceHistory(Long id);
+
+    Optional<BigDecimal> getPriceAt(Long id, Instant at);
+
+    /**
+     * The price history entry in effect at {@code at}; empty for products without any history.
+     */
+    Optional<ProductPrice> getPriceEntryAt(Long id, Instant at);
+
     List<Product> findAll();
 
     List<Product> findActiveProducts();
@@ -1,16 +1,23 @@
 package org.pedrcruz.backendarch.core.productmanagement.application;
 
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
+import org.pedrcruz.backendarch.core.catalogmanagement.application.CatalogChangeLog;
+import org.pedrcruz.backendarch.core.categorymanagement.application.CategoryProductCounts;
 import org.pedrcruz.backendarch.core.categorymanagement.domain.repositories.CategoryRepository;
 import org.pedrcruz.backendarch.core.domain.ActivityStatus;
 import org.pedrcruz.backendarch.core.domain.Word;
 import org.pedrcruz.backendarch.core.productmanagement.api.dto.CreateProductRequest;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
+import org.pedrcruz.backendarch.core.productmanagement.domain.model.ProductPrice;
 import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductRepository;
 import org.pedrcruz.backendarch.pagination.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +28,10 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository repository;
     private final CategoryRepository categoryRepository;
+    private final SuggestionIndex suggestionIndex;
+    private final CatalogChangeLog catalogChangeLog;
+    private final ProductPriceHistory priceHistory;
+    private final CategoryProductCounts productCounts;
 
     @Override
     public Optional<Product> findProductByName(final String name) {
@@ -42,12 +53,22 @@ public class ProductServiceImpl implements ProductService {
             request.getStockQuantity()
         );
 
-        return repository.save(product);
+        final var saved = repository.save(product);
+        priceHistory.record(saved, saved.getPrice(), Instant.now());
+        productCounts.productAdded(category.getId(), saved.isActive());
+        suggestionIndex.productChanged(saved);
+        catalogChangeLog.productChanged(saved.getId());
+        return saved;
     }
 
     @Override
     public Product editProduct(final Long id, final CreateProductRequest request) {
-        final var product = repository.getById(id);
+        return editProduct(id, request, null);
+    }
+
+    @Override
+    public Product editProduct(final Long id, final CreateProductRequest request, final Long version) {
+        final var product = repository.getByIdAndVersion(id, version);
         if (request != null) {
             final var name = new Word(request.getName());
             final var description = new Word(request.getDescription());
@@ -55,12 +76,18 @@ public class ProductServiceImpl implements ProductService {
             // Update the product fields
             product.changeName(name);
             product.changeDescription(description);
+            final var previousPrice = product.getPrice();
             product.changePrice(request.getPrice());
+            if (previousPrice.compareTo(product.getPrice()) != 0) {
+                priceHistory.record(product, product.getPrice(), Instant.now());
+            }
 
             // Update category if it's different
-            if (!product.getCategory().getId().equals(request.getCategoryId())) {
+            final var previousCategoryId = product.getCategory().getId();
+            if (!previousCategoryId.equals(request.getCategoryId())) {
                 final var category = categoryRepository.getById(request.getCategoryId());
                 product.changeCategory(category);
+                productCounts.productMoved(previousCategoryId, category.getId(), product.isActive());
             }
 
             // Update image URL if provided
@@ -70,7 +97,10 @@ public class ProductServiceImpl implements ProductService {
             product.updateStockQuantity(request.getStockQuantity());
         }
 
-        return repository.save(product);
+        final var saved = repository.save(product);
+        suggestionIndex.productChanged(saved);
+        catalogChangeLog.productChanged(saved.getId());
+        return saved;
     }
 
     @Override
@@ -78,23 +108,90 @@ public class ProductServiceImpl implements ProductService {
         return repository.searchProducts(page, query);
     }
 
+    @Override
+    public List<Tuple> searchProductColumns(final SearchProductQuery query, final Page page,
+                                            final Collection<String> columns) {
+        return repository.searchProductColumns(page, query, columns);
+    }
+
+    @Override
+    public long countProducts(final SearchProductQuery query) {
+        return repository.countProducts(query);
+    }
+
+    @Override
+    public ProductFacets facetProducts(final SearchProductQuery query) {
+        return repository.facetProducts(query);
+    }
+
     @Override
     public Product getById(final Long id) {
         return repository.getById(id);
     }
 
+    @Override
+    public Optional<Long> findVersion(final Long id) {
+        return repository.findVersionById(id);
+    }
+
     @Override
     public Product deleteProduct(final Long id) {
-        final var product = repository.getById(id);
+        return deleteProduct(id, null);
+    }
+
+    @Override
+    public Product deleteProduct(final Long id, final Long version) {
+        final var product = repository.getByIdAndVersion(id, version);
         product.deactivate();
-        return repository.save(product);
+        final var saved = repository.save(product);
+        productCounts.productActivityChanged(saved.getCategory().getId(), false);
+        suggestionIndex.productChanged(saved);
+        catalogChangeLog.productChanged(saved.getId());
+        return saved;
     }
 
     @Override
     public Product updateStock(final Long id, final int quantity) {
-        final var product = repository.getById(id);
+        return updateStock(id, quantity, null);
+    }
+
+    @Override
+    public Product updateStock(final Long id, final int quantity, final Long version) {
+        final var product = repository.getByIdAndVersion(id, version);
         product.updateStockQuantity(quantity);
-        return repository.save(product);
+        final var saved = repository.save(product);
+        catalogChangeLog.productChanged(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public ProductPrice schedulePrice(final Long id, final BigDecimal price, final Instant validFrom) {
+        final var product = repository.getById(id);
+        final var now = Instant.now();
+        final var effective = validFrom != null && validFrom.isAfter(now) ? validFrom : now;
+        if (!effective.isAfter(now)) {
+            // effective immediately: the current price changes right away
+            product.changePrice(price);
+            repository.save(product);
+            catalogChangeLog.productChanged(product.getId());
+        }
+        return priceHistory.record(product, price, effective);
+    }
+
+    @Override
+    public List<ProductPrice> getPriceHistory(final Long id) {
+        final var product = repository.getById(id);
+        return priceHistory.history(product.getId());
+    }
+
+    @Override
+    public Optional<BigDecimal> getPriceAt(final Long id, final Instant at) {
+        return priceHistory.priceAt(repository.getById(id), at);
+    }
+
+    @Override
+    public Optional<ProductPrice> getPriceEntryAt(final Long id, final Instant at) {
+        return priceHistory.entryAt(repository.getById(id).getId(), at);
     }
 
     @Override
@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import org.pedrcruz.backendarch.pagination.SearchRequest;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -17,4 +18,6 @@ public class SearchProductQuery {
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private Integer minStock;
+    // restricts to any of these categories (e.g. a category subtree); combined with categoryId if both are set
+    private List<Long> categoryIds;
 }
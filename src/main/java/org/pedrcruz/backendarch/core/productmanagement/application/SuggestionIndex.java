@@ -0,0 +1,234 @@
+package org.pedrcruz.backendarch.core.productmanagement.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.pedrcruz.backendarch.core.categorymanagement.domain.model.Category;
+import org.pedrcruz.backendarch.core.categorymanagement.domain.repositories.CategoryRepository;
+import org.pedrcruz.backendarch.core.domain.ActivityStatus;
+import org.pedrcruz.backendarch.core.ordermanagement.domain.repositories.OrderRepository;
+import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
+import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductRepository;
+import org.pedrcruz.backendarch.util.transaction.TransactionHooks;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory prefix index over the names of active products and categories, used for typeahead.
+ * <p>
+ * Entries are kept in an immutable array sorted by normalized name, so a prefix lookup is a binary
+ * search followed by a scan of the matching range. Writers build a new array and swap it in; readers
+ * never lock. Entries are weighted by how many units of the product were ordered recently, cancelled
+ * orders aside (categories by the sum of their products), and the heaviest matches are returned first.
+ * The whole index is rebuilt periodically so the weights follow what sells now.
+ */
+@Component
+@Slf4j
+public class SuggestionIndex {
+
+    public enum Kind { PRODUCT, CATEGORY }
+
+    /**
+     * A single index entry. {@code key} is the normalized name used for matching.
+     */
+    public record Entry(Kind kind, Long id, String name, long weight, String key) {
+    }
+
+    private static final Comparator<Entry> BY_KEY = Comparator.comparing(Entry::key)
+            .thenComparing(Entry::kind)
+            .thenComparing(Entry::id);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final OrderRepository orderRepository;
+    private final Period popularityWindow;
+    private final TransactionTemplate readOnlyTx;
+    private final Executor maintenanceExecutor;
+
+    private final AtomicReference<Entry[]> entries = new AtomicReference<>(new Entry[0]);
+    // single-entry replacements committed while a rebuild runs, replayed onto its result; guarded by this
+    private List<Runnable> pendingReplacements;
+
+    public SuggestionIndex(final ProductRepository productRepository,
+                           final CategoryRepository categoryRepository,
+                           final OrderRepository orderRepository,
+                           @Value("${product.suggestions.popularity-window:P30D}") final Period popularityWindow,
+                           final PlatformTransactionManager transactionManager,
+                           @Qualifier("maintenanceExecutor") final Executor maintenanceExecutor) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.orderRepository = orderRepository;
+        this.popularityWindow = popularityWindow;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maintenanceExecutor = maintenanceExecutor;
+    }
+
+    /**
+     * Builds the whole index from the database. Runs once the application is ready (after bootstrapping)
+     * and then on a schedule.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${product.suggestions.rebuild-interval:PT1H}",
+            initialDelayString = "${product.suggestions.rebuild-interval:PT1H}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            pendingReplacements = new ArrayList<>();
+        }
+        final Entry[] array;
+        try {
+            final Map<Long, Long> popularity = new HashMap<>();
+            for (final Object[] row : orderRepository.sumQuantityByProduct(LocalDate.now().minus(popularityWindow))) {
+                popularity.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+
+            final List<Entry> built = new ArrayList<>();
+            final Map<Long, Long> categoryWeights = new HashMap<>();
+            for (final Product product : productRepository.findByActivityStatus(ActivityStatus.ACTIVE)) {
+                final long weight = popularity.getOrDefault(product.getId(), 0L);
+                built.add(entry(Kind.PRODUCT, product.getId(), product.getName().getWord(), weight));
+                if (product.getCategory() != null) {
+                    categoryWeights.merge(product.getCategory().getId(), weight, Long::sum);
+                }
+            }
+            for (final Category category : categoryRepository.findByActivityStatus(ActivityStatus.ACTIVE)) {
+                built.add(entry(Kind.CATEGORY, category.getId(), category.getName().getWord(),
+                        categoryWeights.getOrDefault(category.getId(), 0L)));
+            }
+
+            array = built.toArray(new Entry[0]);
+            Arrays.sort(array, BY_KEY);
+        } catch (final RuntimeException e) {
+            synchronized (this) {
+                pendingReplacements = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            entries.set(array);
+            final var pending = pendingReplacements;
+            pendingReplacements = null;
+            pending.forEach(Runnable::run);
+        }
+        log.info("Suggestion index built with {} entries", array.length);
+    }
+
+    /**
+     * Rebuilds the index in the background once the current transaction commits, for changes too broad to
+     * replay entry by entry. A failed rebuild is logged; the scheduled one catches up.
+     */
+    public void rebuildAfterCommit() {
+        // own read-only transaction on the maintenance thread, not the writer's
+        TransactionHooks.afterCommit(maintenanceExecutor, () -> readOnlyTx.executeWithoutResult(status -> rebuild()));
+    }
+
+    /**
+     * Returns up to {@code limit} entries whose name starts with {@code prefix}, heaviest first.
+     */
+    public List<Entry> suggest(final String prefix, final int limit) {
+        final var key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        final var snapshot = entries.get();
+        final PriorityQueue<Entry> top = new PriorityQueue<>(limit + 1,
+                Comparator.comparingLong(Entry::weight).thenComparing(BY_KEY.reversed()));
+        for (int i = lowerBound(snapshot, key); i < snapshot.length && snapshot[i].key().startsWith(key); i++) {
+            top.offer(snapshot[i]);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        final List<Entry> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingLong(Entry::weight).reversed().thenComparing(BY_KEY));
+        return result;
+    }
+
+    /**
+     * Reflects a created or changed product in the index once the current transaction commits.
+     */
+    public void productChanged(final Product product) {
+        final var name = product.getName().getWord();
+        TransactionHooks.afterCommit(() -> replace(Kind.PRODUCT, product.getId(), name, product.isActive()));
+    }
+
+    /**
+     * Reflects a created, changed or removed category in the index once the current transaction commits.
+     */
+    public void categoryChanged(final Category category, final boolean removed) {
+        final var name = category.getName().getWord();
+        final var present = !removed && category.isActive();
+        TransactionHooks.afterCommit(() -> replace(Kind.CATEGORY, category.getId(), name, present));
+    }
+
+    /**
+     * Copy-on-write replacement of a single entry, keeping the weight it already had.
+     */
+    private synchronized void replace(final Kind kind, final Long id, final String name, final boolean present) {
+        if (pendingReplacements != null) {
+            // the rebuild in progress may have read the database before this change committed
+            pendingReplacements.add(() -> replace(kind, id, name, present));
+        }
+        final var current = entries.get();
+        final List<Entry> next = new ArrayList<>(current.length + 1);
+        long weight = 0;
+        for (final Entry e : current) {
+            if (e.kind() == kind && e.id().equals(id)) {
+                weight = e.weight();
+            } else {
+                next.add(e);
+            }
+        }
+        if (present) {
+            final var added = entry(kind, id, name, weight);
+            int pos = Collections.binarySearch(next, added, BY_KEY);
+            next.add(pos < 0 ? -pos - 1 : pos, added);
+        }
+        entries.set(next.toArray(new Entry[0]));
+    }
+
+    private static int lowerBound(final Entry[] array, final String key) {
+        int lo = 0;
+        int hi = array.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (array[mid].key().compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static Entry entry(final Kind kind, final Long id, final String name, final long weight) {
+        return new Entry(kind, id, name, weight, normalize(name));
+    }
+
+    private static String normalize(final String text) {
+        return text == null ? "" : StringUtils.stripAccents(text.trim()).toLowerCase(Locale.ROOT);
+    }
+}
@@ -4,6 +4,7 @@ import eapli.framework.domain.model.AggregateRoot;
 import eapli.framework.domain.model.DomainEntities;
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.ColumnDefault;
 import org.pedrcruz.backendarch.core.categorymanagement.domain.model.Category;
 import org.pedrcruz.backendarch.core.domain.ActivityStatus;
 import org.pedrcruz.backendarch.core.domain.Date;
@@ -18,7 +19,9 @@ import java.math.BigDecimal;
  * description, price, etc.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category", columnList = "category_id")
+})
 public class Product implements AggregateRoot<Long> {
 
     @Serial
@@ -29,6 +32,13 @@ public class Product implements AggregateRoot<Long> {
     @Getter
     private Long id;
 
+    // existing rows start at 0 when the column is added
+    @Version
+    @Getter
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Getter
     @Embedded
     @AttributeOverride(name = "word", column = @Column(name = "name_word", unique = true))
@@ -62,6 +72,14 @@ public class Product implements AggregateRoot<Long> {
     @AttributeOverride(name = "date", column = @Column(name = "last_activity_change_date"))
     private Date lastActivityChangeDate;
 
+    /**
+     * Set when the product was deactivated together with its category, so that reactivating the category
+     * restores exactly those products; cleared by any change of the product's own status.
+     */
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean deactivatedByCascade;
+
     @Getter
     @Column
     private String imageUrl;
@@ -121,6 +139,7 @@ public class Product implements AggregateRoot<Long> {
      */
     public void deactivate() {
         this.activityStatus = new ActivityStatus(false);
+        this.deactivatedByCascade = false;
         this.lastActivityChangeDate = Date.now();
     }
 
@@ -129,6 +148,7 @@ public class Product implements AggregateRoot<Long> {
      */
     public void activate() {
         this.activityStatus = new ActivityStatus(true);
+        this.deactivatedByCascade = false;
         this.lastActivityChangeDate = Date.now();
     }
 
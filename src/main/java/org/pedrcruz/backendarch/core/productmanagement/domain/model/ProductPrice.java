@@ -0,0 +1,59 @@
+package org.pedrcruz.backendarch.core.productmanagement.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One entry of a product's price history: the price that applies from {@code validFrom} until the next
+ * entry of the same product. Entries are append only; a future {@code validFrom} schedules a price change.
+ */
+@Entity
+@Table(name = "product_prices", indexes = {
+        @Index(name = "idx_product_prices_product_valid_from", columnList = "product_id, valid_from DESC")
+})
+public class ProductPrice implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue
+    @Getter
+    private Long id;
+
+    @Getter
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Getter
+    @Column(name = "valid_from", nullable = false)
+    private Instant validFrom;
+
+    @Getter
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    protected ProductPrice() {
+        // for ORM
+    }
+
+    public ProductPrice(final Long productId, final Instant validFrom, final BigDecimal price) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        if (validFrom == null) {
+            throw new IllegalArgumentException("Valid from cannot be null");
+        }
+        if (price == null || price.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Price cannot be null or negative");
+        }
+        this.productId = productId;
+        this.validFrom = validFrom;
+        this.price = price;
+    }
+}
@@ -0,0 +1,25 @@
+package org.pedrcruz.backendarch.core.productmanagement.domain.repositories;
+
+import org.pedrcruz.backendarch.core.productmanagement.domain.model.ProductPrice;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ProductPriceRepository {
+
+    <S extends ProductPrice> List<S> saveAll(Iterable<S> entities);
+
+    <S extends ProductPrice> S save(S entity);
+
+    List<ProductPrice> findByProductIdOrderByValidFromAscIdAsc(Long productId);
+
+    /**
+     * Entries that became effective in the window {@code (from, to]}.
+     */
+    List<ProductPrice> findByValidFromGreaterThanAndValidFromLessThanEqual(Instant from, Instant to);
+
+    /**
+     * Products whose latest entry effective at {@code now} carries another price than the product itself.
+     */
+    List<Long> findProductIdsWithUnappliedPrice(Instant now);
+}
@@ -1,19 +1,33 @@
 package org.pedrcruz.backendarch.core.productmanagement.domain.repositories;
 
+import jakarta.persistence.Tuple;
 import org.pedrcruz.backendarch.core.categorymanagement.domain.model.Category;
 import org.pedrcruz.backendarch.core.domain.ActivityStatus;
 import org.pedrcruz.backendarch.core.domain.Word;
+import org.pedrcruz.backendarch.core.productmanagement.application.ProductFacets;
 import org.pedrcruz.backendarch.core.productmanagement.application.SearchProductQuery;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
 import org.pedrcruz.backendarch.exceptions.NotFoundException;
 import org.pedrcruz.backendarch.pagination.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository {
 
+    /**
+     * Columns {@link #searchProductColumns} can select: the plain attributes of a product, with {@code name},
+     * {@code description} and the dates unwrapped, {@code active} its activity status and the category's id
+     * and name.
+     */
+    List<String> PROJECTABLE_COLUMNS = List.of("id", "name", "description", "price", "imageUrl", "stockQuantity",
+            "active", "categoryId", "categoryName", "registrationDate", "lastActivityChangeDate");
+
     <S extends Product> List<S> saveAll(Iterable<S> entities);
 
     <S extends Product> S save(S entity);
@@ -28,10 +42,67 @@ public interface ProductRepository {
                 .orElseThrow(() -> new NotFoundException(Product.class, id));
     }
 
+    /**
+     * Like {@link #getById(Long)}, but fails with 412 Precondition Failed when the product is no longer at
+     * the version the client expects; a {@code null} version skips the check.
+     */
+    default Product getByIdAndVersion(final Long id, final Long version) {
+        final var product = getById(id);
+        if (version != null && !version.equals(product.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Resource has been modified by another user. Please refresh and try again.");
+        }
+        return product;
+    }
+
+    /**
+     * Current version of an active product, read without loading the entity; empty if there is none.
+     */
+    Optional<Long> findVersionById(Long id);
+
     List<Product> findAll(); // Added method to get all products
 
     List<Product> searchProducts(Page page, SearchProductQuery query);
 
+    /**
+     * Same page as {@link #searchProducts}, selecting only {@code columns} (see {@link #PROJECTABLE_COLUMNS})
+     * as tuples whose elements are aliased by column name.
+     */
+    List<Tuple> searchProductColumns(Page page, SearchProductQuery query, Collection<String> columns);
+
+    long countProducts(SearchProductQuery query);
+
+    ProductFacets facetProducts(SearchProductQuery query);
+
+    /**
+     * Inserts new products without going through the cache-evicting {@link #save}; callers must provide
+     * the transaction and evict caches themselves.
+     */
+    void insertBatch(List<Product> products);
+
+    /**
+     * Ids of the products whose category lies in the subtree with the given materialized path prefix.
+     */
+    List<Long> findIdsByCategoryPathPrefix(String pathPrefix);
+
+    /**
+     * Deactivates, in one statement, every active product whose category lies in the subtree with the
+     * given materialized path prefix, marking them as deactivated by the cascade. Bypasses the cache;
+     * callers must evict it themselves.
+     *
+     * @return the number of products changed
+     */
+    int deactivateByCategoryPathPrefix(String pathPrefix, LocalDate changeDate);
+
+    /**
+     * Reactivates, in one statement, the products of the subtree that {@link #deactivateByCategoryPathPrefix}
+     * deactivated; products deactivated or deleted on their own stay inactive. Bypasses the cache; callers
+     * must evict it themselves.
+     *
+     * @return the number of products changed
+     */
+    int reactivateByCategoryPathPrefix(String pathPrefix, LocalDate changeDate);
+
     List<Product> findByCategoryId(Long categoryId);
 
     List<Product> findByCategoryIdAndActivityStatus(Long categoryId, ActivityStatus activityStatus);
@@ -0,0 +1,77 @@
+package org.pedrcruz.backendarch.core.productmanagement.infrastructure.images;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.exceptions.NotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Pattern;
+
+/**
+ * Stores original product images in a directory on disk.
+ * <p>
+ * On startup, images bundled in {@code classpath:images/} are copied to the directory if they are not
+ * there yet, so {@code Product.imageUrl} values such as {@code /images/sardinha.jpg} resolve out of the box.
+ */
+@Component
+@Slf4j
+public class ProductImageStore {
+
+    // plain file names only: no separators, no leading dot (keeps the thumbnail directory private)
+    private static final Pattern IMAGE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.-]*\\.(?i:jpe?g|png|gif|bmp)");
+
+    @Getter
+    private final Path directory;
+
+    public ProductImageStore(@Value("${product.images.dir:images}") final String directory) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.directory);
+            seedFromClasspath();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Unable to initialize image directory " + this.directory, e);
+        }
+    }
+
+    public static boolean isValidName(final String name) {
+        return name != null && IMAGE_NAME.matcher(name).matches();
+    }
+
+    /**
+     * Resolves an original image by file name, or throws 404 if it does not exist.
+     */
+    public Path resolve(final String name) {
+        if (!isValidName(name)) {
+            throw new NotFoundException("Image " + name + " not found");
+        }
+        final var file = directory.resolve(name).normalize();
+        if (!directory.equals(file.getParent()) || !Files.isRegularFile(file)) {
+            throw new NotFoundException("Image " + name + " not found");
+        }
+        return file;
+    }
+
+    private void seedFromClasspath() throws IOException {
+        final var resources = new PathMatchingResourcePatternResolver().getResources("classpath:images/*");
+        for (final var resource : resources) {
+            final var name = resource.getFilename();
+            if (!isValidName(name)) {
+                continue;
+            }
+            final var target = directory.resolve(name);
+            if (!Files.exists(target)) {
+                try (var in = resource.getInputStream()) {
+                    Files.copy(in, target);
+                }
+                log.info("Copied bundled image {} to {}", name, directory);
+            }
+        }
+    }
+}
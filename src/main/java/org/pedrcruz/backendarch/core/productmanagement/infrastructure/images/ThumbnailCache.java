@@ -0,0 +1,207 @@
+package org.pedrcruz.backendarch.core.productmanagement.infrastructure.images;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Resized variants of product images, generated on first request and kept in a size-bounded,
+ * least-recently-used cache on disk.
+ * <p>
+ * Widths are snapped to a small set of sizes so the number of variants per image stays bounded.
+ * Concurrent requests for the same missing variant generate it only once.
+ */
+@Component
+@Slf4j
+public class ThumbnailCache {
+
+    public static final List<Integer> WIDTHS = List.of(64, 128, 256, 512);
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // file name -> size in bytes, in access order; guarded by this
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    // variants being generated; later requests for the same one wait for the first request's result
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> generating = new ConcurrentHashMap<>();
+
+    public ThumbnailCache(final ProductImageStore imageStore,
+                          @Value("${product.images.thumbnails.max-bytes:52428800}") final long maxBytes) {
+        this.directory = imageStore.getDirectory().resolve(".thumbnails");
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+            loadExisting();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Unable to initialize thumbnail cache " + directory, e);
+        }
+    }
+
+    /**
+     * Snaps a requested width to the smallest supported width that is at least as large.
+     */
+    public static int snapWidth(final int requested) {
+        return WIDTHS.stream()
+                .filter(w -> w >= requested)
+                .findFirst()
+                .orElse(WIDTHS.get(WIDTHS.size() - 1));
+    }
+
+    /**
+     * Returns the variant of {@code original} with the given width, generating it if needed.
+     */
+    public Path get(final Path original, final int width) throws IOException {
+        final var key = keyOf(original, width);
+        final var file = directory.resolve(key);
+        if (touch(key) && isFresh(file, original)) {
+            return file;
+        }
+
+        final var mine = new CompletableFuture<Path>();
+        final var existing = generating.putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            // another request may have admitted it between the check above and putIfAbsent
+            if (!touch(key) || !isFresh(file, original)) {
+                generate(original, file, width);
+                admit(key, Files.size(file));
+            }
+            mine.complete(file);
+            return file;
+        } catch (final IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            // only after completing, so nobody can start a second generation while others still wait
+            generating.remove(key, mine);
+        }
+    }
+
+    private static Path await(final CompletableFuture<Path> future) throws IOException {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private void generate(final Path original, final Path target, final int width) throws IOException {
+        final BufferedImage source = ImageIO.read(original.toFile());
+        if (source == null) {
+            throw new IllegalArgumentException("Unsupported image format: " + original.getFileName());
+        }
+
+        final int targetWidth = Math.min(width, source.getWidth());
+        final int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * (double) targetWidth / source.getWidth()));
+        final int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        final var resized = new BufferedImage(targetWidth, targetHeight, type);
+        final var graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        // write next to the target and move it in place so readers never see a partial file
+        final var tmp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            if (!ImageIO.write(resized, formatOf(original), tmp.toFile())) {
+                throw new IllegalArgumentException("Unsupported image format: " + original.getFileName());
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        log.debug("Generated thumbnail {}", target.getFileName());
+    }
+
+    private synchronized boolean touch(final String key) {
+        return entries.get(key) != null;
+    }
+
+    private synchronized void admit(final String key, final long size) {
+        final var previous = entries.put(key, size);
+        totalBytes += size - (previous != null ? previous : 0L);
+
+        final var it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            final var eldest = it.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.getValue();
+            try {
+                Files.deleteIfExists(directory.resolve(eldest.getKey()));
+            } catch (final IOException e) {
+                log.warn("Unable to evict thumbnail {}", eldest.getKey(), e);
+            }
+        }
+    }
+
+    private void loadExisting() throws IOException {
+        // without access history, seed the LRU order from modification times
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Files::isRegularFile)
+                    .filter(f -> !f.getFileName().toString().endsWith(".tmp"))
+                    .sorted(Comparator.comparing(ThumbnailCache::lastModified))
+                    .forEach(f -> admit(f.getFileName().toString(), f.toFile().length()));
+        }
+    }
+
+    // a variant is stale once the original has been replaced
+    private static boolean isFresh(final Path variant, final Path original) {
+        return Files.exists(variant) && lastModified(variant) >= lastModified(original);
+    }
+
+    private static long lastModified(final Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime().toMillis();
+        } catch (final IOException e) {
+            return 0L;
+        }
+    }
+
+    private static String keyOf(final Path original, final int width) {
+        final var name = original.getFileName().toString();
+        final int dot = name.lastIndexOf('.');
+        return name.substring(0, dot) + "-w" + width + name.substring(dot);
+    }
+
+    private static String formatOf(final Path original) {
+        final var name = original.getFileName().toString();
+        final var extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return "jpeg".equals(extension) ? "jpg" : extension;
+    }
+}
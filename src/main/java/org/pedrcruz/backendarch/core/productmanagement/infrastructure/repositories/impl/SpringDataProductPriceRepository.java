@@ -0,0 +1,25 @@
+package org.pedrcruz.backendarch.core.productmanagement.infrastructure.repositories.impl;
+
+import org.pedrcruz.backendarch.core.productmanagement.domain.model.ProductPrice;
+import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductPriceRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data repository for the product price history
+ */
+@Repository
+public interface SpringDataProductPriceRepository extends ProductPriceRepository, CrudRepository<ProductPrice, Long> {
+
+    @Override
+    @Query("SELECT pp.productId FROM ProductPrice pp, Product p "
+            + "WHERE p.id = pp.productId AND pp.price <> p.price "
+            + "AND pp.validFrom = (SELECT MAX(latest.validFrom) FROM ProductPrice latest "
+            + "WHERE latest.productId = pp.productId AND latest.validFrom <= :now)")
+    List<Long> findProductIdsWithUnappliedPrice(@Param("now") Instant now);
+}
@@ -1,14 +1,20 @@
 package org.pedrcruz.backendarch.core.productmanagement.infrastructure.repositories.impl;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import lombok.RequiredArgsConstructor;
 import org.pedrcruz.backendarch.core.categorymanagement.domain.model.Category;
 import org.pedrcruz.backendarch.core.domain.ActivityStatus;
 import org.pedrcruz.backendarch.core.domain.Word;
+import org.pedrcruz.backendarch.core.productmanagement.application.ProductFacets;
 import org.pedrcruz.backendarch.core.productmanagement.application.SearchProductQuery;
 import org.pedrcruz.backendarch.core.productmanagement.domain.model.Product;
 import org.pedrcruz.backendarch.core.productmanagement.domain.repositories.ProductRepository;
@@ -17,12 +23,17 @@ import org.pedrcruz.backendarch.pagination.Page;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -65,6 +76,10 @@ public interface SpringDataProductRepository extends ProductRepository, ProductR
                 .orElseThrow(() -> new NotFoundException(Product.class, id));
     }
 
+    @Override
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id AND p.activityStatus.status = true")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
     @Override
     @Cacheable
     List<Product> findByName(Word name);
@@ -96,6 +111,29 @@ public interface SpringDataProductRepository extends ProductRepository, ProductR
     @Override
     @Cacheable
     List<Product> findByStockQuantityLessThan(int quantity);
+
+    @Override
+    @Query("SELECT p.id FROM Product p WHERE p.category.id IN "
+            + "(SELECT c.id FROM Category c WHERE c.hierarchyPath LIKE CONCAT(:pathPrefix, '%'))")
+    List<Long> findIdsByCategoryPathPrefix(@Param("pathPrefix") String pathPrefix);
+
+    @Override
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.activityStatus.status = false, p.deactivatedByCascade = true, "
+            + "p.lastActivityChangeDate.date = :changeDate, p.version = p.version + 1 "
+            + "WHERE p.activityStatus.status = true AND p.category.id IN "
+            + "(SELECT c.id FROM Category c WHERE c.hierarchyPath LIKE CONCAT(:pathPrefix, '%'))")
+    int deactivateByCategoryPathPrefix(@Param("pathPrefix") String pathPrefix,
+                                       @Param("changeDate") LocalDate changeDate);
+
+    @Override
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.activityStatus.status = true, p.deactivatedByCascade = false, "
+            + "p.lastActivityChangeDate.date = :changeDate, p.version = p.version + 1 "
+            + "WHERE p.deactivatedByCascade = true AND p.category.id IN "
+            + "(SELECT c.id FROM Category c WHERE c.hierarchyPath LIKE CONCAT(:pathPrefix, '%'))")
+    int reactivateByCategoryPathPrefix(@Param("pathPrefix") String pathPrefix,
+                                       @Param("changeDate") LocalDate changeDate);
 }
 
 /**
@@ -103,6 +141,14 @@ public interface SpringDataProductRepository extends ProductRepository, ProductR
  */
 interface ProductRepoCustom {
     List<Product> searchProducts(Page page, SearchProductQuery query);
+
+    List<Tuple> searchProductColumns(Page page, SearchProductQuery query, Collection<String> columns);
+
+    long countProducts(SearchProductQuery query);
+
+    ProductFacets facetProducts(SearchProductQuery query);
+
+    void insertBatch(List<Product> products);
 }
 
 /**
@@ -120,7 +166,88 @@ class ProductRepoCustomImpl implements ProductRepoCustom {
         final CriteriaQuery<Product> cq = cb.createQuery(Product.class);
         final Root<Product> root = cq.from(Product.class);
         cq.select(root);
+        cq.where(filters(cb, root, query));
+
+        // Order by name by default
+        cq.orderBy(cb.asc(root.get("name").get("word")));
+
+        // Apply pagination
+        final TypedQuery<Product> q = em.createQuery(cq);
+
+        // Calculate pagination (pages start at 1)
+        int pageNumber = page.getNumber();
+        int pageSize = page.getLimit();
+
+        q.setFirstResult((pageNumber - 1) * pageSize);
+        q.setMaxResults(pageSize);
+
+        return q.getResultList();
+    }
+
+    @Override
+    public List<Tuple> searchProductColumns(final Page page, final SearchProductQuery query,
+                                            final Collection<String> columns) {
+        final var cb = em.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        final Root<Product> root = cq.from(Product.class);
+        cq.multiselect(columns.stream().<Selection<?>>map(column -> column(root, column).alias(column)).toList());
+        cq.where(filters(cb, root, query));
+        // same order and page as searchProducts
+        cq.orderBy(cb.asc(root.get("name").get("word")));
+
+        return em.createQuery(cq)
+                .setFirstResult((page.getNumber() - 1) * page.getLimit())
+                .setMaxResults(page.getLimit())
+                .getResultList();
+    }
 
+    @Override
+    public long countProducts(final SearchProductQuery query) {
+        final var cb = em.getCriteriaBuilder();
+        final CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        final Root<Product> root = cq.from(Product.class);
+        cq.select(cb.count(root));
+        cq.where(filters(cb, root, query));
+        return em.createQuery(cq).getSingleResult();
+    }
+
+    @Override
+    public ProductFacets facetProducts(final SearchProductQuery query) {
+        final var cb = em.getCriteriaBuilder();
+        final CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+        final Root<Product> root = cq.from(Product.class);
+        final Join<Product, Category> category = root.join("category");
+
+        // group by the raw price rather than a CASE expression so the grouping key never depends on
+        // bind parameters; the catalog has few distinct prices per category and bands are folded in memory
+        cq.multiselect(category.get("id"), category.get("name").get("word"), root.get("price"), cb.count(root));
+        cq.where(filters(cb, root, query));
+        cq.groupBy(category.get("id"), category.get("name").get("word"), root.get("price"));
+
+        return ProductFacets.fromRows(em.createQuery(cq).getResultList());
+    }
+
+    @Override
+    public void insertBatch(final List<Product> products) {
+        // persist, flush as JDBC batches (hibernate.jdbc.batch_size) and detach, so memory stays flat
+        products.forEach(em::persist);
+        em.flush();
+        em.clear();
+    }
+
+    private static Path<?> column(final Root<Product> root, final String column) {
+        return switch (column) {
+            case "id", "price", "imageUrl", "stockQuantity" -> root.get(column);
+            case "name", "description" -> root.get(column).get("word");
+            case "active" -> root.get("activityStatus").get("status");
+            case "categoryId" -> root.get("category").get("id");
+            case "categoryName" -> root.get("category").get("name").get("word");
+            case "registrationDate", "lastActivityChangeDate" -> root.get(column).get("date");
+            default -> throw new IllegalArgumentException("Unknown product column: " + column);
+        };
+    }
+
+    private Predicate filters(final CriteriaBuilder cb, final Root<Product> root, final SearchProductQuery query) {
         final List<Predicate> where = new ArrayList<>();
 
         // Filter by name if provided
@@ -133,9 +260,16 @@ class ProductRepoCustomImpl implements ProductRepoCustom {
             where.add(cb.equal(root.get("category").get("id"), query.getCategoryId()));
         }
 
+        // Filter by a set of categories if provided (an empty set matches nothing)
+        if (query.getCategoryIds() != null) {
+            where.add(query.getCategoryIds().isEmpty()
+                    ? cb.disjunction()
+                    : root.get("category").get("id").in(query.getCategoryIds()));
+        }
+
         // Filter by active status if provided
         if (query.getActive() != null) {
-            where.add(cb.equal(root.get("activityStatus").get("active"), query.getActive()));
+            where.add(cb.equal(root.get("activityStatus").get("status"), query.getActive()));
         }
 
         // Filter by price range if provided
@@ -153,23 +287,6 @@ class ProductRepoCustomImpl implements ProductRepoCustom {
         }
 
         // Apply all filters using AND (all conditions must be met)
-        if (!where.isEmpty()) {
-            cq.where(cb.and(where.toArray(new Predicate[0])));
-        }
-
-        // Order by name by default
-        cq.orderBy(cb.asc(root.get("name").get("word")));
-
-        // Apply pagination
-        final TypedQuery<Product> q = em.createQuery(cq);
-
-        // Calculate pagination
-        int pageNumber = page.getNumber();
-        int pageSize = page.getLimit();
-
-        q.setFirstResult((pageNumber) * pageSize);
-        q.setMaxResults(pageSize);
-
-        return q.getResultList();
+        return cb.and(where.toArray(new Predicate[0]));
     }
 }
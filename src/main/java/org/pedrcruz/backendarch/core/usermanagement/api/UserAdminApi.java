@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.pedrcruz.backendarch.api.KeysetListResponse;
 import org.pedrcruz.backendarch.api.ListResponse;
 import org.pedrcruz.backendarch.core.usermanagement.application.*;
 import org.pedrcruz.backendarch.core.usermanagement.domain.model.Role;
@@ -60,6 +61,18 @@ public class UserAdminApi extends AbstractResource {
 		return userViewMapper.toUserView(user);
 	}
 
+	@Operation(summary = "List users, newest first, optionally filtered by username or part of the name",
+			description = "Keyset paginated: pass the returned 'next' as 'after' to get the following page")
+	@GetMapping
+	public KeysetListResponse<UserView> list(@RequestParam(required = false) final String username,
+											 @RequestParam(required = false) final String fullName,
+											 @RequestParam(required = false) final String after,
+											 @RequestParam(defaultValue = "20") final int limit) {
+		final var page = userService.searchUsers(new SearchUsersQuery(username, fullName), after,
+				Math.max(1, Math.min(limit, 100)));
+		return new KeysetListResponse<>(userViewMapper.toUserView(page.items()), page.next());
+	}
+
 	@Operation(summary = "Search for users")
 	@PostMapping("search")
 	public ListResponse<UserView> search(@RequestBody final SearchRequest<SearchUsersQuery> request) {
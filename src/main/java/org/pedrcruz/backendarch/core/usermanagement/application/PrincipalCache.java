@@ -0,0 +1,69 @@
+package org.pedrcruz.backendarch.core.usermanagement.application;
+
+import org.pedrcruz.backendarch.core.usermanagement.domain.model.User;
+import org.pedrcruz.backendarch.core.usermanagement.domain.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-instance cache of the principals built by {@code loadUserByUsername}: the user with its authorities,
+ * loaded by one fetch-join query. Entries are dropped when the user's roles, credentials or status change
+ * (see {@link #invalidate(String)}) and expire after a TTL to pick up changes made by other instances.
+ */
+@Component
+public class PrincipalCache {
+
+	private record Entry(User user, long expiresAt) {
+	}
+
+	private final UserRepository userRepo;
+	private final long ttlMillis;
+	private final int maxEntries;
+
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	public PrincipalCache(final UserRepository userRepo,
+			@Value("${security.principal-cache.ttl:PT5M}") final Duration ttl,
+			@Value("${security.principal-cache.max-entries:10000}") final int maxEntries) {
+		this.userRepo = userRepo;
+		this.ttlMillis = ttl.toMillis();
+		this.maxEntries = maxEntries;
+	}
+
+	public User load(final String username) throws UsernameNotFoundException {
+		final var now = System.currentTimeMillis();
+		final var cached = entries.get(username);
+		if (cached != null && cached.expiresAt() > now) {
+			return cached.user();
+		}
+
+		final long invalidationsBefore = invalidations.get();
+		final var user = userRepo.findByUsername(username).orElseThrow(
+				() -> new UsernameNotFoundException(String.format("User with username - %s, not found", username)));
+		// skip caching if an invalidation raced the load: it may have read the old roles
+		if (invalidations.get() == invalidationsBefore) {
+			if (entries.size() >= maxEntries) {
+				entries.values().removeIf(e -> e.expiresAt() <= now);
+				if (entries.size() >= maxEntries) {
+					entries.clear();
+				}
+			}
+			entries.put(username, new Entry(user, now + ttlMillis));
+		}
+		return user;
+	}
+
+	public void invalidate(final String username) {
+		if (username != null) {
+			invalidations.incrementAndGet();
+			entries.remove(username);
+		}
+	}
+}
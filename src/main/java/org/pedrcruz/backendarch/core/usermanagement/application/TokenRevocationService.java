@@ -0,0 +1,144 @@
+package org.pedrcruz.backendarch.core.usermanagement.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.core.usermanagement.domain.model.IssuedToken;
+import org.pedrcruz.backendarch.core.usermanagement.domain.repositories.IssuedTokenRepository;
+import org.pedrcruz.backendarch.util.security.BloomFilter;
+import org.pedrcruz.backendarch.util.transaction.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks the JWTs issued at login and the ones revoked before they expire (logout, disabled users).
+ * <p>
+ * Revocations are stored in {@code issued_tokens}; every instance mirrors the unexpired revoked ids in
+ * memory as an exact set fronted by a Bloom filter, so checking a token that was not revoked, the common
+ * case, costs a few hash probes and no query. Revocations made by other instances are picked up by
+ * polling the table every few seconds; the filter is rebuilt periodically to forget expired tokens.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+	private static final double FALSE_POSITIVE_RATE = 0.01;
+
+	private final IssuedTokenRepository tokenRepo;
+	private final int expectedRevocations;
+	private final Duration pollOverlap;
+
+	// jti -> expiry of every unexpired revoked token known to this instance
+	private final ConcurrentMap<String, Instant> revoked = new ConcurrentHashMap<>();
+	// guards adding to the filter against swapping it while it is being rebuilt
+	private final Object filterLock = new Object();
+	private volatile BloomFilter filter;
+	private volatile Instant polledUpTo = Instant.EPOCH;
+
+	public TokenRevocationService(final IssuedTokenRepository tokenRepo,
+			@Value("${security.revocation.expected-tokens:100000}") final int expectedRevocations,
+			@Value("${security.revocation.poll-overlap:PT30S}") final Duration pollOverlap) {
+		this.tokenRepo = tokenRepo;
+		this.expectedRevocations = expectedRevocations;
+		this.pollOverlap = pollOverlap;
+		this.filter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+	}
+
+	/**
+	 * Records a token handed out to a user so it can be revoked later.
+	 */
+	@Transactional
+	public void issued(final String jti, final Long userId, final Instant expiresAt) {
+		tokenRepo.save(new IssuedToken(jti, userId, expiresAt));
+	}
+
+	/**
+	 * Revokes one token, e.g. on logout. Tokens this service did not record are revoked all the same.
+	 */
+	@Transactional
+	public void revoke(final String jti, final Long userId, final Instant expiresAt) {
+		final var now = Instant.now();
+		final var token = tokenRepo.findById(jti).orElseGet(() -> new IssuedToken(jti, userId, expiresAt));
+		token.revoke(now);
+		tokenRepo.save(token);
+		TransactionHooks.afterCommit(() -> add(jti, token.getExpiresAt()));
+	}
+
+	/**
+	 * Revokes every unexpired token of a user, e.g. when the account is disabled.
+	 */
+	@Transactional
+	public void revokeAllOf(final Long userId) {
+		final var now = Instant.now();
+		final List<Object[]> live = tokenRepo.findLiveTokensOfUser(userId, now);
+		if (live.isEmpty()) {
+			return;
+		}
+		tokenRepo.revokeAllOfUser(userId, now);
+		TransactionHooks.afterCommit(() -> live.forEach(row -> add((String) row[0], (Instant) row[1])));
+		log.info("Revoked {} tokens of user {}", live.size(), userId);
+	}
+
+	/**
+	 * Whether the token with this id was revoked. Tokens without an id (issued before ids were added)
+	 * cannot be revoked.
+	 */
+	public boolean isRevoked(final String jti) {
+		return jti != null && filter.mightContain(jti) && revoked.containsKey(jti);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void load() {
+		poll();
+		log.info("Loaded {} revoked tokens", revoked.size());
+	}
+
+	/**
+	 * Picks up revocations committed by any instance since the last poll. The window overlaps the previous
+	 * one to tolerate clock differences between instances; re-adding a known id is harmless.
+	 */
+	@Scheduled(fixedDelayString = "${security.revocation.poll-interval:PT5S}",
+			initialDelayString = "${security.revocation.poll-interval:PT5S}")
+	@Transactional(readOnly = true)
+	public void poll() {
+		final var now = Instant.now();
+		final var since = polledUpTo.equals(Instant.EPOCH) ? Instant.EPOCH : polledUpTo.minus(pollOverlap);
+		tokenRepo.findRevokedSince(since, now).forEach(row -> add((String) row[0], (Instant) row[1]));
+		polledUpTo = now;
+	}
+
+	/**
+	 * Forgets expired tokens: rebuilds the filter from the ids still live and deletes expired rows.
+	 */
+	@Scheduled(fixedDelayString = "${security.revocation.prune-interval:PT1H}",
+			initialDelayString = "${security.revocation.prune-interval:PT1H}")
+	@Transactional
+	public void prune() {
+		final var now = Instant.now();
+		synchronized (filterLock) {
+			revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+			final var rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2),
+					FALSE_POSITIVE_RATE);
+			revoked.keySet().forEach(rebuilt::put);
+			filter = rebuilt;
+		}
+		final int deleted = tokenRepo.deleteExpiredBefore(now);
+		log.debug("Pruned revoked tokens: {} live, {} expired rows deleted", revoked.size(), deleted);
+	}
+
+	private void add(final String jti, final Instant expiresAt) {
+		synchronized (filterLock) {
+			revoked.put(jti, expiresAt);
+			filter.put(jti);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package org.pedrcruz.backendarch.core.usermanagement.application;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the user list, which is ordered by {@code (createdAt, id)} descending: the next page
+ * starts with the users that sort after this one. Travels as an opaque URL-safe string.
+ */
+public record UserCursor(LocalDateTime createdAt, Long id) {
+
+	public String encode() {
+		final var raw = createdAt + "," + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+	 */
+	public static UserCursor decode(final String value) {
+		try {
+			final var raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+			final int comma = raw.indexOf(',');
+			return new UserCursor(LocalDateTime.parse(raw.substring(0, comma)), Long.valueOf(raw.substring(comma + 1)));
+		} catch (final IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + value);
+		}
+	}
+
+	/**
+	 * Whether a user with this key comes after the cursor in the list order.
+	 */
+	public boolean precedes(final LocalDateTime otherCreatedAt, final Long otherId) {
+		final int byCreatedAt = otherCreatedAt.compareTo(createdAt);
+		return byCreatedAt < 0 || byCreatedAt == 0 && otherId < id;
+	}
+}
@@ -0,0 +1,163 @@
+package org.pedrcruz.backendarch.core.usermanagement.application;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pedrcruz.backendarch.core.usermanagement.domain.model.User;
+import org.pedrcruz.backendarch.core.usermanagement.domain.repositories.UserRepository;
+import org.pedrcruz.backendarch.util.transaction.TransactionHooks;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Substring search over user full names.
+ * <p>
+ * On PostgreSQL the names are covered by a {@code pg_trgm} GIN index and searches go to the database.
+ * Where that index cannot be created (e.g. H2) this class keeps its own trigram index in memory: each
+ * lower-cased name is split into 3-character grams, each gram maps to the ids of the users containing it,
+ * and a search intersects the posting lists of the pattern's grams before checking the candidates.
+ * Results follow the user list order, {@code (createdAt, id)} descending, and support keyset paging.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserSearchIndex {
+
+	private static final int GRAM = 3;
+
+	private static final Comparator<Entry> LIST_ORDER = Comparator.comparing(Entry::createdAt)
+			.thenComparing(Entry::id)
+			.reversed();
+
+	private record Entry(Long id, LocalDateTime createdAt, String username, String name) {
+	}
+
+	private final UserRepository userRepo;
+
+	private volatile boolean inMemory;
+	private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+	private final Map<String, Long> idsByUsername = new ConcurrentHashMap<>();
+	private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+	// not transactional: the index DDL must not run inside a read-only transaction
+	@EventListener(ApplicationReadyEvent.class)
+	public void init() {
+		if (userRepo.installTrigramIndexes()) {
+			log.info("User name search backed by pg_trgm indexes");
+			return;
+		}
+		for (final Object[] row : userRepo.findSearchRows()) {
+			put(new Entry((Long) row[0], (LocalDateTime) row[1], (String) row[2], normalize((String) row[3])));
+		}
+		inMemory = true;
+		log.info("User name search backed by an in-memory trigram index of {} users", entries.size());
+	}
+
+	/**
+	 * Whether this index, rather than the database, should answer the query.
+	 */
+	public boolean handles(final SearchUsersQuery query) {
+		return inMemory && query != null && StringUtils.hasText(query.getFullName());
+	}
+
+	/**
+	 * Ids of the users whose username equals the query's or whose name contains the query's name, in list
+	 * order, after the cursor (if any), at most {@code limit}.
+	 */
+	public List<Long> search(final SearchUsersQuery query, final UserCursor after, final int limit) {
+		final Set<Long> matches = new HashSet<>(nameMatches(normalize(query.getFullName())));
+		if (StringUtils.hasText(query.getUsername())) {
+			final var id = idsByUsername.get(query.getUsername());
+			if (id != null) {
+				matches.add(id);
+			}
+		}
+		return matches.stream()
+				.map(entries::get)
+				.filter(e -> e != null && (after == null || after.precedes(e.createdAt(), e.id())))
+				.sorted(LIST_ORDER)
+				.limit(limit)
+				.map(Entry::id)
+				.toList();
+	}
+
+	/**
+	 * Reindexes a user once the current transaction commits.
+	 */
+	public void userChanged(final User user) {
+		final var entry = new Entry(user.getId(), user.getCreatedAt(), user.getUsername(),
+				normalize(user.getFullName()));
+		TransactionHooks.afterCommit(() -> {
+			if (inMemory) {
+				put(entry);
+			}
+		});
+	}
+
+	private Collection<Long> nameMatches(final String pattern) {
+		if (pattern.length() < GRAM) {
+			// too short to have a gram: check every name
+			return entries.values().stream().filter(e -> e.name().contains(pattern)).map(Entry::id).toList();
+		}
+		Set<Long> smallest = null;
+		for (final String gram : grams(pattern)) {
+			final var ids = postings.get(gram);
+			if (ids == null) {
+				return List.of();
+			}
+			if (smallest == null || ids.size() < smallest.size()) {
+				smallest = ids;
+			}
+		}
+		final List<Long> ids = new ArrayList<>();
+		for (final Long id : smallest) {
+			final var entry = entries.get(id);
+			// the grams only narrow the candidates; the substring check decides
+			if (entry != null && entry.name().contains(pattern)) {
+				ids.add(id);
+			}
+		}
+		return ids;
+	}
+
+	private synchronized void put(final Entry entry) {
+		final var previous = entries.put(entry.id(), entry);
+		if (previous != null) {
+			idsByUsername.remove(previous.username(), previous.id());
+			for (final String gram : grams(previous.name())) {
+				final var ids = postings.get(gram);
+				if (ids != null) {
+					ids.remove(previous.id());
+				}
+			}
+		}
+		idsByUsername.put(entry.username(), entry.id());
+		for (final String gram : grams(entry.name())) {
+			postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(entry.id());
+		}
+	}
+
+	private static Set<String> grams(final String text) {
+		final Set<String> grams = new HashSet<>();
+		for (int i = 0; i + GRAM <= text.length(); i++) {
+			grams.add(text.substring(i, i + GRAM));
+		}
+		return grams;
+	}
+
+	private static String normalize(final String text) {
+		return text == null ? "" : text.toLowerCase(Locale.ROOT);
+	}
+}
@@ -5,7 +5,10 @@ import lombok.RequiredArgsConstructor;
 import org.pedrcruz.backendarch.exceptions.ConflictException;
 import org.pedrcruz.backendarch.core.usermanagement.domain.model.User;
 import org.pedrcruz.backendarch.core.usermanagement.domain.repositories.UserRepository;
+import org.pedrcruz.backendarch.pagination.KeysetPage;
 import org.pedrcruz.backendarch.pagination.Page;
+import org.pedrcruz.backendarch.util.security.CachingAuthenticationProvider;
+import org.pedrcruz.backendarch.util.transaction.TransactionHooks;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -14,6 +17,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Based on https://github.com/Yoh0xFF/java-spring-security-example
@@ -28,6 +35,14 @@ public class UserService implements UserDetailsService {
 
 	private final PasswordEncoder passwordEncoder;
 
+	private final CachingAuthenticationProvider credentialCache;
+
+	private final TokenRevocationService tokenRevocations;
+
+	private final UserSearchIndex searchIndex;
+
+	private final PrincipalCache principalCache;
+
 	@Transactional
 	public User create(final CreateUserRequest request) {
 		if (userRepo.findByUsername(request.getUsername()).isPresent()) {
@@ -40,22 +55,24 @@ public class UserService implements UserDetailsService {
 		final var user = userEditMapper.create(request);
 		user.setPassword(passwordEncoder.encode(request.getPassword()));
 
-		return userRepo.save(user);
+		return indexed(userRepo.save(user));
 	}
 
 	@Transactional
 	public User update(final Long id, final EditUserRequest request) {
 		final var user = userRepo.getById(id);
 		userEditMapper.update(request, user);
+		credentialsChanged(user.getUsername());
 
-		return userRepo.save(user);
+		return indexed(userRepo.save(user));
 	}
 
 	@Transactional
 	public User update(final Long id, final EditUserRequest request, final Long version) {
 			final var user = userRepo.getByIdAndVersion(id, version);
 			userEditMapper.update(request, user);
-			return userRepo.save(user);
+			credentialsChanged(user.getUsername());
+			return indexed(userRepo.save(user));
 	}
 
 	@Transactional
@@ -72,21 +89,42 @@ public class UserService implements UserDetailsService {
 	@Transactional
 	public User delete(final Long id) {
 		final var user = userRepo.getById(id);
+		credentialsChanged(user.getUsername());
+		tokenRevocations.revokeAllOf(user.getId());
 		user.anonymizeAndDisable();
-		return userRepo.save(user);
+		return indexed(userRepo.save(user));
 	}
 
 	@Transactional
 	public User delete(final Long id, final Long version) {
 			final var user = userRepo.getByIdAndVersion(id, version);
+			credentialsChanged(user.getUsername());
+			tokenRevocations.revokeAllOf(user.getId());
 			user.anonymizeAndDisable();
-			return userRepo.save(user);
+			return indexed(userRepo.save(user));
+	}
+
+	/**
+	 * Drops the user's cached authentication and principal now and again after commit, so a request
+	 * racing the transaction cannot re-cache the old state (e.g. the roles before an edit).
+	 */
+	private void credentialsChanged(final String username) {
+		credentialCache.invalidate(username);
+		principalCache.invalidate(username);
+		TransactionHooks.afterCommit(() -> {
+			credentialCache.invalidate(username);
+			principalCache.invalidate(username);
+		});
+	}
+
+	private User indexed(final User user) {
+		searchIndex.userChanged(user);
+		return user;
 	}
 
 	@Override
 	public UserDetails loadUserByUsername(final String username) throws UsernameNotFoundException {
-		return userRepo.findByUsername(username).orElseThrow(
-				() -> new UsernameNotFoundException(String.format("User with username - %s, not found", username)));
+		return principalCache.load(username);
 	}
 
 	public boolean usernameExists(final String username) {
@@ -104,6 +142,39 @@ public class UserService implements UserDetailsService {
 		if (query == null) {
 			query = new SearchUsersQuery("", "");
 		}
+		if (searchIndex.handles(query)) {
+			final int offset = (page.getNumber() - 1) * page.getLimit();
+			final var users = load(searchIndex.search(query, null, offset + page.getLimit()));
+			return users.subList(Math.min(offset, users.size()), users.size());
+		}
 		return userRepo.searchUsers(page, query);
 	}
+
+	/**
+	 * Keyset-paginated search in {@code (createdAt, id)} descending order.
+	 *
+	 * @param after the {@code next} cursor of the previous page, or null for the first page
+	 */
+	public KeysetPage<User> searchUsers(final SearchUsersQuery query, final String after, final int limit) {
+		final var cursor = after == null || after.isBlank() ? null : UserCursor.decode(after);
+		// one extra row tells whether there is a next page
+		final List<User> users = searchIndex.handles(query)
+				? load(searchIndex.search(query, cursor, limit + 1))
+				: userRepo.searchUsersAfter(query, cursor, limit + 1);
+
+		if (users.size() <= limit) {
+			return new KeysetPage<>(users, null);
+		}
+		final var last = users.get(limit - 1);
+		return new KeysetPage<>(users.subList(0, limit), new UserCursor(last.getCreatedAt(), last.getId()).encode());
+	}
+
+	/**
+	 * Loads users by id, keeping the order of the ids.
+	 */
+	private List<User> load(final List<Long> ids) {
+		final Map<Long, User> byId = userRepo.findByIdIn(ids).stream()
+				.collect(Collectors.toMap(User::getId, Function.identity()));
+		return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+	}
 }
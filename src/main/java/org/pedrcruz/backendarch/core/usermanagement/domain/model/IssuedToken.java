@@ -0,0 +1,70 @@
+package org.pedrcruz.backendarch.core.usermanagement.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A JWT handed out by the login endpoint, identified by its {@code jti}. A token stays valid until it
+ * expires unless it is revoked (logout, user disabled).
+ */
+@Entity
+@Table(name = "issued_tokens", indexes = {
+		@Index(name = "idx_issued_tokens_user_id", columnList = "user_id"),
+		@Index(name = "idx_issued_tokens_revoked_at", columnList = "revoked_at")
+})
+public class IssuedToken implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Column(length = 36)
+	@Getter
+	private String jti;
+
+	@Getter
+	@Column(name = "user_id")
+	private Long userId;
+
+	@Getter
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+
+	@Getter
+	@Column(name = "revoked_at")
+	private Instant revokedAt;
+
+	protected IssuedToken() {
+		// for ORM
+	}
+
+	public IssuedToken(final String jti, final Long userId, final Instant expiresAt) {
+		if (jti == null) {
+			throw new IllegalArgumentException("Token id cannot be null");
+		}
+		if (expiresAt == null) {
+			throw new IllegalArgumentException("Expiry cannot be null");
+		}
+		this.jti = jti;
+		this.userId = userId;
+		this.expiresAt = expiresAt;
+	}
+
+	public boolean isRevoked() {
+		return revokedAt != null;
+	}
+
+	public void revoke(final Instant now) {
+		if (revokedAt == null) {
+			revokedAt = now;
+		}
+	}
+}
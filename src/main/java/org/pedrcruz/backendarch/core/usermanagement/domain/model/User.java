@@ -7,6 +7,7 @@
 	import jakarta.validation.constraints.NotNull;
 	import lombok.Getter;
 	import lombok.Setter;
+	import org.hibernate.annotations.BatchSize;
 	import org.springframework.data.annotation.CreatedBy;
 	import org.springframework.data.annotation.CreatedDate;
 	import org.springframework.data.annotation.LastModifiedBy;
@@ -26,7 +27,10 @@
 	 *
 	 */
 	@Entity
-	@Table(name = "T_USER")
+	@Table(name = "T_USER", indexes = {
+			// keyset paging of the user list
+			@Index(name = "idx_t_user_created_at_id", columnList = "created_at DESC, id DESC")
+	})
 	@EntityListeners(AuditingEntityListener.class)
 	public class User implements UserDetails{
 
@@ -87,7 +91,9 @@
 		@Setter
 		private String fullName;
 
+		// loaded for up to 50 users per query wherever a listing did not fetch them already
 		@ElementCollection
+		@BatchSize(size = 50)
 		@Getter
 		private final Set<Role> authorities = new HashSet<>();
 
@@ -0,0 +1,31 @@
+package org.pedrcruz.backendarch.core.usermanagement.domain.repositories;
+
+import org.pedrcruz.backendarch.core.usermanagement.domain.model.IssuedToken;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface IssuedTokenRepository {
+
+	<S extends IssuedToken> S save(S entity);
+
+	Optional<IssuedToken> findById(String jti);
+
+	/**
+	 * Unexpired, unrevoked tokens of a user, as rows {@code [jti, expiresAt]}.
+	 */
+	List<Object[]> findLiveTokensOfUser(Long userId, Instant now);
+
+	/**
+	 * Revokes every unexpired token of a user; returns the number of tokens revoked.
+	 */
+	int revokeAllOfUser(Long userId, Instant now);
+
+	/**
+	 * Unexpired tokens revoked at or after {@code since}, as rows {@code [jti, expiresAt]}.
+	 */
+	List<Object[]> findRevokedSince(Instant since, Instant now);
+
+	int deleteExpiredBefore(Instant instant);
+}
@@ -3,10 +3,12 @@ package org.pedrcruz.backendarch.core.usermanagement.domain.repositories;
 import org.pedrcruz.backendarch.exceptions.NotFoundException;
 import org.pedrcruz.backendarch.pagination.Page;
 import org.pedrcruz.backendarch.core.usermanagement.application.SearchUsersQuery;
+import org.pedrcruz.backendarch.core.usermanagement.application.UserCursor;
 import org.pedrcruz.backendarch.core.usermanagement.domain.model.User;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,4 +49,25 @@ public interface UserRepository {
 	Optional<User> findByUsername(String username);
 
 	List<User> searchUsers(Page page, SearchUsersQuery query);
+
+	/**
+	 * Keyset variant of {@link #searchUsers(Page, SearchUsersQuery)}: the first {@code limit} matches, in
+	 * {@code (createdAt, id)} descending order, after the cursor (from the start if null).
+	 */
+	List<User> searchUsersAfter(SearchUsersQuery query, UserCursor after, int limit);
+
+	List<User> findByIdIn(Collection<Long> ids);
+
+	/**
+	 * All users as rows {@code [id, createdAt, username, fullName]}, for in-memory indexing.
+	 */
+	List<Object[]> findSearchRows();
+
+	/**
+	 * Creates the trigram indexes that make name substring searches index-backed, if the database
+	 * supports them (PostgreSQL with {@code pg_trgm}).
+	 *
+	 * @return whether name searches are index-backed
+	 */
+	boolean installTrigramIndexes();
 }
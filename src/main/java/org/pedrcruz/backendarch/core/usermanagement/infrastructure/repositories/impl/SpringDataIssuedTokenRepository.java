@@ -0,0 +1,39 @@
+package org.pedrcruz.backendarch.core.usermanagement.infrastructure.repositories.impl;
+
+import org.pedrcruz.backendarch.core.usermanagement.domain.model.IssuedToken;
+import org.pedrcruz.backendarch.core.usermanagement.domain.repositories.IssuedTokenRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data repository for issued (and revoked) JWTs
+ */
+@Repository
+public interface SpringDataIssuedTokenRepository extends IssuedTokenRepository, CrudRepository<IssuedToken, String> {
+
+	@Override
+	@Query("SELECT t.jti, t.expiresAt FROM IssuedToken t "
+			+ "WHERE t.userId = :userId AND t.expiresAt > :now AND t.revokedAt IS NULL")
+	List<Object[]> findLiveTokensOfUser(@Param("userId") Long userId, @Param("now") Instant now);
+
+	@Override
+	@Modifying
+	@Query("UPDATE IssuedToken t SET t.revokedAt = :now "
+			+ "WHERE t.userId = :userId AND t.expiresAt > :now AND t.revokedAt IS NULL")
+	int revokeAllOfUser(@Param("userId") Long userId, @Param("now") Instant now);
+
+	@Override
+	@Query("SELECT t.jti, t.expiresAt FROM IssuedToken t WHERE t.revokedAt >= :since AND t.expiresAt > :now")
+	List<Object[]> findRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+	@Override
+	@Modifying
+	@Query("DELETE FROM IssuedToken t WHERE t.expiresAt < :instant")
+	int deleteExpiredBefore(@Param("instant") Instant instant);
+}
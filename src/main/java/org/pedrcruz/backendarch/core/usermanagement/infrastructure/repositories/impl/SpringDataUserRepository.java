@@ -2,28 +2,43 @@ package org.pedrcruz.backendarch.core.usermanagement.infrastructure.repositories
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.pedrcruz.backendarch.exceptions.NotFoundException;
 import org.pedrcruz.backendarch.pagination.Page;
 import org.pedrcruz.backendarch.core.usermanagement.application.SearchUsersQuery;
+import org.pedrcruz.backendarch.core.usermanagement.application.UserCursor;
 import org.pedrcruz.backendarch.core.usermanagement.domain.model.User;
 import org.pedrcruz.backendarch.core.usermanagement.domain.repositories.UserRepository;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Based on https://github.com/Yoh0xFF/java-spring-security-example
@@ -47,6 +62,7 @@ public interface SpringDataUserRepository extends UserRepository, UserRepoCustom
 	 */
 	@Override
 	@Cacheable
+	@EntityGraph(attributePaths = "authorities")
 	Optional<User> findById(Long objectId);
 
 	/**
@@ -66,8 +82,17 @@ public interface SpringDataUserRepository extends UserRepository, UserRepoCustom
 
 	@Override
 	@Cacheable
+	@EntityGraph(attributePaths = "authorities")
 	Optional<User> findByUsername(String username);
 
+	@Override
+	@EntityGraph(attributePaths = "authorities")
+	List<User> findByIdIn(Collection<Long> ids);
+
+	@Override
+	@Query("SELECT u.id, u.createdAt, u.username, u.fullName FROM User u")
+	List<Object[]> findSearchRows();
+
 	/**
 	 * Get a user by ID and check its version matches the expected version
 	 * @param id The user ID
@@ -98,6 +123,10 @@ public interface SpringDataUserRepository extends UserRepository, UserRepoCustom
 interface UserRepoCustom {
 
 	List<User> searchUsers(Page page, SearchUsersQuery query);
+
+	List<User> searchUsersAfter(SearchUsersQuery query, UserCursor after, int limit);
+
+	boolean installTrigramIndexes();
 }
 
 /**
@@ -107,39 +136,117 @@ interface UserRepoCustom {
  *
  */
 @RequiredArgsConstructor
+@Slf4j
 class UserRepoCustomImpl implements UserRepoCustom {
 
 	// get the underlying JPA Entity Manager via spring thru constructor dependency
 	// injection
 	private final EntityManager em;
 
+	// plain JDBC for the PostgreSQL-specific index DDL
+	private final JdbcTemplate jdbcTemplate;
+
 	@Override
 	public List<User> searchUsers(final Page page, final SearchUsersQuery query) {
 
 		final var cb = em.getCriteriaBuilder();
-		final CriteriaQuery<User> cq = cb.createQuery(User.class);
+		final CriteriaQuery<Long> cq = cb.createQuery(Long.class);
 		final Root<User> root = cq.from(User.class);
-		cq.select(root);
+		cq.select(root.get("id"));
 
-		final List<Predicate> where = new ArrayList<>();
-		if (StringUtils.hasText(query.getUsername())) {
-			where.add(cb.equal(root.get("username"), query.getUsername()));
-		}
-		if (StringUtils.hasText(query.getFullName())) {
-			where.add(cb.like(root.get("fullName"), "%" + query.getFullName() + "%"));
-		}
+		final List<Predicate> where = matching(cb, root, query);
 
 		// search using OR
 		if (!where.isEmpty()) {
 			cq.where(cb.or(where.toArray(new Predicate[0])));
 		}
 
-		cq.orderBy(cb.desc(root.get("createdAt")));
+		cq.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
 
-		final TypedQuery<User> q = em.createQuery(cq);
+		final TypedQuery<Long> q = em.createQuery(cq);
 		q.setFirstResult((page.getNumber() - 1) * page.getLimit());
 		q.setMaxResults(page.getLimit());
 
-		return q.getResultList();
+		return withAuthorities(q.getResultList());
+	}
+
+	@Override
+	public List<User> searchUsersAfter(final SearchUsersQuery query, final UserCursor after, final int limit) {
+		final var cb = em.getCriteriaBuilder();
+		final CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		final Root<User> root = cq.from(User.class);
+		cq.select(root.get("id"));
+
+		final List<Predicate> where = new ArrayList<>();
+		final List<Predicate> matching = matching(cb, root, query);
+		if (!matching.isEmpty()) {
+			where.add(cb.or(matching.toArray(new Predicate[0])));
+		}
+		// seek past the cursor on the (created_at, id) index instead of skipping rows
+		if (after != null) {
+			where.add(cb.or(
+					cb.lessThan(root.<LocalDateTime>get("createdAt"), after.createdAt()),
+					cb.and(cb.equal(root.get("createdAt"), after.createdAt()),
+							cb.lessThan(root.<Long>get("id"), after.id()))));
+		}
+		cq.where(where.toArray(new Predicate[0]));
+		cq.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+
+		return withAuthorities(em.createQuery(cq).setMaxResults(limit).getResultList());
+	}
+
+	/**
+	 * Loads the users of a page with their authorities in one fetch-join query, in the order of the ids.
+	 * Paging selects ids first because paging over a collection fetch join would happen in memory.
+	 */
+	private List<User> withAuthorities(final List<Long> ids) {
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		final Map<Long, User> byId = em.createQuery(
+						"SELECT u FROM User u LEFT JOIN FETCH u.authorities WHERE u.id IN :ids", User.class)
+				.setParameter("ids", ids)
+				.getResultStream()
+				.collect(Collectors.toMap(User::getId, Function.identity(), (a, b) -> a));
+		return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+	}
+
+	@Override
+	public boolean installTrigramIndexes() {
+		try {
+			final String product = jdbcTemplate.execute(
+					(ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+			if (!"PostgreSQL".equalsIgnoreCase(product)) {
+				return false;
+			}
+			jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+			// matches the lower(full_name) LIKE '%...%' predicate built by matching()
+			jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_t_user_full_name_trgm "
+					+ "ON t_user USING gin (lower(full_name) gin_trgm_ops)");
+			return true;
+		} catch (final DataAccessException e) {
+			log.warn("Unable to create trigram indexes, user name search falls back to memory: {}", e.getMessage());
+			return false;
+		}
+	}
+
+	private static List<Predicate> matching(final CriteriaBuilder cb, final Root<User> root,
+			final SearchUsersQuery query) {
+		final List<Predicate> where = new ArrayList<>();
+		if (query == null) {
+			return where;
+		}
+		if (StringUtils.hasText(query.getUsername())) {
+			where.add(cb.equal(root.get("username"), query.getUsername()));
+		}
+		if (StringUtils.hasText(query.getFullName())) {
+			final var pattern = "%" + escapeLike(query.getFullName().toLowerCase(Locale.ROOT)) + "%";
+			where.add(cb.like(cb.lower(root.<String>get("fullName")), pattern, '\\'));
+		}
+		return where;
+	}
+
+	private static String escapeLike(final String text) {
+		return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
 	}
 }
@@ -37,7 +37,8 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
 	private final Logger logger = LogManager.getLogger();
 
-	@ExceptionHandler(value = { org.hibernate.StaleObjectStateException.class, ConflictException.class })
+	@ExceptionHandler(value = { org.hibernate.StaleObjectStateException.class,
+			org.springframework.orm.ObjectOptimisticLockingFailureException.class, ConflictException.class })
 	@ResponseStatus(HttpStatus.CONFLICT)
 	protected ResponseEntity<Object> handleConflict(final HttpServletRequest request, final Exception ex) {
 		logger.error("ConflictException {}\n", request.getRequestURI(), ex);
@@ -159,6 +160,17 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 				.body(new ApiCallError<>("Access denied!", List.of(ex.getMessage())));
 	}
 
+	@ExceptionHandler(TooManyAttemptsException.class)
+	@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+	public ResponseEntity<ApiCallError<String>> handleTooManyAttemptsException(final HttpServletRequest request,
+			final TooManyAttemptsException ex) {
+		logger.warn("TooManyAttemptsException {}: {}", request.getRequestURI(), ex.getMessage());
+
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+				.body(new ApiCallError<>("Too many requests", List.of(ex.getMessage())));
+	}
+
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<ApiResponse<Void>> handleGenericException(Exception ex, WebRequest request) {
         logger.error("Unexpected error occurred", ex);
@@ -0,0 +1,25 @@
+package org.pedrcruz.backendarch.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a credential check is refused because the caller exceeded its attempt budget
+ * or password hashing is saturated. It is an {@link AuthenticationException} so it travels through the
+ * authentication providers; it maps to 429 with a Retry-After hint.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyAttemptsException extends AuthenticationException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
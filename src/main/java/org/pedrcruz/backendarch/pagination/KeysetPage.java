@@ -0,0 +1,10 @@
+package org.pedrcruz.backendarch.pagination;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing: the items and the opaque cursor of the next page, null on the
+ * last page.
+ */
+public record KeysetPage<T>(List<T> items, String next) {
+}
@@ -1,9 +1,13 @@
 package org.pedrcruz.backendarch.util.api;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Optional;
+import java.util.function.Supplier;
+
 /**
  *
  * @author Paulo Gandra Sousa 14/07/2023.
@@ -24,10 +28,14 @@ public class AbstractResource {
 	}
 
 	protected Long getVersionFromIfMatchHeader(final String ifMatchHeader) {
-		if (ifMatchHeader.startsWith("\"")) {
-			return Long.parseLong(ifMatchHeader.substring(1, ifMatchHeader.length() - 1));
-		}
-		return Long.parseLong(ifMatchHeader);
+		// our tags are weak (see etagOf), but the version in them is exact, so writes compare it as is
+		final var value = ifMatchHeader.startsWith("W/") ? ifMatchHeader.substring(2) : ifMatchHeader;
+		final var tag = value.startsWith("\"")
+				? value.substring(1, value.length() - 1)
+				: value;
+		// only the version counts for writes, not the suffix of derived content (see etagOf(long, String))
+		final int suffix = tag.indexOf('-');
+		return Long.parseLong(suffix > 0 ? tag.substring(0, suffix) : tag);
 	}
 
 	protected String ensureIfMatchHeader(final WebRequest request) {
@@ -39,4 +47,53 @@ public class AbstractResource {
 		return ifMatchValue;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * The version a client expects when it sends an optional {@code If-Match}; {@code null} when the header
+	 * is absent or {@code *}, i.e. the write is unconditional.
+	 */
+	protected Long getOptionalIfMatchVersion(final WebRequest request) {
+		final var ifMatchValue = request.getHeader(HttpHeaders.IF_MATCH);
+		if (ifMatchValue == null || ifMatchValue.isEmpty() || "*".equals(ifMatchValue.trim())) {
+			return null;
+		}
+		try {
+			return getVersionFromIfMatchHeader(ifMatchValue.trim());
+		} catch (final NumberFormatException e) {
+			// not one of our entity tags (e.g. a list value), so it cannot match the current one
+			throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+					"Resource has been modified by another user. Please refresh and try again.");
+		}
+	}
+
+	/**
+	 * Entity tag of a versioned resource, in the form {@link #getVersionFromIfMatchHeader} parses. Weak, as
+	 * the same version is served both plain and gzip-compressed, and Tomcat does not compress a response
+	 * that carries a strong tag.
+	 */
+	public static String etagOf(final long version) {
+		return "W/\"" + version + "\"";
+	}
+
+	/**
+	 * Entity tag of a versioned resource whose representation also carries content that changes without
+	 * the version moving (e.g. counters kept elsewhere); {@code derived} must change whenever that content
+	 * does.
+	 */
+	public static String etagOf(final long version, final String derived) {
+		return "W/\"" + version + "-" + derived + "\"";
+	}
+
+	/**
+	 * Answers a conditional GET without loading the resource. Only when the request carries
+	 * {@code If-None-Match} is the current tag computed (typically from a version-only query); if it matches,
+	 * the response is marked {@code 304 Not Modified} and the handler should return that status without
+	 * loading anything else. An unknown resource is left to the normal lookup, which reports it.
+	 */
+	protected boolean checkNotModified(final WebRequest request, final Supplier<Optional<String>> etag) {
+		if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+			return false;
+		}
+		final var current = etag.get();
+		return current.isPresent() && request.checkNotModified(current.get());
+	}
+}
@@ -0,0 +1,86 @@
+package org.pedrcruz.backendarch.util.api;
+
+import jakarta.persistence.Tuple;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The fields a client asked for with {@code ?fields=id,name,price}. An absent or blank parameter selects
+ * every field, in which case endpoints answer exactly as without the parameter.
+ */
+public final class FieldSelection {
+
+	public static final FieldSelection ALL = new FieldSelection(null);
+
+	// null when all fields are selected; otherwise in request order
+	private final Set<String> fields;
+
+	private FieldSelection(final Set<String> fields) {
+		this.fields = fields;
+	}
+
+	/**
+	 * Parses a comma-separated field list; names outside {@code known} are rejected with an
+	 * {@link IllegalArgumentException} (400 Bad Request).
+	 */
+	public static FieldSelection parse(final String fields, final Collection<String> known) {
+		if (fields == null || fields.isBlank()) {
+			return ALL;
+		}
+		final Set<String> selected = new LinkedHashSet<>();
+		for (final String field : fields.split(",")) {
+			final var name = field.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			if (!known.contains(name)) {
+				throw new IllegalArgumentException("Unknown field '" + name + "'; expected any of " + known);
+			}
+			selected.add(name);
+		}
+		return selected.isEmpty() ? ALL : new FieldSelection(Collections.unmodifiableSet(selected));
+	}
+
+	public boolean isAll() {
+		return fields == null;
+	}
+
+	public boolean includes(final String field) {
+		return fields == null || fields.contains(field);
+	}
+
+	public boolean includesAny(final String... candidates) {
+		for (final String candidate : candidates) {
+			if (includes(candidate)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The selected field names; only meaningful when not {@link #isAll()}.
+	 */
+	public Set<String> fields() {
+		return fields != null ? fields : Set.of();
+	}
+
+	/**
+	 * The selected fields of a tuple whose elements are aliased by field name, in selection order.
+	 */
+	public Map<String, Object> pick(final Tuple row) {
+		final Map<String, Object> picked = new LinkedHashMap<>();
+		fields().forEach(field -> picked.put(field, row.get(field)));
+		return picked;
+	}
+
+	@Override
+	public String toString() {
+		return fields == null ? "all" : String.join(",", fields);
+	}
+}
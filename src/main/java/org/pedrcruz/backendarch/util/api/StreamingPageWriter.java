@@ -0,0 +1,170 @@
+package org.pedrcruz.backendarch.util.api;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.pedrcruz.backendarch.api.dto.ApiResponse;
+import org.pedrcruz.backendarch.api.dto.PagedResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Writes an {@code ApiResponse<PagedResponse<T>>} to the response while its content is still being read,
+ * so a large page is serialized element by element instead of being collected into a list first.
+ * <p>
+ * The envelope is rendered by the application's {@link ObjectMapper} with an empty page, so it has the same
+ * fields, order and formatting as a regular response; only {@code data.content} is written incrementally.
+ * The format follows the Accept header like the message converters do: CBOR or Smile when asked for,
+ * JSON otherwise.
+ * Once the first bytes are sent the status can no longer change: a failure halfway leaves a truncated body.
+ */
+@Component
+public class StreamingPageWriter {
+
+	private static final String DATA = "data";
+	private static final String CONTENT = "content";
+
+	private record Format(MediaType mediaType, ObjectMapper objectMapper) {
+	}
+
+	private final Format json;
+	private final List<Format> binary;
+
+	public StreamingPageWriter(final ObjectMapper objectMapper, final MappingJackson2CborHttpMessageConverter cbor,
+			final MappingJackson2SmileHttpMessageConverter smile) {
+		this.json = new Format(MediaType.APPLICATION_JSON, objectMapper);
+		this.binary = List.of(formatOf(cbor), formatOf(smile));
+	}
+
+	/**
+	 * Writes a 200 response whose content is whatever {@code content} passes to the sink it is given, in
+	 * that order. If {@code content} fails the document is left unterminated, so clients see a broken body
+	 * rather than a well-formed but incomplete page.
+	 */
+	public <T> void write(final HttpServletRequest request, final HttpServletResponse response, final int page,
+			final int size, final long totalElements, final String message, final Consumer<Consumer<T>> content)
+			throws IOException {
+		final var format = negotiate(request.getHeader(HttpHeaders.ACCEPT));
+		final var objectMapper = format.objectMapper();
+		final ObjectNode envelope = objectMapper.valueToTree(
+				ApiResponse.success(PagedResponse.of(List.of(), page, size, totalElements), message));
+
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(format.mediaType().toString());
+		final boolean textual = format == json;
+		if (textual) {
+			response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		}
+
+		final var generator = objectMapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+		if (textual && objectMapper.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+			generator.useDefaultPrettyPrinter();
+		}
+
+		// fields after data.content, written once the content is complete
+		final List<Map.Entry<String, JsonNode>> pageTail = new ArrayList<>();
+		final List<Map.Entry<String, JsonNode>> envelopeTail = new ArrayList<>();
+
+		generator.writeStartObject();
+		final var fields = envelope.fields();
+		while (fields.hasNext()) {
+			final var field = fields.next();
+			if (!DATA.equals(field.getKey())) {
+				writeField(generator, field);
+				continue;
+			}
+			generator.writeFieldName(DATA);
+			generator.writeStartObject();
+			final var pageFields = field.getValue().fields();
+			while (pageFields.hasNext()) {
+				final var pageField = pageFields.next();
+				if (CONTENT.equals(pageField.getKey())) {
+					break;
+				}
+				writeField(generator, pageField);
+			}
+			pageFields.forEachRemaining(pageTail::add);
+			fields.forEachRemaining(envelopeTail::add);
+		}
+		generator.writeFieldName(CONTENT);
+		generator.writeStartArray();
+
+		content.accept(element -> {
+			try {
+				generator.writeObject(element);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+
+		generator.writeEndArray();
+		for (final var field : pageTail) {
+			writeField(generator, field);
+		}
+		generator.writeEndObject();
+		for (final var field : envelopeTail) {
+			writeField(generator, field);
+		}
+		generator.writeEndObject();
+		generator.close();
+	}
+
+	/**
+	 * The most preferred acceptable format; JSON for wildcards, a missing or unreadable header, or types we
+	 * do not produce.
+	 */
+	private Format negotiate(final String accept) {
+		if (accept == null) {
+			return json;
+		}
+		final List<MediaType> accepted;
+		try {
+			accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+		} catch (final InvalidMediaTypeException e) {
+			return json;
+		}
+		MimeTypeUtils.sortBySpecificity(accepted);
+		for (final var type : accepted) {
+			if (type.isWildcardType() || type.isCompatibleWith(json.mediaType())) {
+				return json;
+			}
+			for (final var format : binary) {
+				if (type.isCompatibleWith(format.mediaType())) {
+					return format;
+				}
+			}
+		}
+		return json;
+	}
+
+	private static Format formatOf(final AbstractJackson2HttpMessageConverter converter) {
+		return new Format(converter.getSupportedMediaTypes().get(0), converter.getObjectMapper());
+	}
+
+	private static void writeField(final JsonGenerator generator, final Map.Entry<String, JsonNode> field)
+			throws IOException {
+		generator.writeFieldName(field.getKey());
+		generator.writeTree(field.getValue());
+	}
+}
@@ -0,0 +1,8 @@
+package org.pedrcruz.backendarch.util.api;
+
+/**
+ * A response body together with the entity tag of the state it was built from. Cached bodies are kept
+ * this way so that a body is never sent with a tag newer than the one it matches.
+ */
+public record Tagged<T>(String etag, T body) {
+}
@@ -0,0 +1,219 @@
+package org.pedrcruz.backendarch.util.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory cache with single-flight loading, per-entry expiry and stale-while-refresh.
+ * <p>
+ * For {@code @Cacheable(sync = true)} reads, concurrent misses on one key share a single call to the
+ * loader: the first caller runs it, the others wait for its result. An entry is fresh for {@code ttl}
+ * after it was loaded; once expired it is still returned for a short grace period while one background
+ * load replaces it, so expiry does not send every reader to the database at once. Past the grace period
+ * it is loaded again synchronously.
+ * <p>
+ * Writes never leave their readers on old data: {@link #evict(Object)} and {@link #clear()} drop entries
+ * outright, and a load that was in flight when the cache was cleared does not store its result. The store
+ * holds at most {@code maxEntries} keys.
+ * <p>
+ * Publishes {@code cache.coalesced.requests} (callers that waited on another caller's load) and
+ * {@code cache.stale.served} (reads answered from an expired entry), tagged with the cache name.
+ */
+@Slf4j
+public class CoalescingCache extends AbstractValueAdaptingCache {
+
+	private record Entry(Object value, long loadedAt) {
+	}
+
+	private final String name;
+	private final ConcurrentMap<Object, Entry> store = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final Executor refreshExecutor;
+	private final long ttlMillis;
+	private final long staleMillis;
+	private final int maxEntries;
+	private final LongSupplier clock;
+
+	// bumped by clear(); a load started under an older generation must not store its result
+	private final AtomicLong generation = new AtomicLong();
+
+	private final Counter coalesced;
+	private final Counter staleServed;
+
+	public CoalescingCache(final String name, final Executor refreshExecutor, final Duration ttl,
+			final Duration staleWhileRefresh, final int maxEntries, final MeterRegistry meterRegistry) {
+		this(name, refreshExecutor, ttl, staleWhileRefresh, maxEntries, meterRegistry, System::currentTimeMillis);
+	}
+
+	CoalescingCache(final String name, final Executor refreshExecutor, final Duration ttl,
+			final Duration staleWhileRefresh, final int maxEntries, final MeterRegistry meterRegistry,
+			final LongSupplier clock) {
+		super(true);
+		this.name = name;
+		this.refreshExecutor = refreshExecutor;
+		this.ttlMillis = ttl.toMillis();
+		this.staleMillis = staleWhileRefresh.toMillis();
+		this.maxEntries = maxEntries;
+		this.clock = clock;
+		this.coalesced = Counter.builder("cache.coalesced.requests")
+				.description("Cache misses that waited for a load already in flight for the same key")
+				.tag("cache", name)
+				.register(meterRegistry);
+		this.staleServed = Counter.builder("cache.stale.served")
+				.description("Reads answered from an expired entry while it was being refreshed")
+				.tag("cache", name)
+				.register(meterRegistry);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return store;
+	}
+
+	/**
+	 * Plain lookups (non-sync {@code @Cacheable}) only see fresh entries, since they cannot trigger a
+	 * refresh.
+	 */
+	@Override
+	protected Object lookup(final Object key) {
+		final var entry = store.get(key);
+		return entry != null && ageOf(entry) < ttlMillis ? entry.value() : null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(final Object key, final Callable<T> valueLoader) {
+		final var entry = store.get(key);
+		if (entry != null) {
+			final long age = ageOf(entry);
+			if (age < ttlMillis) {
+				return (T) fromStoreValue(entry.value());
+			}
+			if (age < ttlMillis + staleMillis) {
+				staleServed.increment();
+				refreshInBackground(key, entry, valueLoader);
+				return (T) fromStoreValue(entry.value());
+			}
+		}
+
+		final var mine = new CompletableFuture<Object>();
+		final var existing = inFlight.putIfAbsent(key, mine);
+		if (existing != null) {
+			coalesced.increment();
+			return (T) fromStoreValue(await(existing));
+		}
+		load(key, valueLoader, mine);
+		return (T) fromStoreValue(await(mine));
+	}
+
+	@Override
+	public void put(final Object key, final Object value) {
+		store(key, new Entry(toStoreValue(value), clock.getAsLong()));
+	}
+
+	@Override
+	public void evict(final Object key) {
+		// a load in flight for this key must not store its (possibly outdated) result
+		inFlight.remove(key);
+		store.remove(key);
+	}
+
+	@Override
+	public void clear() {
+		// bump first: a load finishing from here on sees the new generation and drops its result
+		generation.incrementAndGet();
+		inFlight.clear();
+		store.clear();
+	}
+
+	@Override
+	public boolean invalidate() {
+		final boolean notEmpty = !store.isEmpty();
+		inFlight.clear();
+		store.clear();
+		return notEmpty;
+	}
+
+	private void refreshInBackground(final Object key, final Entry stale, final Callable<?> valueLoader) {
+		final var mine = new CompletableFuture<Object>();
+		if (inFlight.putIfAbsent(key, mine) != null) {
+			return;
+		}
+		try {
+			refreshExecutor.execute(() -> {
+				load(key, valueLoader, mine);
+				if (mine.isCompletedExceptionally()) {
+					// let the next reader load synchronously and see the failure (e.g. a 404 once deleted)
+					store.remove(key, stale);
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			// refresh pool saturated: keep serving the stale value, a later read retries
+			inFlight.remove(key, mine);
+		}
+	}
+
+	private void load(final Object key, final Callable<?> valueLoader, final CompletableFuture<Object> future) {
+		final long loadGeneration = generation.get();
+		try {
+			final var value = toStoreValue(valueLoader.call());
+			if (inFlight.remove(key, future) && generation.get() == loadGeneration) {
+				final var entry = new Entry(value, clock.getAsLong());
+				store(key, entry);
+				if (generation.get() != loadGeneration) {
+					// cleared while storing: the value may predate the write that cleared the cache
+					store.remove(key, entry);
+				}
+			}
+			future.complete(value);
+		} catch (final Throwable ex) {
+			inFlight.remove(key, future);
+			log.debug("Loading {} into cache '{}' failed", key, name, ex);
+			future.completeExceptionally(new ValueRetrievalException(key, valueLoader, ex));
+		}
+	}
+
+	private void store(final Object key, final Entry entry) {
+		if (store.size() >= maxEntries && !store.containsKey(key)) {
+			store.values().removeIf(e -> ageOf(e) >= ttlMillis + staleMillis);
+			if (store.size() >= maxEntries) {
+				// crude bound: start over rather than track recency, the next reads reload
+				store.clear();
+			}
+		}
+		store.put(key, entry);
+	}
+
+	private long ageOf(final Entry entry) {
+		return clock.getAsLong() - entry.loadedAt();
+	}
+
+	private static Object await(final CompletableFuture<Object> future) {
+		try {
+			return future.join();
+		} catch (final CompletionException e) {
+			if (e.getCause() instanceof ValueRetrievalException retrieval) {
+				throw retrieval;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package org.pedrcruz.backendarch.util.jdbc;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most as many callers to the connection pool as it has connections; the rest wait, in
+ * arrival order, on a semaphore. With virtual threads this turns thousands of concurrent requests into a
+ * cheap queue of parked threads instead of a crowd spinning in the pool until its connection timeout.
+ * <p>
+ * A permit is held from {@code getConnection} until the connection is closed (returned to the pool).
+ * Publishes the {@code jdbc.connections.waiting} gauge.
+ */
+public class BoundedDataSource extends DelegatingDataSource {
+
+	private final Semaphore permits;
+	private final long timeoutNanos;
+
+	public BoundedDataSource(final DataSource target, final int maxConnections, final Duration acquireTimeout,
+			final MeterRegistry meterRegistry) {
+		super(target);
+		this.permits = new Semaphore(maxConnections, true);
+		this.timeoutNanos = acquireTimeout.toNanos();
+		Gauge.builder("jdbc.connections.waiting", permits, Semaphore::getQueueLength)
+				.description("Threads waiting for a permit to borrow a pooled connection")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		return guarded(() -> super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(final String username, final String password) throws SQLException {
+		acquire();
+		return guarded(() -> super.getConnection(username, password));
+	}
+
+	private interface ConnectionSupplier {
+		Connection get() throws SQLException;
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+				throw new SQLTransientConnectionException("No database connection available after "
+						+ Duration.ofNanos(timeoutNanos));
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+		}
+	}
+
+	private Connection guarded(final ConnectionSupplier supplier) throws SQLException {
+		final Connection connection;
+		try {
+			connection = supplier.get();
+		} catch (final SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+		return releasingOnClose(connection);
+	}
+
+	/**
+	 * Wraps the pooled connection so closing it, once, gives the permit back.
+	 */
+	private Connection releasingOnClose(final Connection connection) {
+		final var released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args) -> {
+					if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+						try {
+							connection.close();
+						} finally {
+							if (released.compareAndSet(false, true)) {
+								permits.release();
+							}
+						}
+						return null;
+					}
+					if ("unwrap".equals(method.getName()) && Connection.class.equals(args[0])) {
+						return proxy;
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (final InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+				});
+	}
+}
@@ -0,0 +1,73 @@
+package org.pedrcruz.backendarch.util.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of strings: {@link #mightContain(String)} never returns false for a value that
+ * was added, and returns true for a value that was not with roughly the configured probability.
+ * <p>
+ * Uses double hashing over a 64-bit hash of the value's UTF-8 bytes. Adding and probing are thread-safe
+ * and lock-free; values cannot be removed, so owners rebuild the filter to drop them.
+ */
+public class BloomFilter {
+
+	private final AtomicLongArray words;
+	private final long numBits;
+	private final int numHashes;
+
+	public BloomFilter(final int expectedInsertions, final double falsePositiveRate) {
+		final int n = Math.max(1, expectedInsertions);
+		final double ln2 = Math.log(2);
+		final long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+		final int numWords = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+		this.words = new AtomicLongArray(numWords);
+		this.numBits = (long) numWords * 64;
+		this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * ln2));
+	}
+
+	public void put(final String value) {
+		final long hash = hash64(value);
+		final int h1 = (int) hash;
+		final int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= numHashes; i++) {
+			final long bit = index(h1 + i * h2);
+			final long mask = 1L << bit;
+			words.accumulateAndGet((int) (bit >>> 6), mask, (word, m) -> word | m);
+		}
+	}
+
+	public boolean mightContain(final String value) {
+		final long hash = hash64(value);
+		final int h1 = (int) hash;
+		final int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= numHashes; i++) {
+			final long bit = index(h1 + i * h2);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private long index(final int combined) {
+		return (combined < 0 ? ~combined : combined) % numBits;
+	}
+
+	/**
+	 * FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so both halves are well spread.
+	 */
+	private static long hash64(final String value) {
+		long h = 0xcbf29ce484222325L;
+		for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			h ^= b;
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,96 @@
+package org.pedrcruz.backendarch.util.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.pedrcruz.backendarch.exceptions.TooManyAttemptsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing and verification on a small dedicated pool, so a burst of logins can occupy at
+ * most that many cores instead of every request thread. The pool has a bounded queue; when it is full
+ * the call is refused at once with {@link TooManyAttemptsException} (429) rather than queued further.
+ * <p>
+ * Publishes the {@code security.password.hashing} timer (tagged {@code operation}), the
+ * {@code security.password.hashing.queue} gauge and the {@code security.password.hashing.rejected}
+ * counter.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+	private static final long RETRY_AFTER_SECONDS = 1;
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+	private final Counter rejected;
+
+	public BoundedPasswordEncoder(final PasswordEncoder delegate, final int threads, final int queueCapacity,
+			final MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		final var threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					final var thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+
+		this.encodeTimer = timer(meterRegistry, "encode");
+		this.matchesTimer = timer(meterRegistry, "matches");
+		this.rejected = Counter.builder("security.password.hashing.rejected")
+				.description("Password hashing requests refused because the hashing queue was full")
+				.register(meterRegistry);
+		Gauge.builder("security.password.hashing.queue", executor, e -> e.getQueue().size())
+				.description("Password hashing requests waiting for a hashing thread")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public String encode(final CharSequence rawPassword) {
+		return run(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+	}
+
+	@Override
+	public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+		return run(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+	}
+
+	@Override
+	public boolean upgradeEncoding(final String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	private <T> T run(final Callable<T> task) {
+		try {
+			return executor.submit(task).get();
+		} catch (final RejectedExecutionException e) {
+			rejected.increment();
+			throw new TooManyAttemptsException("Too many password checks in progress", RETRY_AFTER_SECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while hashing password", e);
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			throw new IllegalStateException("Password hashing failed", e.getCause());
+		}
+	}
+
+	private static Timer timer(final MeterRegistry meterRegistry, final String operation) {
+		return Timer.builder("security.password.hashing")
+				.description("Time spent hashing or verifying a password on the hashing pool")
+				.tag("operation", operation)
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,134 @@
+package org.pedrcruz.backendarch.util.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers successful username/password authentications for a short time, so clients sending the same
+ * HTTP Basic credentials on every request pay the password hash once per TTL instead of once per request.
+ * <p>
+ * The presented password is never stored: entries hold an HMAC-SHA256 of it under a random key that lives
+ * only in this instance's memory, compared in constant time. Failed attempts are not cached, so guessing
+ * still costs a full hash each time. Entries are dropped when the user's credentials, authorities or
+ * status change (see {@link #invalidate(String)}) and expire after the TTL regardless.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+	private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+	private record Entry(byte[] passwordMac, Authentication authentication, long expiresAt) {
+	}
+
+	private final AuthenticationProvider delegate;
+	private final long ttlMillis;
+	private final int maxEntries;
+	private final SecretKeySpec key;
+	private final ThreadLocal<Mac> macs;
+
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	public CachingAuthenticationProvider(final AuthenticationProvider delegate, final Duration ttl,
+			final int maxEntries) {
+		this.delegate = delegate;
+		this.ttlMillis = ttl.toMillis();
+		this.maxEntries = maxEntries;
+
+		final var secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+		this.macs = ThreadLocal.withInitial(this::newMac);
+	}
+
+	@Override
+	public Authentication authenticate(final Authentication authentication) throws AuthenticationException {
+		final var username = authentication.getName();
+		final var credentials = authentication.getCredentials();
+		if (username == null || !(credentials instanceof String password)) {
+			return delegate.authenticate(authentication);
+		}
+
+		final var mac = macOf(username, password);
+		final var now = System.currentTimeMillis();
+		final var cached = entries.get(username);
+		if (cached != null && cached.expiresAt() > now && MessageDigest.isEqual(cached.passwordMac(), mac)) {
+			return copyOf(cached.authentication(), authentication.getDetails());
+		}
+
+		final long invalidationsBefore = invalidations.get();
+		final var result = delegate.authenticate(authentication);
+		// skip caching if an invalidation raced the check: it may have verified the old state
+		if (result != null && result.isAuthenticated() && invalidations.get() == invalidationsBefore) {
+			if (entries.size() >= maxEntries) {
+				entries.values().removeIf(e -> e.expiresAt() <= now);
+				if (entries.size() >= maxEntries) {
+					entries.clear();
+				}
+			}
+			entries.put(username, new Entry(mac, copyOf(result, null), now + ttlMillis));
+		}
+		return result;
+	}
+
+	@Override
+	public boolean supports(final Class<?> authentication) {
+		return delegate.supports(authentication);
+	}
+
+	/**
+	 * Forgets the cached authentication of a user; call when the password, authorities or enabled state
+	 * change.
+	 */
+	public void invalidate(final String username) {
+		if (username != null) {
+			invalidations.incrementAndGet();
+			entries.remove(username);
+		}
+	}
+
+	public void invalidateAll() {
+		invalidations.incrementAndGet();
+		entries.clear();
+	}
+
+	/**
+	 * A fresh token per request, without credentials, so callers can neither mutate nor erase the cached one.
+	 */
+	private static Authentication copyOf(final Authentication authentication, final Object details) {
+		final var copy = UsernamePasswordAuthenticationToken.authenticated(authentication.getPrincipal(), null,
+				authentication.getAuthorities());
+		copy.setDetails(details);
+		return copy;
+	}
+
+	private byte[] macOf(final String username, final String password) {
+		final var mac = macs.get();
+		mac.update(username.getBytes(StandardCharsets.UTF_8));
+		// separator so ("ab", "c") and ("a", "bc") differ
+		mac.update((byte) 0);
+		return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private Mac newMac() {
+		try {
+			final var mac = Mac.getInstance(HMAC_ALGORITHM);
+			mac.init(key);
+			return mac;
+		} catch (final GeneralSecurityException e) {
+			throw new IllegalStateException("HMAC-SHA256 is not available", e);
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package org.pedrcruz.backendarch.util.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the authorities extracted from each token until it expires. Pairs with
+ * {@link CachingJwtDecoder}, which hands out the same {@link Jwt} instance for a repeated token, so the
+ * lookup reuses the hash code its token value already computed.
+ */
+public class CachingGrantedAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+	private final Converter<Jwt, Collection<GrantedAuthority>> delegate;
+	private final int maxEntries;
+	private final ConcurrentMap<Jwt, Collection<GrantedAuthority>> authorities = new ConcurrentHashMap<>();
+
+	public CachingGrantedAuthoritiesConverter(final Converter<Jwt, Collection<GrantedAuthority>> delegate,
+			final int maxEntries) {
+		this.delegate = delegate;
+		this.maxEntries = maxEntries;
+	}
+
+	@Override
+	public Collection<GrantedAuthority> convert(final Jwt jwt) {
+		if (jwt.getExpiresAt() == null) {
+			return delegate.convert(jwt);
+		}
+		final var cached = authorities.get(jwt);
+		if (cached != null) {
+			return cached;
+		}
+
+		final var converted = delegate.convert(jwt);
+		final Collection<GrantedAuthority> immutable = converted != null ? List.copyOf(converted) : List.of();
+		if (authorities.size() >= maxEntries) {
+			final var now = Instant.now();
+			authorities.keySet().removeIf(j -> !j.getExpiresAt().isAfter(now));
+			if (authorities.size() >= maxEntries) {
+				authorities.clear();
+			}
+		}
+		authorities.put(jwt, immutable);
+		return immutable;
+	}
+}
@@ -0,0 +1,104 @@
+package org.pedrcruz.backendarch.util.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers tokens that the delegate decoder already parsed and verified, until they expire.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token, hold the verified {@link Jwt} and are ignored once its
+ * {@code exp} has passed. Tokens without an expiry are never cached. The cache is bounded: when full,
+ * expired entries are purged and, if that is not enough, it starts over.
+ * <p>
+ * Publishes the {@code security.jwt.decode} timer tagged with {@code result} = {@code hit}, {@code miss}
+ * or {@code invalid}; the hit rate is the ratio of the hit count to the total.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+	private final JwtDecoder delegate;
+	private final int maxEntries;
+	private final ConcurrentMap<String, Jwt> verified = new ConcurrentHashMap<>();
+	private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(CachingJwtDecoder::sha256);
+
+	private final Timer hits;
+	private final Timer misses;
+	private final Timer invalid;
+
+	public CachingJwtDecoder(final JwtDecoder delegate, final int maxEntries, final MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.maxEntries = maxEntries;
+		this.hits = timer(meterRegistry, "hit");
+		this.misses = timer(meterRegistry, "miss");
+		this.invalid = timer(meterRegistry, "invalid");
+	}
+
+	@Override
+	public Jwt decode(final String token) throws JwtException {
+		final long start = System.nanoTime();
+		final var key = keyOf(token);
+		final var now = Instant.now();
+
+		final var cached = verified.get(key);
+		if (cached != null && cached.getExpiresAt().isAfter(now)) {
+			hits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return cached;
+		}
+
+		final Jwt jwt;
+		try {
+			jwt = delegate.decode(token);
+		} catch (final JwtException e) {
+			invalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			throw e;
+		}
+		if (jwt.getExpiresAt() != null) {
+			if (verified.size() >= maxEntries) {
+				verified.values().removeIf(j -> !j.getExpiresAt().isAfter(now));
+				if (verified.size() >= maxEntries) {
+					verified.clear();
+				}
+			}
+			verified.put(key, jwt);
+		}
+		misses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		return jwt;
+	}
+
+	/**
+	 * Forgets every verified token, e.g. after a signing key rotation.
+	 */
+	public void clear() {
+		verified.clear();
+	}
+
+	private String keyOf(final String token) {
+		return Base64.getEncoder().encodeToString(digests.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	private static Timer timer(final MeterRegistry meterRegistry, final String result) {
+		return Timer.builder("security.jwt.decode")
+				.description("Bearer token decoding, served from the verified-token cache or verified in full")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package org.pedrcruz.backendarch.util.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pedrcruz.backendarch.exceptions.TooManyAttemptsException;
+
+/**
+ * Limits how often password checks may be attempted per username and per client IP, with token buckets,
+ * so one account or one client cannot keep the password hashing pool busy.
+ */
+public class LoginThrottle {
+
+	private final TokenBuckets byUsername;
+	private final TokenBuckets byRemoteAddress;
+	private final Counter throttled;
+
+	public LoginThrottle(final TokenBuckets byUsername, final TokenBuckets byRemoteAddress,
+			final MeterRegistry meterRegistry) {
+		this.byUsername = byUsername;
+		this.byRemoteAddress = byRemoteAddress;
+		this.throttled = Counter.builder("security.login.throttled")
+				.description("Password checks refused because the username or client exceeded its attempt rate")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Takes one attempt from the client's and the username's budgets; either may be null.
+	 *
+	 * @throws TooManyAttemptsException if either budget is exhausted
+	 */
+	public void acquire(final String username, final String remoteAddress) {
+		if (remoteAddress != null && !byRemoteAddress.tryAcquire(remoteAddress)) {
+			throttled.increment();
+			throw new TooManyAttemptsException("Too many attempts from this client", byRemoteAddress.secondsPerToken());
+		}
+		if (username != null && !byUsername.tryAcquire(username)) {
+			throttled.increment();
+			throw new TooManyAttemptsException("Too many attempts for this user", byUsername.secondsPerToken());
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package org.pedrcruz.backendarch.util.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Applies the {@link LoginThrottle} before delegating, i.e. before a password is hashed. Placed inside
+ * the {@link CachingAuthenticationProvider}, so only checks that miss the credential cache are counted.
+ */
+public class ThrottlingAuthenticationProvider implements AuthenticationProvider {
+
+	private final AuthenticationProvider delegate;
+	private final LoginThrottle throttle;
+
+	public ThrottlingAuthenticationProvider(final AuthenticationProvider delegate, final LoginThrottle throttle) {
+		this.delegate = delegate;
+		this.throttle = throttle;
+	}
+
+	@Override
+	public Authentication authenticate(final Authentication authentication) throws AuthenticationException {
+		final var remoteAddress = authentication.getDetails() instanceof WebAuthenticationDetails details
+				? details.getRemoteAddress()
+				: null;
+		throttle.acquire(authentication.getName(), remoteAddress);
+		return delegate.authenticate(authentication);
+	}
+
+	@Override
+	public boolean supports(final Class<?> authentication) {
+		return delegate.supports(authentication);
+	}
+}
@@ -0,0 +1,75 @@
+package org.pedrcruz.backendarch.util.security;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token buckets keyed by string (a username, an IP address). Each key may take {@code capacity} tokens
+ * in a burst, refilled continuously at {@code capacity} per {@code refillPeriod}.
+ * <p>
+ * Keys are spread over striped maps, each guarded by its own lock, so concurrent callers rarely contend.
+ * Each stripe keeps its least recently used keys up to a bound; an evicted key simply starts again with a
+ * full bucket.
+ */
+public class TokenBuckets {
+
+	private static final int STRIPES = 16;
+
+	private static final class Bucket {
+		double tokens;
+		long refilledAt;
+	}
+
+	private final double capacity;
+	private final double tokensPerNano;
+	private final Map<String, Bucket>[] stripes;
+
+	@SuppressWarnings("unchecked")
+	public TokenBuckets(final int capacity, final Duration refillPeriod, final int maxKeys) {
+		this.capacity = capacity;
+		this.tokensPerNano = capacity / (double) refillPeriod.toNanos();
+		final int perStripe = Math.max(1, maxKeys / STRIPES);
+		this.stripes = new Map[STRIPES];
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(final Map.Entry<String, Bucket> eldest) {
+					return size() > perStripe;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Takes a token from the key's bucket; returns false, taking nothing, if it is empty.
+	 */
+	public boolean tryAcquire(final String key) {
+		final var stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+		final long now = System.nanoTime();
+		synchronized (stripe) {
+			var bucket = stripe.get(key);
+			if (bucket == null) {
+				bucket = new Bucket();
+				bucket.tokens = capacity;
+				bucket.refilledAt = now;
+				stripe.put(key, bucket);
+			} else {
+				bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) * tokensPerNano);
+				bucket.refilledAt = now;
+			}
+			if (bucket.tokens < 1) {
+				return false;
+			}
+			bucket.tokens -= 1;
+			return true;
+		}
+	}
+
+	/**
+	 * Seconds until an empty bucket holds a token again.
+	 */
+	public long secondsPerToken() {
+		return Math.max(1, (long) Math.ceil(1 / tokensPerNano / 1_000_000_000d));
+	}
+}
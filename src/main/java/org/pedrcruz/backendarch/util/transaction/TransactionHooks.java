@@ -0,0 +1,57 @@
+package org.pedrcruz.backendarch.util.transaction;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Helpers to defer side effects (in-memory indexes, change logs) until the surrounding
+ * transaction has committed, so a rollback never leaves them ahead of the database.
+ */
+@Slf4j
+public final class TransactionHooks {
+
+	private TransactionHooks() {
+		// utility class
+	}
+
+	/**
+	 * Runs {@code action} after the current transaction commits, or immediately if there is no
+	 * transaction.
+	 */
+	public static void afterCommit(final Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	/**
+	 * Runs {@code action} on {@code executor} after the current transaction commits, for work too heavy for
+	 * the request thread. Failures are logged rather than thrown: the write is committed by then.
+	 */
+	public static void afterCommit(final Executor executor, final Runnable action) {
+		afterCommit(() -> {
+			try {
+				executor.execute(() -> {
+					try {
+						action.run();
+					} catch (final RuntimeException e) {
+						log.warn("After-commit task failed", e);
+					}
+				});
+			} catch (final RejectedExecutionException e) {
+				log.warn("After-commit task rejected", e);
+			}
+		});
+	}
+}
@@ -0,0 +1,91 @@
+package org.pedrcruz.backendarch.util.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Admits requests within a {@link GradientConcurrencyLimit}, according to their {@link RequestPriority};
+ * the others get an immediate 503 with {@code Retry-After} instead of queueing behind the requests already
+ * running.
+ * <p>
+ * Publishes the {@code http.concurrency.limit} and {@code http.concurrency.in-flight} gauges and the
+ * {@code http.concurrency.rejected} counter, tagged with the priority.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private static final byte[] BUSY = "{\"success\":false,\"message\":\"Server busy, please retry later\",\"status\":503}"
+			.getBytes(StandardCharsets.UTF_8);
+
+	private final GradientConcurrencyLimit limit;
+	private final Function<HttpServletRequest, RequestPriority> classifier;
+	private final String retryAfter;
+	private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+
+	public ConcurrencyLimitFilter(final GradientConcurrencyLimit limit,
+			final Function<HttpServletRequest, RequestPriority> classifier, final Duration retryAfter,
+			final MeterRegistry meterRegistry) {
+		this.limit = limit;
+		this.classifier = classifier;
+		this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+
+		Gauge.builder("http.concurrency.limit", limit, GradientConcurrencyLimit::limit)
+				.description("Current adaptive limit on concurrent requests")
+				.register(meterRegistry);
+		Gauge.builder("http.concurrency.in-flight", limit, GradientConcurrencyLimit::inFlight)
+				.description("Requests admitted by the concurrency limit and still running")
+				.register(meterRegistry);
+		for (final RequestPriority priority : RequestPriority.values()) {
+			rejected.put(priority, Counter.builder("http.concurrency.rejected")
+					.description("Requests refused with 503 because the concurrency limit was reached")
+					.tag("priority", priority.name().toLowerCase(Locale.ROOT))
+					.register(meterRegistry));
+		}
+	}
+
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+			final FilterChain filterChain) throws ServletException, IOException {
+		final var priority = classifier.apply(request);
+		if (priority == RequestPriority.CRITICAL) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		if (!limit.tryAcquire(priority.share())) {
+			rejected.get(priority).increment();
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			response.setContentLength(BUSY.length);
+			response.getOutputStream().write(BUSY);
+			return;
+		}
+
+		final long start = System.nanoTime();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			limit.release();
+			// server errors are often fast failures and would make the latency look better than it is
+			if (priority.sampled() && response.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+				limit.sample(System.nanoTime() - start);
+			}
+		}
+	}
+}
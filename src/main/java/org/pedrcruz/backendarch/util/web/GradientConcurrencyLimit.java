@@ -0,0 +1,130 @@
+package org.pedrcruz.backendarch.util.web;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A limit on concurrent requests that follows observed latency, after the gradient algorithm of Netflix's
+ * concurrency-limits library.
+ * <p>
+ * Latencies are averaged per window (at least {@code window} long and {@code minWindowSamples} samples)
+ * and compared with a slowly moving baseline. While the window average stays within {@link #TOLERANCE} of
+ * the baseline the limit grows by about its square root per window, but only if at least half of it was
+ * used. When requests slow down, which means they queue somewhere (a database connection, a lock), the
+ * limit shrinks in proportion, by at most half per window. Both moves are smoothed and kept within
+ * {@code [minLimit, maxLimit]}.
+ */
+public class GradientConcurrencyLimit {
+
+	// latency increase over the baseline tolerated before the limit shrinks
+	private static final double TOLERANCE = 1.5;
+	// weight of a window's target in the new limit
+	private static final double SMOOTHING = 0.2;
+	// the baseline is an average over about this many windows
+	private static final double BASELINE_WINDOWS = 100;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long windowNanos;
+	private final int minWindowSamples;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private volatile double limit;
+
+	private final LongAdder windowRtt = new LongAdder();
+	private final LongAdder windowSamples = new LongAdder();
+	private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+	private volatile long windowEnd;
+	// a lock rather than synchronized, so that virtual threads do not pin; only one caller closes a window
+	private final ReentrantLock updateLock = new ReentrantLock();
+	// guarded by updateLock
+	private double baselineRtt;
+
+	public GradientConcurrencyLimit(final int initialLimit, final int minLimit, final int maxLimit,
+			final Duration window, final int minWindowSamples) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.windowNanos = window.toNanos();
+		this.minWindowSamples = minWindowSamples;
+		this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+		this.windowEnd = System.nanoTime() + windowNanos;
+	}
+
+	public int limit() {
+		return (int) limit;
+	}
+
+	public int inFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * Admits a request if fewer than {@code share} of the limit are in flight. A caller that gets
+	 * {@code true} must call {@link #release()} exactly once.
+	 */
+	public boolean tryAcquire(final double share) {
+		final int allowed = Math.max(1, (int) (limit * share));
+		while (true) {
+			final int current = inFlight.get();
+			if (current >= allowed) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+				return true;
+			}
+		}
+	}
+
+	public void release() {
+		inFlight.decrementAndGet();
+	}
+
+	/**
+	 * Records the latency of a completed request; the caller that completes a window adjusts the limit.
+	 */
+	public void sample(final long rttNanos) {
+		windowRtt.add(rttNanos);
+		windowSamples.increment();
+		final long now = System.nanoTime();
+		if (now - windowEnd < 0 || windowSamples.sum() < minWindowSamples || !updateLock.tryLock()) {
+			return;
+		}
+		try {
+			if (now - windowEnd >= 0) {
+				final long samples = windowSamples.sumThenReset();
+				final long total = windowRtt.sumThenReset();
+				final int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+				windowEnd = now + windowNanos;
+				if (samples > 0) {
+					update((double) total / samples, maxInFlight);
+				}
+			}
+		} finally {
+			updateLock.unlock();
+		}
+	}
+
+	private void update(final double rtt, final int maxInFlight) {
+		if (baselineRtt == 0) {
+			baselineRtt = rtt;
+		} else {
+			baselineRtt += (rtt - baselineRtt) / BASELINE_WINDOWS;
+			// far faster than the baseline (e.g. after a slow warm-up): let the baseline come down quickly
+			if (baselineRtt > 2 * rtt) {
+				baselineRtt *= 0.95;
+			}
+		}
+
+		final double current = limit;
+		final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineRtt / rtt));
+		if (gradient >= 1.0 && maxInFlight < current / 2) {
+			// latency is fine but most of the limit went unused: no evidence that a higher one would be
+			return;
+		}
+		final double target = current * gradient + Math.sqrt(current);
+		limit = Math.max(minLimit, Math.min(maxLimit, current * (1 - SMOOTHING) + target * SMOOTHING));
+	}
+}
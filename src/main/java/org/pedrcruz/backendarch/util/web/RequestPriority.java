@@ -0,0 +1,49 @@
+package org.pedrcruz.backendarch.util.web;
+
+/**
+ * How {@link ConcurrencyLimitFilter} treats a request when the server is saturated. Each class may only
+ * use its share of the concurrency limit, so lower classes are refused first and the remaining headroom
+ * stays available to the higher ones.
+ */
+public enum RequestPriority {
+
+	/**
+	 * Never limited nor counted, e.g. health checks.
+	 */
+	CRITICAL(Double.POSITIVE_INFINITY, false),
+
+	/**
+	 * May use the whole limit, e.g. order writes and kitchen transitions.
+	 */
+	HIGH(1.0, true),
+
+	NORMAL(0.8, true),
+
+	/**
+	 * Shed first, e.g. analytics, exports and admin searches. Not sampled: an export runs for minutes and
+	 * would distort the latency the limit is derived from.
+	 */
+	LOW(0.5, false);
+
+	private final double share;
+	private final boolean sampled;
+
+	RequestPriority(final double share, final boolean sampled) {
+		this.share = share;
+		this.sampled = sampled;
+	}
+
+	/**
+	 * Fraction of the limit requests of this class may occupy, counting every request in flight.
+	 */
+	public double share() {
+		return share;
+	}
+
+	/**
+	 * Whether the latency of these requests feeds the limit.
+	 */
+	public boolean sampled() {
+		return sampled;
+	}
+}
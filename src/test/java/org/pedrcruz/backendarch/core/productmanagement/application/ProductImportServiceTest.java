@@ -0,0 +1,43 @@
+package org.pedrcruz.backendarch.core.productmanagement.application;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.pedrcruz.backendarch.core.productmanagement.application.ProductImportService.parseCsvLine;
+
+class ProductImportServiceTest {
+
+    @Test
+    void splitsPlainFields() {
+        assertThat(parseCsvLine("name,description,12.50")).containsExactly("name", "description", "12.50");
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertThat(parseCsvLine("a,,c,")).containsExactly("a", "", "c", "");
+        assertThat(parseCsvLine("")).containsExactly("");
+    }
+
+    @Test
+    void keepsSeparatorsInsideQuotes() {
+        assertThat(parseCsvLine("\"Chair, oak\",furniture")).containsExactly("Chair, oak", "furniture");
+    }
+
+    @Test
+    void unescapesDoubledQuotes() {
+        assertThat(parseCsvLine("\"27\"\" monitor\",\"\"")).containsExactly("27\" monitor", "");
+    }
+
+    @Test
+    void keepsSpacesAroundFields() {
+        assertThat(parseCsvLine(" a , b ")).containsExactly(" a ", " b ");
+    }
+
+    @Test
+    void rejectsUnterminatedQuotes() {
+        assertThatThrownBy(() -> parseCsvLine("\"open,field"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unterminated");
+    }
+}
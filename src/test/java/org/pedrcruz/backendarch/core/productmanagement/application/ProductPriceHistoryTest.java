@@ -0,0 +1,53 @@
+package org.pedrcruz.backendarch.core.productmanagement.application;
+
+import org.junit.jupiter.api.Test;
+import org.pedrcruz.backendarch.core.productmanagement.domain.model.ProductPrice;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductPriceHistoryTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant T1 = Instant.parse("2024-02-01T00:00:00Z");
+    private static final Instant T2 = Instant.parse("2024-03-01T00:00:00Z");
+
+    private static ProductPrice price(final Instant validFrom, final String price) {
+        return new ProductPrice(1L, validFrom, new BigDecimal(price));
+    }
+
+    @Test
+    void emptyTimelineHasNoPrice() {
+        final var timeline = new ProductPriceHistory.Timeline(List.of(), 0);
+
+        assertThat(timeline.isEmpty()).isTrue();
+        assertThat(timeline.at(T1)).isEmpty();
+    }
+
+    @Test
+    void returnsThePriceInEffectAtAnInstant() {
+        final var first = price(T0, "10.00");
+        final var second = price(T1, "12.00");
+        final var timeline = new ProductPriceHistory.Timeline(List.of(first, second), 0);
+
+        assertThat(timeline.at(T0.minusMillis(1))).isEmpty();
+        assertThat(timeline.at(T0)).containsSame(first);
+        assertThat(timeline.at(T1.minusMillis(1))).containsSame(first);
+        assertThat(timeline.at(T1)).containsSame(second);
+        assertThat(timeline.at(T2)).containsSame(second);
+    }
+
+    @Test
+    void laterEntryWinsForTheSameInstant() {
+        final var first = price(T0, "10.00");
+        final var corrected = price(T0, "9.00");
+        final var next = price(T1, "12.00");
+        final var timeline = new ProductPriceHistory.Timeline(List.of(first, corrected, next), 0);
+
+        assertThat(timeline.at(T0)).containsSame(corrected);
+        assertThat(timeline.at(T1)).containsSame(next);
+    }
+}
@@ -0,0 +1,143 @@
+package org.pedrcruz.backendarch.util.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingCacheTest {
+
+	private static final Duration TTL = Duration.ofMinutes(10);
+	private static final Duration STALE = Duration.ofSeconds(30);
+
+	private final AtomicLong now = new AtomicLong(1_000_000);
+	private final AtomicInteger loads = new AtomicInteger();
+	private SimpleMeterRegistry meterRegistry;
+	private CoalescingCache cache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		// refreshes run on the calling thread, so they have finished when get() returns
+		cache = new CoalescingCache("test", Runnable::run, TTL, STALE, 100, meterRegistry, now::get);
+	}
+
+	private String load() {
+		return "v" + loads.incrementAndGet();
+	}
+
+	@Test
+	void servesLoadedValueUntilItExpires() {
+		assertThat(cache.get("k", this::load)).isEqualTo("v1");
+		now.addAndGet(TTL.toMillis() - 1);
+
+		assertThat(cache.get("k", this::load)).isEqualTo("v1");
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void servesExpiredValueWhileRefreshingWithinGracePeriod() {
+		cache.get("k", this::load);
+		now.addAndGet(TTL.toMillis() + 1);
+
+		assertThat(cache.get("k", this::load)).isEqualTo("v1");
+		assertThat(cache.get("k", this::load)).isEqualTo("v2");
+		assertThat(meterRegistry.counter("cache.stale.served", "cache", "test").count()).isEqualTo(1);
+	}
+
+	@Test
+	void loadsSynchronouslyPastGracePeriod() {
+		cache.get("k", this::load);
+		now.addAndGet(TTL.toMillis() + STALE.toMillis());
+
+		assertThat(cache.get("k", this::load)).isEqualTo("v2");
+		assertThat(meterRegistry.counter("cache.stale.served", "cache", "test").count()).isZero();
+	}
+
+	@Test
+	void plainLookupSeesOnlyFreshEntries() {
+		cache.get("k", this::load);
+		assertThat(cache.get("k")).extracting(Cache.ValueWrapper::get).isEqualTo("v1");
+
+		now.addAndGet(TTL.toMillis());
+		assertThat(cache.get("k")).isNull();
+	}
+
+	@Test
+	void clearDropsEntriesOutright() {
+		cache.get("k", this::load);
+		cache.clear();
+
+		assertThat(cache.get("k", this::load)).isEqualTo("v2");
+		assertThat(meterRegistry.counter("cache.stale.served", "cache", "test").count()).isZero();
+	}
+
+	@Test
+	void evictDropsOneEntry() {
+		cache.get("a", this::load);
+		cache.get("b", this::load);
+		cache.evict("a");
+
+		assertThat(cache.get("a", this::load)).isEqualTo("v3");
+		assertThat(cache.get("b", this::load)).isEqualTo("v2");
+	}
+
+	@Test
+	void loadInFlightAcrossClearIsNotStored() {
+		// a write commits and clears the cache while the value is being read
+		assertThat(cache.get("k", () -> {
+			final var value = load();
+			cache.clear();
+			return value;
+		})).isEqualTo("v1");
+
+		assertThat(cache.get("k", this::load)).isEqualTo("v2");
+	}
+
+	@Test
+	void failedRefreshDropsExpiredEntry() {
+		cache.get("k", this::load);
+		now.addAndGet(TTL.toMillis() + 1);
+
+		assertThat(cache.get("k", () -> {
+			throw new IllegalStateException("gone");
+		})).isEqualTo("v1");
+		assertThatThrownBy(() -> cache.get("k", () -> {
+			throw new IllegalStateException("gone");
+		})).isInstanceOf(Cache.ValueRetrievalException.class);
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		final var loading = new CountDownLatch(1);
+		final var release = new CountDownLatch(1);
+		final var first = CompletableFuture.supplyAsync(() -> cache.get("k", () -> {
+			loading.countDown();
+			release.await();
+			return load();
+		}));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		final var second = CompletableFuture.supplyAsync(() -> cache.get("k", this::load));
+		final var coalesced = meterRegistry.counter("cache.coalesced.requests", "cache", "test");
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (coalesced.count() < 1 && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+		assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+		assertThat(loads).hasValue(1);
+	}
+}
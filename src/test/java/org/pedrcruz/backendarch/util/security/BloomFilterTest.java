@@ -0,0 +1,45 @@
+package org.pedrcruz.backendarch.util.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+	@Test
+	void alwaysContainsAddedValues() {
+		final var filter = new BloomFilter(1_000, 0.01);
+		for (int i = 0; i < 1_000; i++) {
+			filter.put("jti-" + i);
+		}
+
+		for (int i = 0; i < 1_000; i++) {
+			assertThat(filter.mightContain("jti-" + i)).isTrue();
+		}
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		final var filter = new BloomFilter(1_000, 0.01);
+
+		assertThat(filter.mightContain("jti-0")).isFalse();
+		assertThat(filter.mightContain("")).isFalse();
+	}
+
+	@Test
+	void falsePositivesStayNearTheConfiguredRate() {
+		final var filter = new BloomFilter(1_000, 0.01);
+		for (int i = 0; i < 1_000; i++) {
+			filter.put("jti-" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("other-" + i)) {
+				falsePositives++;
+			}
+		}
+
+		assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+	}
+}
@@ -0,0 +1,106 @@
+package org.pedrcruz.backendarch.util.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimitTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+	// a zero window with one sample per window: every sample closes a window
+	private static GradientConcurrencyLimit limit(final int initial, final int min, final int max) {
+		return new GradientConcurrencyLimit(initial, min, max, Duration.ZERO, 1);
+	}
+
+	private static void fillUp(final GradientConcurrencyLimit limit) {
+		while (limit.tryAcquire(1.0)) {
+			// hold every permit, so the whole limit counts as used
+		}
+	}
+
+	@Test
+	void admitsOnlyTheGivenShareOfTheLimit() {
+		final var limit = limit(10, 1, 100);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(limit.tryAcquire(0.5)).isTrue();
+		}
+		assertThat(limit.tryAcquire(0.5)).isFalse();
+		assertThat(limit.tryAcquire(1.0)).isTrue();
+
+		limit.release();
+		assertThat(limit.inFlight()).isEqualTo(5);
+		assertThat(limit.tryAcquire(0.5)).isFalse();
+		limit.release();
+		assertThat(limit.tryAcquire(0.5)).isTrue();
+	}
+
+	@Test
+	void growsWhileLatencyHoldsAndTheLimitIsUsed() {
+		final var limit = limit(10, 1, 100);
+
+		for (int i = 0; i < 10; i++) {
+			fillUp(limit);
+			limit.sample(FAST);
+		}
+
+		assertThat(limit.limit()).isGreaterThan(10);
+	}
+
+	@Test
+	void doesNotGrowWhenMostOfTheLimitGoesUnused() {
+		final var limit = limit(10, 1, 100);
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(limit.tryAcquire(1.0)).isTrue();
+			limit.sample(FAST);
+			limit.release();
+		}
+
+		assertThat(limit.limit()).isEqualTo(10);
+	}
+
+	@Test
+	void growthStopsAtTheMaximum() {
+		final var limit = limit(10, 1, 12);
+
+		for (int i = 0; i < 50; i++) {
+			fillUp(limit);
+			limit.sample(FAST);
+		}
+
+		assertThat(limit.limit()).isEqualTo(12);
+	}
+
+	@Test
+	void shrinksWhenLatencyRisesAboveTheBaseline() {
+		final var limit = limit(10, 1, 100);
+		limit.sample(FAST);
+
+		int previous = limit.limit();
+		for (int i = 0; i < 5; i++) {
+			limit.sample(SLOW);
+			assertThat(limit.limit()).isLessThanOrEqualTo(previous);
+			previous = limit.limit();
+		}
+
+		assertThat(limit.limit()).isLessThan(10);
+	}
+
+	@Test
+	void shrinkingStopsAtTheMinimum() {
+		final var limit = limit(10, 8, 100);
+		limit.sample(FAST);
+
+		for (int i = 0; i < 10; i++) {
+			limit.sample(SLOW);
+		}
+
+		assertThat(limit.limit()).isEqualTo(8);
+	}
+}